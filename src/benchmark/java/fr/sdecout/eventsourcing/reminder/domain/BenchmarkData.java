@@ -0,0 +1,110 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static java.util.Arrays.asList;
+import static net.jqwik.api.Arbitraries.defaultFor;
+import static net.jqwik.api.Combinators.combine;
+
+/**
+ * Event streams for benchmarks, generated from the same arbitraries as property-based tests.
+ * Generation is seeded, so that successive benchmark runs replay the exact same streams and remain comparable.
+ */
+public final class BenchmarkData {
+
+    public static final String REMINDER_ID = "REMINDER1";
+
+    private static final long SEED = 20220304L;
+    private static final int GEN_SIZE = 1000;
+
+    private BenchmarkData() {
+    }
+
+    public enum EventKind {
+        ASSIGNED, UNASSIGNED, RESCHEDULED, TRANSFERRED, CANCELLED, REOPENED, MARKED_AS_DONE
+    }
+
+    public enum EventMix {
+        ASSIGNMENTS(EventKind.ASSIGNED, EventKind.UNASSIGNED),
+        RESCHEDULINGS(EventKind.RESCHEDULED),
+        LIFECYCLE(EventKind.CANCELLED, EventKind.REOPENED, EventKind.MARKED_AS_DONE, EventKind.REOPENED),
+        MIXED(EventKind.values());
+
+        private final List<EventKind> kinds;
+
+        EventMix(final EventKind... kinds) {
+            this.kinds = asList(kinds);
+        }
+    }
+
+    /**
+     * @return stream starting with the scheduling of the reminder, followed by events of given mix
+     */
+    public static ReminderEventStream eventStream(final int length, final EventMix mix) {
+        return withinJqwik(() -> {
+            final var random = new Random(SEED);
+            final List<ReminderEvent> events = new ArrayList<>(length);
+            events.add(sample(reminderScheduled(), random));
+            for (int version = 2; version <= length; version++) {
+                final var kind = sample(Arbitraries.of(mix.kinds), random);
+                events.add(sample(event(kind, new StreamRevision(version)), random));
+            }
+            return new ReminderEventStream(events);
+        });
+    }
+
+    /**
+     * @return event of given kind, that may be applied to the state of a reminder that was just scheduled
+     */
+    public static ReminderEvent nextEvent(final EventKind kind) {
+        return withinJqwik(() -> sample(event(kind, new StreamRevision(2)), new Random(SEED)));
+    }
+
+    private static Arbitrary<ReminderEvent> reminderScheduled() {
+        return combine(
+                defaultFor(Instant.class),
+                Arbitraries.strings().alpha().ofLength(12),
+                Arbitraries.of(ReminderType.class),
+                defaultFor(Country.class),
+                defaultFor(ZonedDateTime.class)
+        ).as((timestamp, interventionId, type, country, scheduledTime) -> new ReminderEvent.ReminderScheduled(
+                REMINDER_ID, new StreamRevision(1), timestamp, interventionId, type, country, scheduledTime));
+    }
+
+    private static Arbitrary<ReminderEvent> event(final EventKind kind, final StreamRevision version) {
+        final Arbitrary<Instant> timestamps = defaultFor(Instant.class);
+        return switch (kind) {
+            case ASSIGNED -> combine(timestamps, Arbitraries.strings().alpha().ofLength(8))
+                    .as((timestamp, assignee) -> new ReminderEvent.ReminderAssigned(REMINDER_ID, version, timestamp, assignee));
+            case UNASSIGNED -> timestamps.map(timestamp -> new ReminderEvent.ReminderUnassigned(REMINDER_ID, version, timestamp));
+            case RESCHEDULED -> combine(timestamps, defaultFor(ZonedDateTime.class))
+                    .as((timestamp, scheduledTime) -> new ReminderEvent.ReminderRescheduled(REMINDER_ID, version, timestamp, scheduledTime));
+            case TRANSFERRED -> combine(timestamps, defaultFor(Country.class))
+                    .as((timestamp, country) -> new ReminderEvent.ReminderTransferred(REMINDER_ID, version, timestamp, country));
+            case CANCELLED -> timestamps.map(timestamp -> new ReminderEvent.ReminderCancelled(REMINDER_ID, version, timestamp));
+            case REOPENED -> timestamps.map(timestamp -> new ReminderEvent.ReminderReopened(REMINDER_ID, version, timestamp));
+            case MARKED_AS_DONE -> timestamps.map(timestamp -> new ReminderEvent.ReminderMarkedAsDone(REMINDER_ID, version, timestamp));
+        };
+    }
+
+    /**
+     * Generators can only be used within jqwik, which {@link Arbitrary#sample()} provides outside of any property.
+     */
+    private static <T> T withinJqwik(final Supplier<T> generation) {
+        return Arbitraries.just(generation).map(Supplier::get).sample();
+    }
+
+    private static <T> T sample(final Arbitrary<T> arbitrary, final Random random) {
+        return arbitrary.generator(GEN_SIZE).next(random).value();
+    }
+
+}
@@ -0,0 +1,76 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a decision, including the rehydration of the aggregate it is made on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderAggregateBenchmark {
+
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    @Param({"1", "10", "100", "1000"})
+    public int streamLength;
+
+    @Param
+    public BenchmarkData.EventMix eventMix;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), ZoneOffset.UTC);
+    private ReminderEventStream eventStream;
+
+    @Setup
+    public void setUp() {
+        eventStream = BenchmarkData.eventStream(streamLength, eventMix);
+    }
+
+    @Benchmark
+    public List<? super ReminderEvent> assign() {
+        final var aggregate = pendingReminder();
+        aggregate.assignTo("OPERATOR1");
+        return aggregate.pendingEvents();
+    }
+
+    @Benchmark
+    public List<? super ReminderEvent> reschedule() {
+        final var aggregate = pendingReminder();
+        aggregate.reschedule(A_DATE_IN_THE_FUTURE);
+        return aggregate.pendingEvents();
+    }
+
+    @Benchmark
+    public List<? super ReminderEvent> cancel() {
+        final var aggregate = pendingReminder();
+        aggregate.cancel();
+        return aggregate.pendingEvents();
+    }
+
+    private ReminderAggregate pendingReminder() {
+        final var aggregate = new ReminderAggregate(eventStream, clock);
+        aggregate.reopen();
+        return aggregate;
+    }
+
+}
@@ -0,0 +1,43 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderEventStreamBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int streamLength;
+
+    @Param
+    public BenchmarkData.EventMix eventMix;
+
+    private ReminderEventStream eventStream;
+
+    @Setup
+    public void setUp() {
+        eventStream = BenchmarkData.eventStream(streamLength, eventMix);
+    }
+
+    @Benchmark
+    public ReminderState replay() {
+        return eventStream.replay();
+    }
+
+}
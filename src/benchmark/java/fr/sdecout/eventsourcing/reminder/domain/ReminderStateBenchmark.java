@@ -0,0 +1,42 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderStateBenchmark {
+
+    @Param
+    public BenchmarkData.EventKind eventKind;
+
+    private ReminderState state;
+    private ReminderEvent event;
+
+    @Setup
+    public void setUp() {
+        state = BenchmarkData.eventStream(1, BenchmarkData.EventMix.MIXED).replay();
+        event = BenchmarkData.nextEvent(eventKind);
+    }
+
+    @Benchmark
+    public ReminderState apply() {
+        return state.apply(event);
+    }
+
+}
@@ -0,0 +1,70 @@
+package fr.sdecout.eventsourcing.reminder.infra.bus;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.infra.bus.RingBufferReminderEventBus.Backpressure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of publishing an event to subscribers that keep up, as seen by the publisher.
+ * With the blocking policy, throughput is bounded by the subscribers; with the dropping policy, it is not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    @Param
+    public Backpressure backpressure;
+
+    @Param({"1", "2"})
+    public int subscriberCount;
+
+    private final ReminderEvent event = new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision(2),
+            Instant.parse("2017-12-31T23:59:59Z"), "OPERATOR1");
+    private final AtomicLong consumed = new AtomicLong();
+    private RingBufferReminderEventBus bus;
+    private long position;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bus = new RingBufferReminderEventBus(RingBufferReminderEventBus.DEFAULT_CAPACITY, backpressure);
+        for (int subscriber = 0; subscriber < subscriberCount; subscriber++) {
+            bus.subscribe("benchmark" + subscriber, (event, position, endOfBatch) -> {
+                if (endOfBatch) {
+                    consumed.lazySet(position);
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        bus.close();
+    }
+
+    @Benchmark
+    public void publish() {
+        bus.publish(event, ++position);
+    }
+
+}
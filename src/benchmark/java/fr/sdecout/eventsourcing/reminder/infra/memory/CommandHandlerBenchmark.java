@@ -0,0 +1,79 @@
+package fr.sdecout.eventsourcing.reminder.infra.memory;
+
+import fr.sdecout.eventsourcing.reminder.domain.CachingReminderEventStore;
+import fr.sdecout.eventsourcing.reminder.domain.CommandHandler;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventStore;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round-trip of commands through the command handler: load, decide and save, against the in-memory event store.
+ * The store is rebuilt before each iteration, so that streams do not keep growing from one iteration to the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandHandlerBenchmark {
+
+    private static final int REMINDER_COUNT = 1000;
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    public enum Store {
+        IN_MEMORY, CACHED
+    }
+
+    @Param
+    public Store store;
+
+    @Param({"1", "100", "1000"})
+    public int historyLength;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), ZoneOffset.UTC);
+    private CommandHandler commandHandler;
+    private String[] reminderIds;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final ReminderEventStore eventStore = store == Store.CACHED
+                ? new CachingReminderEventStore(new InMemoryReminderEventStore(clock), clock)
+                : new InMemoryReminderEventStore(clock);
+        final var idSequence = new AtomicInteger();
+        commandHandler = new CommandHandler(eventStore, () -> "REMINDER" + idSequence.incrementAndGet(), clock);
+        reminderIds = new String[REMINDER_COUNT];
+        for (int i = 0; i < REMINDER_COUNT; i++) {
+            reminderIds[i] = commandHandler.schedule(ReminderType.CALL_CUSTOMER, "INTERVENTION" + i, A_DATE_IN_THE_FUTURE).id();
+            for (int version = 2; version <= historyLength; version++) {
+                commandHandler.assign(reminderIds[i], "OPERATOR" + version);
+            }
+        }
+    }
+
+    @Benchmark
+    public void assign() {
+        final var reminderId = reminderIds[next++ % REMINDER_COUNT];
+        commandHandler.assign(reminderId, "OPERATOR" + (next & 1));
+    }
+
+}
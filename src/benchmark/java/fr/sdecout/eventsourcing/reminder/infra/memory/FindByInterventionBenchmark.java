@@ -0,0 +1,79 @@
+package fr.sdecout.eventsourcing.reminder.infra.memory;
+
+import fr.sdecout.eventsourcing.reminder.domain.CommandHandler;
+import fr.sdecout.eventsourcing.reminder.domain.ParallelReplay;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderAggregate;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderType;
+import fr.sdecout.eventsourcing.reminder.domain.SnapshotPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk rehydration of the reminders of one intervention, depending on how many threads replay them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindByInterventionBenchmark {
+
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    @Param({"10", "500"})
+    public int reminderCount;
+
+    @Param({"50"})
+    public int historyLength;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ParallelReplay parallelReplay;
+    private InMemoryReminderEventStore eventStore;
+
+    @Setup
+    public void setUp() {
+        final var clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), ZoneOffset.UTC);
+        parallelReplay = ParallelReplay.withParallelism(parallelism);
+        eventStore = new InMemoryReminderEventStore(clock, 16, SnapshotPolicy.disabled(), parallelReplay);
+        final var idSequence = new AtomicInteger();
+        final var commandHandler = new CommandHandler(eventStore, () -> "REMINDER" + idSequence.incrementAndGet(), clock);
+        for (int i = 0; i < reminderCount; i++) {
+            final var reminderId = commandHandler.schedule(ReminderType.CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            for (int version = 2; version <= historyLength; version++) {
+                commandHandler.assign(reminderId, "OPERATOR" + version);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelReplay.close();
+    }
+
+    @Benchmark
+    public List<ReminderAggregate> findByIntervention() {
+        return eventStore.findByIntervention("INTERVENTION1");
+    }
+
+}
@@ -0,0 +1,147 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.String.format;
+
+/**
+ * Command handler returning as soon as a command is submitted, with a future of its completion.
+ * <p>
+ * Commands run on virtual threads when the runtime provides them, so that commands blocked on the event store do not
+ * hold platform threads; otherwise they run on a pool of as many platform threads as commands may run at once.
+ * Two limits apply: the number of commands in flight, beyond which new commands are rejected right away rather than
+ * queued, and the number of commands running at once, beyond which commands wait for their turn.
+ * Commands on a same reminder may run concurrently: conflicts are resolved by the retry policy of the delegate.
+ */
+public final class AsyncCommandHandler implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 50_000;
+    public static final int DEFAULT_MAX_CONCURRENCY = 256;
+
+    private final CommandHandler delegate;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Semaphore running;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    public AsyncCommandHandler(final CommandHandler delegate) {
+        this(delegate, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * @param maxInFlight    number of submitted commands that may not be complete yet
+     * @param maxConcurrency number of commands that may run at once
+     */
+    public AsyncCommandHandler(final CommandHandler delegate, final int maxInFlight, final int maxConcurrency) {
+        checkArgument(maxInFlight > 0, "Max number of commands in flight is expected to be positive - value: %s", maxInFlight);
+        checkArgument(maxConcurrency > 0, "Max concurrency is expected to be positive - value: %s", maxConcurrency);
+        this.delegate = delegate;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.running = new Semaphore(maxConcurrency);
+        final var virtualThreadExecutor = newVirtualThreadExecutor();
+        this.virtualThreads = virtualThreadExecutor != null;
+        this.executor = virtualThreads ? virtualThreadExecutor : newPlatformThreadExecutor(maxConcurrency);
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public CompletableFuture<ReminderState> schedule(final ReminderType reminderType, final String interventionId, final ZonedDateTime scheduledTime) {
+        return submit(() -> delegate.schedule(reminderType, interventionId, scheduledTime));
+    }
+
+    public CompletableFuture<Void> reschedule(final String reminderId, final ZonedDateTime scheduledTime) {
+        return submit(() -> delegate.reschedule(reminderId, scheduledTime));
+    }
+
+    public CompletableFuture<Void> reopen(final String reminderId) {
+        return submit(() -> delegate.reopen(reminderId));
+    }
+
+    public CompletableFuture<Void> cancel(final String reminderId) {
+        return submit(() -> delegate.cancel(reminderId));
+    }
+
+    public CompletableFuture<Void> markAsDone(final String reminderId) {
+        return submit(() -> delegate.markAsDone(reminderId));
+    }
+
+    public CompletableFuture<Void> assign(final String reminderId, final String operator) {
+        return submit(() -> delegate.assign(reminderId, operator));
+    }
+
+    public CompletableFuture<Void> unassign(final String reminderId) {
+        return submit(() -> delegate.unassign(reminderId));
+    }
+
+    public CompletableFuture<Void> transfer(final String reminderId, final Country country) {
+        return submit(() -> delegate.transfer(reminderId, country));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Void> submit(final Runnable command) {
+        return submit(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(final Supplier<T> command) {
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    format("Command rejected: %s commands are already in flight", maxInFlight)));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> run(command), executor)
+                    .whenComplete((result, failure) -> inFlight.release());
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T run(final Supplier<T> command) {
+        running.acquireUninterruptibly();
+        try {
+            return command.get();
+        } finally {
+            running.release();
+        }
+    }
+
+    /**
+     * Virtual threads are looked up at runtime, as they are not part of the Java version the code is compiled for.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor(final int threadCount) {
+        final var threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadCount, runnable -> {
+            final var thread = new Thread(runnable, format("reminder-async-command-%s", threadIndex.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+}
@@ -0,0 +1,134 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderEventStream.emptyEventStream;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Event store keeping the state of recently used reminders, so that commands on hot reminders skip rehydration.
+ * A cached state is only reused if its version is still the head revision of the stream, which protects against
+ * updates made by other nodes; a save fast-forwards the cached state to the saved one.
+ */
+public final class CachingReminderEventStore implements ReminderEventStore {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final ReminderEventStore delegate;
+    private final Clock clock;
+    private final TinyLfuCache<String, ReminderState> cache;
+
+    public CachingReminderEventStore(final ReminderEventStore delegate, final Clock clock) {
+        this(delegate, clock, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CachingReminderEventStore(final ReminderEventStore delegate, final Clock clock, final int maximumSize) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = new TinyLfuCache<>(maximumSize);
+    }
+
+    @Override
+    public Optional<ReminderAggregate> find(final String reminderId) {
+        final var head = delegate.headRevision(reminderId);
+        if (head.isEmpty()) {
+            cache.invalidate(reminderId);
+            return Optional.empty();
+        }
+        final var cachedAggregate = fromCache(reminderId, head.get());
+        if (cachedAggregate != null) {
+            return Optional.of(cachedAggregate);
+        }
+        final var aggregate = delegate.find(reminderId);
+        aggregate.ifPresent(found -> cache.put(reminderId, found.state()));
+        return aggregate;
+    }
+
+    /**
+     * Only the reminders whose cached state is missing or stale are loaded from the delegate, all at once.
+     */
+    @Override
+    public List<ReminderAggregate> findAll(final Collection<String> reminderIds) {
+        final Map<String, ReminderAggregate> aggregates = new HashMap<>();
+        final List<String> missingReminderIds = new ArrayList<>();
+        for (final String reminderId : reminderIds) {
+            final var head = delegate.headRevision(reminderId);
+            if (head.isEmpty()) {
+                cache.invalidate(reminderId);
+                continue;
+            }
+            final var cachedAggregate = fromCache(reminderId, head.get());
+            if (cachedAggregate == null) {
+                missingReminderIds.add(reminderId);
+            } else {
+                aggregates.put(reminderId, cachedAggregate);
+            }
+        }
+        for (final ReminderAggregate aggregate : delegate.findAll(missingReminderIds)) {
+            cache.put(aggregate.state().id(), aggregate.state());
+            aggregates.put(aggregate.state().id(), aggregate);
+        }
+        return reminderIds.stream()
+                .map(aggregates::get)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+
+    @Override
+    public List<ReminderAggregate> findByIntervention(final String interventionId) {
+        return delegate.findByIntervention(interventionId);
+    }
+
+    @Override
+    public Optional<StreamRevision> headRevision(final String reminderId) {
+        return delegate.headRevision(reminderId);
+    }
+
+    @Override
+    public void save(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision) {
+        try {
+            delegate.save(reminderAggregate, expectedRevision);
+        } catch (StreamRevisionConflictException e) {
+            cache.invalidate(e.streamId());
+            throw e;
+        }
+        cacheSaved(reminderAggregate);
+    }
+
+    @Override
+    public Map<String, RuntimeException> saveAll(final List<ReminderSave> saves) {
+        final var failures = delegate.saveAll(saves);
+        for (final ReminderSave save : saves) {
+            final var reminderId = save.reminderAggregate().state().id();
+            if (failures.containsKey(reminderId)) {
+                cache.invalidate(reminderId);
+            } else {
+                cacheSaved(save.reminderAggregate());
+            }
+        }
+        return failures;
+    }
+
+    private void cacheSaved(final ReminderAggregate reminderAggregate) {
+        if (!reminderAggregate.pendingEvents().isEmpty()) {
+            cache.put(reminderAggregate.state().id(), reminderAggregate.state());
+        }
+    }
+
+    private ReminderAggregate fromCache(final String reminderId, final StreamRevision head) {
+        final var cachedState = cache.get(reminderId);
+        return cachedState != null && cachedState.version().equals(head)
+                ? new ReminderAggregate(cachedState, emptyEventStream(), clock)
+                : null;
+    }
+
+}
@@ -0,0 +1,132 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.String.format;
+
+/**
+ * Subscription delivering committed events in order from a checkpoint on: history is read from the event log in large
+ * sequential batches, then live events are delivered as they are published.
+ * <p>
+ * It is meant to receive live events, for instance from the event bus. A live event following the last event delivered
+ * is delivered right away. A live event further ahead, because history is still being caught up or because live events
+ * were dropped on the way, is delivered once the events in between have been read from the log. A live event that was
+ * already delivered is skipped. Either way, events are delivered without gaps nor duplicates.
+ * The checkpoint is only saved at the end of a batch, once enough events were delivered since the previous one: after a
+ * restart, the events delivered since the last checkpoint are delivered again.
+ */
+public final class CatchUpSubscription implements ReminderEventSubscriber, AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 4_096;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1_024;
+
+    private final String name;
+    private final ReminderEventLog eventLog;
+    private final CheckpointStore checkpoints;
+    private final ReminderEventSubscriber subscriber;
+    private final int batchSize;
+    private final int checkpointInterval;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long position;
+    private long checkpoint;
+
+    public CatchUpSubscription(final String name, final ReminderEventLog eventLog, final CheckpointStore checkpoints,
+                               final ReminderEventSubscriber subscriber) {
+        this(name, eventLog, checkpoints, subscriber, DEFAULT_BATCH_SIZE, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * @param batchSize          number of events read from the log at once
+     * @param checkpointInterval number of events delivered at least between two checkpoints
+     */
+    public CatchUpSubscription(final String name, final ReminderEventLog eventLog, final CheckpointStore checkpoints,
+                               final ReminderEventSubscriber subscriber, final int batchSize, final int checkpointInterval) {
+        checkArgument(batchSize > 0, "Batch size is expected to be positive - value: %s", batchSize);
+        checkArgument(checkpointInterval > 0, "Checkpoint interval is expected to be positive - value: %s", checkpointInterval);
+        this.name = name;
+        this.eventLog = eventLog;
+        this.checkpoints = checkpoints;
+        this.subscriber = subscriber;
+        this.batchSize = batchSize;
+        this.checkpointInterval = checkpointInterval;
+        this.checkpoint = checkpoints.load(name);
+        this.position = checkpoint;
+    }
+
+    /**
+     * @return position in the event log of the last event delivered
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Deliver all the events committed so far. Live events may be delivered in between batches.
+     */
+    public void catchUp() {
+        final var head = eventLog.headPosition();
+        var caughtUp = false;
+        while (!caughtUp) {
+            lock.lock();
+            try {
+                caughtUp = position >= head || readBatch(head) == 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(final ReminderEvent event, final long eventPosition, final boolean endOfBatch) {
+        lock.lock();
+        try {
+            if (eventPosition <= position) {
+                return;
+            }
+            while (position < eventPosition - 1) {
+                if (readBatch(eventPosition - 1) == 0) {
+                    throw new IllegalStateException(format("Events missing from the log for subscription '%s': %s to %s",
+                            name, position + 1, eventPosition - 1));
+                }
+            }
+            deliver(event, eventPosition, endOfBatch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Save the checkpoint of the last event delivered, if not saved yet.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (position > checkpoint) {
+                saveCheckpoint();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int readBatch(final long upToPosition) {
+        final var count = (int) Math.min(batchSize, upToPosition - position);
+        return eventLog.read(position + 1, count, this::deliver);
+    }
+
+    private void deliver(final ReminderEvent event, final long eventPosition, final boolean endOfBatch) {
+        subscriber.onEvent(event, eventPosition, endOfBatch);
+        position = eventPosition;
+        if (endOfBatch && position - checkpoint >= checkpointInterval) {
+            saveCheckpoint();
+        }
+    }
+
+    private void saveCheckpoint() {
+        checkpoints.save(name, position);
+        checkpoint = position;
+    }
+
+}
@@ -0,0 +1,20 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.annotations.HexagonalArchitecture;
+
+import static fr.sdecout.annotations.HexagonalArchitecture.Port.Type.DRIVEN;
+
+@HexagonalArchitecture.Port(DRIVEN)
+public interface CheckpointStore {
+
+    /**
+     * @return position in the event log of the last event processed by the subscription, or 0 if none was
+     */
+    long load(String subscriptionName);
+
+    /**
+     * Record that the subscription has processed all the events up to given position in the event log.
+     */
+    void save(String subscriptionName, long position);
+
+}
@@ -0,0 +1,85 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of a command on a reminder, splitting its duration into load, replay, decide and save phases,
+ * summed over all the attempts.
+ */
+@Name("fr.sdecout.eventsourcing.reminder.Command")
+@Label("Reminder Command")
+@Category({"Event Sourcing", "Reminders"})
+@Description("Command handled on a reminder, with the duration of its phases")
+@StackTrace(false)
+final class CommandFlightEvent extends Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Reminder ID")
+    String reminderId;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Stream Length")
+    @Description("Number of events in the stream of the reminder, when last loaded")
+    int streamLength;
+
+    @Label("Replayed Events")
+    int replayedEvents;
+
+    @Label("Snapshot Hit")
+    @Description("Whether the reminder was rehydrated from a snapshot or a cached state")
+    boolean snapshotHit;
+
+    @Label("Event Count")
+    @Description("Number of events raised by the command")
+    int eventCount;
+
+    @Label("Load Duration")
+    @Description("Time spent loading the reminder, replay excluded")
+    @Timespan
+    long loadDuration;
+
+    @Label("Replay Duration")
+    @Timespan
+    long replayDuration;
+
+    @Label("Decide Duration")
+    @Timespan
+    long decideDuration;
+
+    @Label("Save Duration")
+    @Timespan
+    long saveDuration;
+
+    @Label("Failure")
+    String failure;
+
+    void complete(final CommandTrace trace, final RuntimeException failure) {
+        end();
+        if (shouldCommit()) {
+            command = trace.commandType.name();
+            reminderId = trace.reminderId;
+            attempts = trace.attempts;
+            streamLength = trace.streamLength;
+            replayedEvents = trace.replayedEvents;
+            snapshotHit = trace.snapshotHit;
+            eventCount = trace.eventCount;
+            loadDuration = trace.loadNanos;
+            replayDuration = trace.replayNanos;
+            decideDuration = trace.decideNanos;
+            saveDuration = trace.saveNanos;
+            this.failure = failure == null ? null : failure.getClass().getSimpleName();
+            commit();
+        }
+    }
+
+}
@@ -1,80 +1,322 @@
 package fr.sdecout.eventsourcing.reminder.domain;
 
+import fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.CommandType;
+
 import java.time.Clock;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+
 public final class CommandHandler {
 
     /*
-    FIXME: For one reminder ID, only 1 DB node (application nodes are irrelevant as long as they access the same DB) should be involved.
-    Otherwise, the decision function is likely to decide based on an outdated state.
+    Concurrent decisions on one reminder, whichever application node they come from, are detected on save: the event store
+    rejects the append if the stream has moved on since the aggregate was loaded. The command is then decided again against
+    a fresh state, within the limits of the retry policy.
+    Within one application node, SingleWriterCommandHandler makes sure that commands on a reminder are handled one at a time.
+    Commands handled as a batch go through one load and one save for all their reminders: only the reminders whose save
+    was rejected on conflict are loaded and decided again.
+    Commands on a single reminder are reported to the flight recorder and to the slow command log, with the time spent
+    loading, replaying, deciding and saving.
      */
 
-    public static final Country DEFAULT_COUNTRY = new Country("FR"); // This should depend on configuration
+    public static final Country DEFAULT_COUNTRY = Country.of("FR"); // This should depend on configuration
 
     private final ReminderEventStore eventStore;
     private final ReminderIdGenerator idGenerator;
     private final Clock clock;
+    private final RetryPolicy retryPolicy;
+    private final ReminderMetrics metrics;
+    private final SlowCommandLog slowCommandLog;
+    private final ConflictMetrics conflictMetrics = new ConflictMetrics();
 
     public CommandHandler(final ReminderEventStore eventStore,
                           final ReminderIdGenerator idGenerator,
                           final Clock clock) {
+        this(eventStore, idGenerator, clock, RetryPolicy.defaultRetryPolicy());
+    }
+
+    public CommandHandler(final ReminderEventStore eventStore,
+                          final ReminderIdGenerator idGenerator,
+                          final Clock clock,
+                          final RetryPolicy retryPolicy) {
+        this(eventStore, idGenerator, clock, retryPolicy, new ReminderMetrics());
+    }
+
+    public CommandHandler(final ReminderEventStore eventStore,
+                          final ReminderIdGenerator idGenerator,
+                          final Clock clock,
+                          final RetryPolicy retryPolicy,
+                          final ReminderMetrics metrics) {
+        this(eventStore, idGenerator, clock, retryPolicy, metrics, SlowCommandLog.disabled());
+    }
+
+    /**
+     * @param metrics        where latencies and denied commands are recorded, possibly shared with a {@link MeteredReminderEventStore}
+     * @param slowCommandLog where commands on a single reminder taking longer than its threshold are logged
+     */
+    public CommandHandler(final ReminderEventStore eventStore,
+                          final ReminderIdGenerator idGenerator,
+                          final Clock clock,
+                          final RetryPolicy retryPolicy,
+                          final ReminderMetrics metrics,
+                          final SlowCommandLog slowCommandLog) {
         this.eventStore = eventStore;
         this.idGenerator = idGenerator;
         this.clock = clock;
+        this.retryPolicy = retryPolicy;
+        this.metrics = metrics;
+        this.slowCommandLog = slowCommandLog;
+    }
+
+    public ReminderMetrics metrics() {
+        return metrics;
+    }
+
+    public ConflictMetrics conflictMetrics() {
+        return conflictMetrics;
     }
 
     public ReminderState schedule(final ReminderType reminderType, final String interventionId, final ZonedDateTime scheduledTime) {
+        final var start = System.nanoTime();
         final var reminderId = idGenerator.generate();
-        final var aggregate = handleFirstCommand(reminderId, () -> ReminderAggregate.scheduleNewReminder(reminderId, interventionId, reminderType, DEFAULT_COUNTRY, scheduledTime, clock));
-        return aggregate.state();
+        final var flightEvent = new CommandFlightEvent();
+        flightEvent.begin();
+        final var trace = new CommandTrace(CommandType.SCHEDULE, reminderId, flightEvent.isEnabled() || slowCommandLog.isEnabled());
+        RuntimeException failure = null;
+        try {
+            final var aggregate = handleFirstCommand(reminderId, () -> ReminderAggregate.scheduleNewReminder(reminderId, interventionId, reminderType, DEFAULT_COUNTRY, scheduledTime, clock), trace);
+            return aggregate.state();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            complete(trace, flightEvent, start, failure);
+        }
     }
 
     public void reschedule(final String reminderId, final ZonedDateTime scheduledTime) {
-        handle(reminderId, reminderAggregate -> reminderAggregate.reschedule(scheduledTime));
+        handle(CommandType.RESCHEDULE, reminderId, reminderAggregate -> reminderAggregate.reschedule(scheduledTime));
     }
 
     public void reopen(final String reminderId) {
-        handle(reminderId, ReminderAggregate::reopen);
+        handle(CommandType.REOPEN, reminderId, ReminderAggregate::reopen);
     }
 
     public void cancel(final String reminderId) {
-        handle(reminderId, ReminderAggregate::cancel);
+        handle(CommandType.CANCEL, reminderId, ReminderAggregate::cancel);
     }
 
     public void markAsDone(final String reminderId) {
-        handle(reminderId, ReminderAggregate::markAsDone);
+        handle(CommandType.MARK_AS_DONE, reminderId, ReminderAggregate::markAsDone);
     }
 
     public void assign(final String reminderId, final String operator) {
-        handle(reminderId, reminderAggregate -> reminderAggregate.assignTo(operator));
+        handle(CommandType.ASSIGN, reminderId, reminderAggregate -> reminderAggregate.assignTo(operator));
     }
 
     public void unassign(final String reminderId) {
-        handle(reminderId, reminderAggregate -> reminderAggregate.unassign());
+        handle(CommandType.UNASSIGN, reminderId, reminderAggregate -> reminderAggregate.unassign());
     }
 
     public void transfer(final String reminderId, final Country country) {
-        handle(reminderId, reminderAggregate -> reminderAggregate.transferTo(country));
+        handle(CommandType.TRANSFER, reminderId, reminderAggregate -> reminderAggregate.transferTo(country));
+    }
+
+    /**
+     * Handle commands on existing reminders all at once: each reminder is loaded once, its commands are applied in the
+     * order they are given, then the events of all the reminders are saved together.
+     * A command that cannot be applied fails on its own, while a reminder that cannot be saved fails all its commands.
+     *
+     * @return result of every command, in the order of given commands
+     */
+    public List<ReminderCommandResult> handleAll(final List<ReminderCommand> commands) {
+        final var start = System.nanoTime();
+        try {
+            return decideAndSaveAll(commands);
+        } finally {
+            metrics.recordCommand(CommandType.BATCH, System.nanoTime() - start);
+        }
     }
 
-    private ReminderAggregate handleFirstCommand(final String reminderId, final Supplier<ReminderAggregate> decide) {
+    private List<ReminderCommandResult> decideAndSaveAll(final List<ReminderCommand> commands) {
+        final var failures = new RuntimeException[commands.size()];
+        var pending = commandIndexesByReminderId(commands);
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            final List<ReminderSave> saves = new ArrayList<>(pending.size());
+            for (final ReminderAggregate aggregate : eventStore.findAll(pending.keySet())) {
+                final var loadedRevision = aggregate.state().version();
+                for (final int index : pending.get(aggregate.state().id())) {
+                    failures[index] = decide(aggregate, commands.get(index));
+                }
+                saves.add(new ReminderSave(aggregate, loadedRevision));
+            }
+            if (saves.size() < pending.size()) {
+                failMissingReminders(pending, saves, failures);
+            }
+            final Map<String, List<Integer>> conflicted = new LinkedHashMap<>();
+            StreamRevisionConflictException lastConflict = null;
+            for (final Map.Entry<String, RuntimeException> saveFailure : eventStore.saveAll(saves).entrySet()) {
+                final var indexes = pending.get(saveFailure.getKey());
+                if (saveFailure.getValue() instanceof StreamRevisionConflictException conflict) {
+                    conflictMetrics.recordConflict();
+                    if (attempt < retryPolicy.maxAttempts()) {
+                        conflictMetrics.recordRetry();
+                        conflicted.put(saveFailure.getKey(), indexes);
+                        lastConflict = conflict;
+                        continue;
+                    }
+                    conflictMetrics.recordFailure();
+                }
+                for (final int index : indexes) {
+                    failures[index] = failures[index] == null ? saveFailure.getValue() : failures[index];
+                }
+            }
+            if (lastConflict != null) {
+                backOff(attempt, lastConflict);
+            }
+            pending = conflicted;
+        }
+        final List<ReminderCommandResult> results = new ArrayList<>(commands.size());
+        for (int index = 0; index < commands.size(); index++) {
+            if (failures[index] instanceof InvalidUpdateDeniedException) {
+                metrics.recordDenied(CommandType.of(commands.get(index)));
+            }
+            results.add(failures[index] == null
+                    ? ReminderCommandResult.success(commands.get(index))
+                    : ReminderCommandResult.failure(commands.get(index), failures[index]));
+        }
+        return results;
+    }
+
+    private ReminderAggregate handleFirstCommand(final String reminderId, final Supplier<ReminderAggregate> decide, final CommandTrace trace) {
+        var phaseStart = trace.startLoad();
         final var aggregate = eventStore.find(reminderId);
         if (aggregate.isPresent()) {
             throw new IllegalStateException("Unexpected command: reminder ID is already present");
         }
+        phaseStart = trace.loaded(phaseStart, 1, null);
         final var updatedAggregate = decide.get();
-        eventStore.save(updatedAggregate);
+        phaseStart = trace.decided(phaseStart, updatedAggregate);
+        eventStore.save(updatedAggregate, defaultStreamRevision());
+        trace.saved(phaseStart);
         return updatedAggregate;
     }
 
-    private void handle(final String reminderId, final Consumer<ReminderAggregate> decide) {
-        final var aggregate = eventStore.find(reminderId)
-                .orElseThrow(() -> new IllegalStateException("Unexpected command: reminder ID does not exist"));
-        decide.accept(aggregate);
-        eventStore.save(aggregate);
+    private void handle(final CommandType commandType, final String reminderId, final Consumer<ReminderAggregate> decide) {
+        final var start = System.nanoTime();
+        final var flightEvent = new CommandFlightEvent();
+        flightEvent.begin();
+        final var trace = new CommandTrace(commandType, reminderId, flightEvent.isEnabled() || slowCommandLog.isEnabled());
+        RuntimeException failure = null;
+        try {
+            handle(reminderId, decide, trace);
+        } catch (InvalidUpdateDeniedException e) {
+            metrics.recordDenied(commandType);
+            failure = e;
+            throw e;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            complete(trace, flightEvent, start, failure);
+        }
+    }
+
+    private void handle(final String reminderId, final Consumer<ReminderAggregate> decide, final CommandTrace trace) {
+        for (int attempt = 1; ; attempt++) {
+            var phaseStart = trace.startLoad();
+            final var aggregate = eventStore.find(reminderId)
+                    .orElseThrow(() -> new IllegalStateException("Unexpected command: reminder ID does not exist"));
+            final var loadedRevision = aggregate.state().version();
+            phaseStart = trace.loaded(phaseStart, attempt, aggregate);
+            decide.accept(aggregate);
+            phaseStart = trace.decided(phaseStart, aggregate);
+            try {
+                eventStore.save(aggregate, loadedRevision);
+                trace.saved(phaseStart);
+                return;
+            } catch (StreamRevisionConflictException e) {
+                trace.saved(phaseStart);
+                conflictMetrics.recordConflict();
+                if (attempt >= retryPolicy.maxAttempts()) {
+                    conflictMetrics.recordFailure();
+                    throw e;
+                }
+                conflictMetrics.recordRetry();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void complete(final CommandTrace trace, final CommandFlightEvent flightEvent, final long start, final RuntimeException failure) {
+        trace.end();
+        final var durationNanos = System.nanoTime() - start;
+        metrics.recordCommand(trace.commandType, durationNanos);
+        slowCommandLog.record(trace, durationNanos, failure);
+        flightEvent.complete(trace, failure);
+    }
+
+    private void backOff(final int attempt, final StreamRevisionConflictException conflict) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(retryPolicy.backoffAfter(attempt).toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private static Map<String, List<Integer>> commandIndexesByReminderId(final List<ReminderCommand> commands) {
+        final Map<String, List<Integer>> indexesByReminderId = new LinkedHashMap<>();
+        for (int index = 0; index < commands.size(); index++) {
+            indexesByReminderId.computeIfAbsent(commands.get(index).reminderId(), reminderId -> new ArrayList<>()).add(index);
+        }
+        return indexesByReminderId;
+    }
+
+    private static void failMissingReminders(final Map<String, List<Integer>> pending, final List<ReminderSave> saves, final RuntimeException[] failures) {
+        final Map<String, List<Integer>> missing = new LinkedHashMap<>(pending);
+        saves.forEach(save -> missing.remove(save.reminderAggregate().state().id()));
+        for (final List<Integer> indexes : missing.values()) {
+            for (final int index : indexes) {
+                failures[index] = new IllegalStateException("Unexpected command: reminder ID does not exist");
+            }
+        }
+    }
+
+    /**
+     * @return reason why the command could not be applied, if any
+     */
+    private static RuntimeException decide(final ReminderAggregate aggregate, final ReminderCommand command) {
+        try {
+            if (command instanceof ReminderCommand.Reschedule reschedule) {
+                aggregate.reschedule(reschedule.scheduledTime());
+            } else if (command instanceof ReminderCommand.Reopen) {
+                aggregate.reopen();
+            } else if (command instanceof ReminderCommand.Cancel) {
+                aggregate.cancel();
+            } else if (command instanceof ReminderCommand.MarkAsDone) {
+                aggregate.markAsDone();
+            } else if (command instanceof ReminderCommand.Assign assign) {
+                aggregate.assignTo(assign.operator());
+            } else if (command instanceof ReminderCommand.Unassign) {
+                aggregate.unassign();
+            } else if (command instanceof ReminderCommand.Transfer transfer) {
+                aggregate.transferTo(transfer.country());
+            } else {
+                throw new IllegalArgumentException("Unexpected command type: " + command.getClass().getName());
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
     }
 
 }
@@ -0,0 +1,100 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+/**
+ * Breakdown of the handling of a command on a single reminder, summed over all the attempts.
+ * Phases are only timed if the trace is enabled, so that commands nobody looks at only pay for a boolean check.
+ * Replays are timed by the event stream, only while an enabled trace is loading its reminder on the current thread.
+ */
+final class CommandTrace {
+
+    private static final ThreadLocal<CommandTrace> LOADING = new ThreadLocal<>();
+
+    final ReminderMetrics.CommandType commandType;
+    final String reminderId;
+    private final boolean enabled;
+    int attempts;
+    int streamLength;
+    int replayedEvents;
+    boolean snapshotHit;
+    int eventCount;
+    long loadNanos;
+    long replayNanos;
+    long decideNanos;
+    long saveNanos;
+    private long loadReplayNanos;
+
+    CommandTrace(final ReminderMetrics.CommandType commandType, final String reminderId, final boolean enabled) {
+        this.commandType = commandType;
+        this.reminderId = reminderId;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return trace of the command loading its reminder on the current thread, if enabled
+     */
+    static CommandTrace loading() {
+        return LOADING.get();
+    }
+
+    /**
+     * @return start of the load phase, during which replays on the current thread are reported to this trace
+     */
+    long startLoad() {
+        if (!enabled) {
+            return 0;
+        }
+        LOADING.set(this);
+        return System.nanoTime();
+    }
+
+    void replayed(final long durationNanos) {
+        loadReplayNanos += durationNanos;
+    }
+
+    /**
+     * Load time does not include replay time.
+     */
+    long loaded(final long phaseStart, final int attempt, final ReminderAggregate aggregate) {
+        attempts = attempt;
+        if (!enabled) {
+            return 0;
+        }
+        final var now = System.nanoTime();
+        LOADING.remove();
+        loadNanos += Math.max(0, now - phaseStart - loadReplayNanos);
+        replayNanos += loadReplayNanos;
+        loadReplayNanos = 0;
+        if (aggregate != null) {
+            replayedEvents += aggregate.replayedEvents();
+            snapshotHit = aggregate.rehydratedFromSnapshot();
+            streamLength = aggregate.state().version().value();
+        }
+        return now;
+    }
+
+    long decided(final long phaseStart, final ReminderAggregate aggregate) {
+        if (!enabled) {
+            return 0;
+        }
+        final var now = System.nanoTime();
+        decideNanos += now - phaseStart;
+        eventCount = aggregate.pendingEvents().size();
+        return now;
+    }
+
+    void saved(final long phaseStart) {
+        if (enabled) {
+            saveNanos += System.nanoTime() - phaseStart;
+        }
+    }
+
+    /**
+     * Stop reporting replays to this trace, in case the command failed while loading its reminder.
+     */
+    void end() {
+        if (enabled) {
+            LOADING.remove();
+        }
+    }
+
+}
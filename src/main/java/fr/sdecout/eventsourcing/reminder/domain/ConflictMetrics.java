@@ -0,0 +1,47 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of commands that conflicted with a concurrent update of the same reminder.
+ */
+public final class ConflictMetrics {
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    void recordConflict() {
+        conflicts.increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    /**
+     * @return number of saves rejected because the stream had moved on since the aggregate was loaded
+     */
+    public long conflicts() {
+        return conflicts.sum();
+    }
+
+    /**
+     * @return number of times a command was reloaded and decided again after a conflict
+     */
+    public long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return number of commands that still conflicted after the last allowed attempt
+     */
+    public long failures() {
+        return failures.sum();
+    }
+
+}
@@ -2,19 +2,58 @@ package fr.sdecout.eventsourcing.reminder.domain;
 
 import fr.sdecout.annotations.DomainDrivenDesign;
 
-import java.util.regex.Pattern;
-
 import static com.google.common.base.Preconditions.checkArgument;
 
+/**
+ * There are only 26 x 26 possible codes: {@link #of(String)} and {@link #ofId(int)} return canonical instances,
+ * which is what any code creating many countries (such as event decoding) should use.
+ */
 @DomainDrivenDesign.ValueObject
 public record Country(String code) {
 
-    private static final Pattern pattern = Pattern.compile("\\p{Alpha}{2}");
+    private static final int LETTERS = 26;
+    private static final Country[] CANONICAL_INSTANCES = new Country[LETTERS * LETTERS];
+
+    static {
+        for (int id = 0; id < CANONICAL_INSTANCES.length; id++) {
+            CANONICAL_INSTANCES[id] = new Country(new String(new char[]{(char) ('A' + id / LETTERS), (char) ('A' + id % LETTERS)}));
+        }
+    }
 
     public Country(final String code) {
-        checkArgument(pattern.matcher(code).matches(),
+        checkArgument(isValid(code),
                 "Country code is expected to consist in exactly 2 upper-case alphabetic characters - value: '%s'", code);
         this.code = code.toUpperCase();
     }
 
+    public static Country of(final String code) {
+        checkArgument(isValid(code),
+                "Country code is expected to consist in exactly 2 upper-case alphabetic characters - value: '%s'", code);
+        return CANONICAL_INSTANCES[letterIndex(code.charAt(0)) * LETTERS + letterIndex(code.charAt(1))];
+    }
+
+    public static Country ofId(final int id) {
+        checkArgument(id >= 0 && id < CANONICAL_INSTANCES.length, "Country ID is expected to be between 0 and %s - value: %s", CANONICAL_INSTANCES.length - 1, id);
+        return CANONICAL_INSTANCES[id];
+    }
+
+    /**
+     * @return small integer identifying the country, from 0 (AA) to 675 (ZZ)
+     */
+    public int id() {
+        return letterIndex(code.charAt(0)) * LETTERS + letterIndex(code.charAt(1));
+    }
+
+    private static boolean isValid(final String code) {
+        return code.length() == 2 && isAsciiLetter(code.charAt(0)) && isAsciiLetter(code.charAt(1));
+    }
+
+    private static boolean isAsciiLetter(final char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static int letterIndex(final char letter) {
+        return (letter | 0x20) - 'a';
+    }
+
 }
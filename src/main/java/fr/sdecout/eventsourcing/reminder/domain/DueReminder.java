@@ -0,0 +1,14 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Instant;
+
+import static java.util.Objects.requireNonNull;
+
+public record DueReminder(String reminderId, Instant scheduledTime) {
+
+    public DueReminder {
+        requireNonNull(reminderId);
+        requireNonNull(scheduledTime);
+    }
+
+}
@@ -0,0 +1,17 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.annotations.HexagonalArchitecture;
+
+import java.util.List;
+
+import static fr.sdecout.annotations.HexagonalArchitecture.Port.Type.DRIVEN;
+
+/**
+ * What to do with reminders once their scheduled time has come. Reminders are handed over in batches, in no
+ * particular order.
+ */
+@FunctionalInterface
+@HexagonalArchitecture.Port(DRIVEN)
+public interface DueReminderHandler {
+    void handle(List<DueReminder> dueReminders);
+}
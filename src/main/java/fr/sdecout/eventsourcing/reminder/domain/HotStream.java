@@ -0,0 +1,11 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+/**
+ * Reminder among the most frequently updated ones.
+ *
+ * @param recentUpdates estimated number of saves of the reminder lately, halved periodically so that it follows changing
+ *                      workloads
+ * @param streamLength  number of events in the stream of the reminder, when last saved
+ */
+public record HotStream(String reminderId, int recentUpdates, int streamLength) {
+}
@@ -0,0 +1,187 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Detects the reminders updated most frequently, in a bounded amount of memory whatever the number of reminders.
+ * <p>
+ * Update frequencies are estimated by a count-min sketch, whose counters are all halved every {@code 10 * width}
+ * updates so that estimates follow changing workloads. Only the reminders whose estimate is among the highest are
+ * tracked individually, along with the length of their stream: when a reminder gets more frequent than the least
+ * frequent one tracked, it takes its place.
+ * <p>
+ * Updates are recorded without locking, as they are recorded by every save: counters are atomic, and the reminders
+ * tracked are kept in a concurrent map where concurrent replacements may lose an update of the hottest reminders.
+ * A slot is reserved before a reminder is added to the map, so that it never tracks more reminders than its capacity.
+ */
+public final class HotStreamDetector {
+
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final int capacity;
+    private final AtomicIntegerArray sketch;
+    private final int width;
+    private final int mask;
+    private final int sampleSize;
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private final AtomicInteger trackedCount = new AtomicInteger();
+    private final AtomicInteger additions = new AtomicInteger();
+    private final AtomicInteger minimumTrackedFrequency = new AtomicInteger(Integer.MAX_VALUE);
+
+    public HotStreamDetector() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of reminders tracked individually
+     */
+    public HotStreamDetector(final int capacity) {
+        checkArgument(capacity > 0, "Capacity is expected to be positive - value: %s", capacity);
+        this.capacity = capacity;
+        this.width = Math.max(64, Integer.highestOneBit(capacity * 16 - 1) << 1);
+        this.sketch = new AtomicIntegerArray(DEPTH * width);
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Record an update of a reminder.
+     *
+     * @return estimated number of updates of the reminder lately, this one included
+     */
+    public int recordUpdate(final String reminderId, final int streamLength) {
+        final var frequency = increment(reminderId.hashCode());
+        final var trackedStream = tracked.get(reminderId);
+        if (trackedStream != null) {
+            trackedStream.frequency = frequency;
+            trackedStream.streamLength = streamLength;
+        } else if (reserveSlot()) {
+            if (tracked.putIfAbsent(reminderId, new Tracked(frequency, streamLength)) == null) {
+                minimumTrackedFrequency.accumulateAndGet(frequency, Math::min);
+            } else {
+                trackedCount.decrementAndGet();
+            }
+        } else if (frequency > minimumTrackedFrequency.get()) {
+            replaceLeastFrequent(reminderId, frequency, streamLength);
+        }
+        return frequency;
+    }
+
+    /**
+     * @return estimated number of updates of a reminder lately, possibly overestimated but never underestimated
+     */
+    public int recentUpdates(final String reminderId) {
+        return estimate(spread(reminderId.hashCode()));
+    }
+
+    /**
+     * @return the reminders updated most frequently lately, from the most frequent one
+     */
+    public List<HotStream> hottest(final int count) {
+        checkArgument(count > 0, "Count is expected to be positive - value: %s", count);
+        return tracked.entrySet().stream()
+                .map(entry -> new HotStream(entry.getKey(), entry.getValue().frequency, entry.getValue().streamLength))
+                .sorted(Comparator.comparingInt(HotStream::recentUpdates).reversed().thenComparing(HotStream::reminderId))
+                .limit(count)
+                .collect(toList());
+    }
+
+    private int increment(final int hashCode) {
+        final var hash = spread(hashCode);
+        var frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, sketch.incrementAndGet(indexOf(hash, row)));
+        }
+        if (additions.incrementAndGet() == sampleSize) {
+            age();
+            additions.addAndGet(-sampleSize);
+        }
+        return frequency;
+    }
+
+    private int estimate(final int hash) {
+        var frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, sketch.get(indexOf(hash, row)));
+        }
+        return frequency;
+    }
+
+    private void age() {
+        for (int index = 0; index < sketch.length(); index++) {
+            sketch.getAndUpdate(index, counter -> counter >>> 1);
+        }
+        for (final Tracked trackedStream : tracked.values()) {
+            trackedStream.frequency >>>= 1;
+        }
+        minimumTrackedFrequency.getAndUpdate(frequency -> frequency >>> 1);
+    }
+
+    private void replaceLeastFrequent(final String reminderId, final int frequency, final int streamLength) {
+        Map.Entry<String, Tracked> leastFrequent = null;
+        for (final Map.Entry<String, Tracked> entry : tracked.entrySet()) {
+            if (leastFrequent == null || entry.getValue().frequency < leastFrequent.getValue().frequency) {
+                leastFrequent = entry;
+            }
+        }
+        if (leastFrequent == null || frequency <= leastFrequent.getValue().frequency) {
+            minimumTrackedFrequency.set(leastFrequent == null ? Integer.MAX_VALUE : leastFrequent.getValue().frequency);
+            return;
+        }
+        if (tracked.remove(leastFrequent.getKey(), leastFrequent.getValue())
+                && tracked.putIfAbsent(reminderId, new Tracked(frequency, streamLength)) != null) {
+            trackedCount.decrementAndGet();
+        }
+        var leastFrequency = frequency;
+        for (final Tracked trackedStream : tracked.values()) {
+            leastFrequency = Math.min(leastFrequency, trackedStream.frequency);
+        }
+        minimumTrackedFrequency.set(leastFrequency);
+    }
+
+    private boolean reserveSlot() {
+        var count = trackedCount.get();
+        while (count < capacity) {
+            if (trackedCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+            count = trackedCount.get();
+        }
+        return false;
+    }
+
+    private int indexOf(final int hash, final int row) {
+        var h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * width + ((int) h & mask);
+    }
+
+    private static int spread(final int hash) {
+        final var h = hash * 0x31848bab;
+        return h ^ (h >>> 14);
+    }
+
+    private static final class Tracked {
+
+        private volatile int frequency;
+        private volatile int streamLength;
+
+        private Tracked(final int frequency, final int streamLength) {
+            this.frequency = frequency;
+            this.streamLength = streamLength;
+        }
+
+    }
+
+}
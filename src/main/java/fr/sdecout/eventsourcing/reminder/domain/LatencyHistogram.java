@@ -0,0 +1,95 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Histogram of latencies in nanoseconds, from 1 ns to 1 hour, with a relative precision better than 2%.
+ * <p>
+ * As in HdrHistogram, buckets cover ranges of values doubling from one to the next, and every bucket is split into
+ * sub-buckets of equal width: the counter of a value is found with a few shifts, and all the counters are preallocated
+ * in a single array. Recording is thus lock-free and does not allocate, so that histograms can stay on at full load.
+ * Reading does not stop recording: values recorded while reading may or may not be accounted for.
+ */
+public final class LatencyHistogram {
+
+    public static final long HIGHEST_TRACKABLE_VALUE = Duration.ofHours(1).toNanos();
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(HIGHEST_TRACKABLE_VALUE) + 1);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Record a latency. Negative latencies are recorded as zero, and latencies above the highest trackable value as
+     * the highest trackable value.
+     */
+    public void record(final long nanos) {
+        final var value = Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        var max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long count() {
+        return totalCount.get();
+    }
+
+    public Duration mean() {
+        final var count = totalCount.get();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.get() / count);
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(maxNanos.get());
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return latency below which the given percentage of recorded latencies fall, zero if none was recorded
+     */
+    public Duration percentile(final double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "Percentile is expected to be between 0 and 100 - value: %s", percentile);
+        final var count = totalCount.get();
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        final var target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        var cumulatedCount = 0L;
+        for (int index = 0; index < counts.length(); index++) {
+            cumulatedCount += counts.get(index);
+            if (cumulatedCount >= target) {
+                return Duration.ofNanos(Math.min(highestEquivalentValue(index), maxNanos.get()));
+            }
+        }
+        return max();
+    }
+
+    private static int indexOf(final long value) {
+        final var bucketIndex = Math.max(0, 63 - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK) - (SUB_BUCKET_BITS - 1));
+        final var subBucketIndex = (int) (value >>> bucketIndex);
+        return bucketIndex * SUB_BUCKET_HALF_COUNT + subBucketIndex;
+    }
+
+    private static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final var bucketIndex = index / SUB_BUCKET_HALF_COUNT - 1;
+        final var subBucketIndex = index % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((long) (subBucketIndex + 1) << bucketIndex) - 1;
+    }
+
+}
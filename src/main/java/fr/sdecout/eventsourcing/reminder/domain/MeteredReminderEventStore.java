@@ -0,0 +1,155 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.StoreOperation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Event store recording the latency of every operation of its delegate, failed ones included, along with the events
+ * appended. Loads and saves are also reported to the flight recorder, when enabled.
+ */
+public final class MeteredReminderEventStore implements ReminderEventStore {
+
+    private final ReminderEventStore delegate;
+    private final ReminderMetrics metrics;
+
+    public MeteredReminderEventStore(final ReminderEventStore delegate, final ReminderMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Optional<ReminderAggregate> find(final String reminderId) {
+        final var flightEvent = new StoreFlightEvent();
+        flightEvent.begin();
+        final var start = System.nanoTime();
+        Optional<ReminderAggregate> aggregate = Optional.empty();
+        RuntimeException failure = null;
+        try {
+            aggregate = delegate.find(reminderId);
+            return aggregate;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordStoreOperation(StoreOperation.FIND, System.nanoTime() - start);
+            report(flightEvent, StoreOperation.FIND, reminderId, aggregate.isPresent() ? 1 : 0, 0, failure);
+        }
+    }
+
+    @Override
+    public List<ReminderAggregate> findAll(final Collection<String> reminderIds) {
+        final var flightEvent = new StoreFlightEvent();
+        flightEvent.begin();
+        final var start = System.nanoTime();
+        List<ReminderAggregate> aggregates = List.of();
+        RuntimeException failure = null;
+        try {
+            aggregates = delegate.findAll(reminderIds);
+            return aggregates;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordStoreOperation(StoreOperation.FIND_ALL, System.nanoTime() - start);
+            report(flightEvent, StoreOperation.FIND_ALL, null, aggregates.size(), 0, failure);
+        }
+    }
+
+    @Override
+    public List<ReminderAggregate> findByIntervention(final String interventionId) {
+        final var flightEvent = new StoreFlightEvent();
+        flightEvent.begin();
+        final var start = System.nanoTime();
+        List<ReminderAggregate> aggregates = List.of();
+        RuntimeException failure = null;
+        try {
+            aggregates = delegate.findByIntervention(interventionId);
+            return aggregates;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordStoreOperation(StoreOperation.FIND_BY_INTERVENTION, System.nanoTime() - start);
+            report(flightEvent, StoreOperation.FIND_BY_INTERVENTION, null, aggregates.size(), 0, failure);
+        }
+    }
+
+    @Override
+    public Optional<StreamRevision> headRevision(final String reminderId) {
+        final var start = System.nanoTime();
+        try {
+            return delegate.headRevision(reminderId);
+        } finally {
+            metrics.recordStoreOperation(StoreOperation.HEAD_REVISION, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void save(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision) {
+        final var flightEvent = new StoreFlightEvent();
+        flightEvent.begin();
+        final var start = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            delegate.save(reminderAggregate, expectedRevision);
+            recordAppended(reminderAggregate);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordStoreOperation(StoreOperation.SAVE, System.nanoTime() - start);
+            report(flightEvent, StoreOperation.SAVE, reminderAggregate.state().id(), 1, reminderAggregate.pendingEvents().size(), failure);
+        }
+    }
+
+    @Override
+    public Map<String, RuntimeException> saveAll(final List<ReminderSave> saves) {
+        final var flightEvent = new StoreFlightEvent();
+        flightEvent.begin();
+        final var start = System.nanoTime();
+        var eventCount = 0;
+        RuntimeException failure = null;
+        try {
+            final var failures = delegate.saveAll(saves);
+            for (final ReminderSave save : saves) {
+                final var saveFailure = failures.get(save.reminderAggregate().state().id());
+                if (saveFailure == null) {
+                    recordAppended(save.reminderAggregate());
+                    eventCount += save.reminderAggregate().pendingEvents().size();
+                }
+            }
+            return failures;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordStoreOperation(StoreOperation.SAVE_ALL, System.nanoTime() - start);
+            report(flightEvent, StoreOperation.SAVE_ALL, null, saves.size(), eventCount, failure);
+        }
+    }
+
+    private void recordAppended(final ReminderAggregate reminderAggregate) {
+        for (final Object event : reminderAggregate.pendingEvents()) {
+            metrics.recordAppended(event);
+        }
+    }
+
+    private static void report(final StoreFlightEvent flightEvent, final StoreOperation operation, final String reminderId,
+                               final int reminderCount, final int eventCount, final RuntimeException failure) {
+        flightEvent.end();
+        if (flightEvent.shouldCommit()) {
+            flightEvent.operation = operation.name();
+            flightEvent.reminderId = reminderId;
+            flightEvent.reminderCount = reminderCount;
+            flightEvent.eventCount = eventCount;
+            flightEvent.failure = failure == null ? null : failure.getClass().getSimpleName();
+            flightEvent.commit();
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Rehydrates many reminders at once, in parallel on a dedicated fork-join pool when they are enough for parallelism
+ * to pay off. The pool is bounded by the configured parallelism, so that bulk loads cannot starve other work.
+ * <p>
+ * Event stores and engines given a parallel replay do not close it: the caller of {@link #withParallelism(int)} owns
+ * the pool, and closes it once they are closed themselves. Closing the shared default or sequential replays has no effect.
+ */
+public final class ParallelReplay implements AutoCloseable {
+
+    private static final int MIN_PARALLEL_BATCH_SIZE = 8;
+    private static final ParallelReplay SEQUENTIAL = new ParallelReplay(1, true);
+    private static final ParallelReplay DEFAULT = new ParallelReplay(Runtime.getRuntime().availableProcessors(), true);
+
+    private final ForkJoinPool pool;
+    private final boolean shared;
+
+    private ParallelReplay(final int parallelism, final boolean shared) {
+        this.shared = shared;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism, pool -> {
+            final var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("reminder-replay-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    public static ParallelReplay sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * @return parallel replay shared by all the event stores that are not configured otherwise, with as many threads
+     * as available processors
+     */
+    public static ParallelReplay defaultParallelReplay() {
+        return DEFAULT;
+    }
+
+    public static ParallelReplay withParallelism(final int parallelism) {
+        checkArgument(parallelism > 0, "Parallelism is expected to be positive - value: %s", parallelism);
+        return parallelism == 1 ? SEQUENTIAL : new ParallelReplay(parallelism, false);
+    }
+
+    public int parallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * @return results of the rehydration of every source, in the order of the sources
+     */
+    public <T, R> List<R> rehydrateAll(final List<T> sources, final Function<T, R> rehydrate) {
+        if (pool == null || sources.size() < MIN_PARALLEL_BATCH_SIZE) {
+            return sources.stream().map(rehydrate).collect(toList());
+        }
+        return pool.submit(() -> sources.parallelStream().map(rehydrate).collect(toList())).join();
+    }
+
+    /**
+     * Shut the pool down, once the rehydrations in progress are over.
+     */
+    @Override
+    public void close() {
+        if (pool != null && !shared) {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkState;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderEventStream.emptyEventStream;
+
+/**
+ * Search index maintained by a projection of committed events, so that it is rebuilt from the event log when its
+ * projection is registered, rather than only holding the reminders saved since startup.
+ * Searching fails as long as the projection has not caught up with the log, instead of returning incomplete results.
+ * States indexed directly, for instance by {@link SearchIndexingReminderEventStore}, are kept as long as events
+ * are not newer.
+ */
+public final class ProjectedReminderSearchIndex implements ReminderSearchIndex {
+
+    public static final String PROJECTION_NAME = "reminder-search-index";
+
+    private static final ReminderState BLANK_STATE = emptyEventStream().replay();
+
+    private final ReminderSearchIndex delegate;
+    private final Projection projection = Projection.named(PROJECTION_NAME)
+            .on(ReminderEvent.ReminderScheduled.class, this::schedule)
+            .on(ReminderEvent.ReminderRescheduled.class, this::update)
+            .on(ReminderEvent.ReminderAssigned.class, this::update)
+            .on(ReminderEvent.ReminderUnassigned.class, this::update)
+            .on(ReminderEvent.ReminderTransferred.class, this::update)
+            .on(ReminderEvent.ReminderCancelled.class, this::update)
+            .on(ReminderEvent.ReminderReopened.class, this::update)
+            .on(ReminderEvent.ReminderMarkedAsDone.class, this::update)
+            .onReset(this::clear)
+            .build();
+
+    public ProjectedReminderSearchIndex(final ReminderSearchIndex delegate) {
+        this.delegate = delegate;
+    }
+
+    public Projection projection() {
+        return projection;
+    }
+
+    @Override
+    public void index(final ReminderState state) {
+        delegate.index(state);
+    }
+
+    @Override
+    public Optional<ReminderState> get(final String reminderId) {
+        return delegate.get(reminderId);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public ReminderSearchResult search(final ReminderSearchCriteria criteria, final int offset, final int limit) {
+        checkState(projection.isCaughtUp(), "Search index is not rebuilt: projection '%s' has not caught up with the event log", PROJECTION_NAME);
+        return delegate.search(criteria, offset, limit);
+    }
+
+    private void schedule(final ReminderEvent.ReminderScheduled event) {
+        if (delegate.get(event.reminderId()).isEmpty()) {
+            delegate.index(BLANK_STATE.apply(event));
+        }
+    }
+
+    private void update(final ReminderEvent event) {
+        delegate.get(event.reminderId())
+                .filter(state -> event.version().value() > state.version().value())
+                .ifPresent(state -> delegate.index(state.apply(event)));
+    }
+
+}
@@ -0,0 +1,183 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read model maintained incrementally, by folding committed events into it with handlers registered per event type.
+ * Events of types without handler are skipped.
+ * <p>
+ * Events are delivered in batches: hooks run before the first event and after the last event of every batch, so that
+ * read models can buffer updates and apply them at once. When a projection is rebuilt, the events of different
+ * reminders may be handled concurrently, while the events of a same reminder are still handled in order: handlers are
+ * expected to support that.
+ * <p>
+ * Read models are expected to be kept in memory, and therefore to be rebuilt from the whole event log when registered.
+ * Only projections declared as persistent, whose read model outlives restarts, resume from their checkpoint.
+ */
+public final class Projection implements ReminderEventSubscriber {
+
+    private static final Runnable NO_HOOK = () -> {
+    };
+
+    private final String name;
+    private final Map<Class<?>, Consumer<ReminderEvent>> handlers;
+    private final Runnable beforeBatch;
+    private final Runnable afterBatch;
+    private final Runnable reset;
+    private final boolean persistent;
+    private boolean inBatch;
+    private volatile long position;
+    private volatile boolean caughtUp;
+    private volatile Instant lastEventTimestamp;
+
+    private Projection(final Builder builder) {
+        this.name = builder.name;
+        this.handlers = new IdentityHashMap<>(builder.handlers);
+        this.beforeBatch = builder.beforeBatch;
+        this.afterBatch = builder.afterBatch;
+        this.reset = builder.reset;
+        this.persistent = builder.persistent;
+    }
+
+    public static Builder named(final String name) {
+        return new Builder(requireNonNull(name));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * @return whether the projection was caught up with the event log since it was registered or last reset
+     */
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    /**
+     * @return position in the event log of the last event handled
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * @return timestamp of the last event handled, if any
+     */
+    public Instant lastEventTimestamp() {
+        return lastEventTimestamp;
+    }
+
+    @Override
+    public void onEvent(final ReminderEvent event, final long eventPosition, final boolean endOfBatch) {
+        if (!inBatch) {
+            beforeBatch.run();
+            inBatch = true;
+        }
+        try {
+            handle(event);
+        } catch (RuntimeException e) {
+            inBatch = false;
+            throw e;
+        }
+        moveTo(eventPosition, event);
+        if (endOfBatch) {
+            afterBatch.run();
+            inBatch = false;
+        }
+    }
+
+    void handle(final ReminderEvent event) {
+        final var handler = handlers.get(event.getClass());
+        if (handler != null) {
+            handler.accept(event);
+        }
+    }
+
+    void beforeBatch() {
+        beforeBatch.run();
+    }
+
+    void afterBatch() {
+        afterBatch.run();
+    }
+
+    void reset() {
+        reset.run();
+        inBatch = false;
+        caughtUp = false;
+        position = 0;
+        lastEventTimestamp = null;
+    }
+
+    void markCaughtUp() {
+        caughtUp = true;
+    }
+
+    void moveTo(final long eventPosition, final ReminderEvent event) {
+        position = eventPosition;
+        lastEventTimestamp = event.timestamp();
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final Map<Class<?>, Consumer<ReminderEvent>> handlers = new IdentityHashMap<>();
+        private Runnable beforeBatch = NO_HOOK;
+        private Runnable afterBatch = NO_HOOK;
+        private Runnable reset = NO_HOOK;
+        private boolean persistent;
+
+        private Builder(final String name) {
+            this.name = name;
+        }
+
+        public <E extends ReminderEvent> Builder on(final Class<E> eventType, final Consumer<? super E> handler) {
+            requireNonNull(handler);
+            handlers.put(eventType, event -> handler.accept(eventType.cast(event)));
+            return this;
+        }
+
+        public Builder beforeBatch(final Runnable hook) {
+            this.beforeBatch = requireNonNull(hook);
+            return this;
+        }
+
+        public Builder afterBatch(final Runnable hook) {
+            this.afterBatch = requireNonNull(hook);
+            return this;
+        }
+
+        /**
+         * @param hook clearing the read model, before it is rebuilt from the whole event log
+         */
+        public Builder onReset(final Runnable hook) {
+            this.reset = requireNonNull(hook);
+            return this;
+        }
+
+        /**
+         * Declare that the read model outlives restarts, so that the projection resumes from its checkpoint rather than
+         * being rebuilt when registered.
+         */
+        public Builder persistent() {
+            this.persistent = true;
+            return this;
+        }
+
+        public Projection build() {
+            return new Projection(this);
+        }
+
+    }
+
+}
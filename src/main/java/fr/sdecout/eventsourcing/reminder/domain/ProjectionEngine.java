@@ -0,0 +1,214 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Keeps projections up to date with committed events. Every projection catches up from its own checkpoint, then
+ * follows live events: the engine is meant to receive them, for instance from the event bus, and hands them over to
+ * every projection. A projection failing on an event does not prevent others from handling it, and gets the event
+ * again with the next live event.
+ * <p>
+ * A projection can also be rebuilt from the whole event log. The log is then read sequentially in batches, and the
+ * events of every batch are handled in parallel, partitioned by reminder ID. A projection being rebuilt does not get
+ * live events, but catches up with them from the log once rebuilt.
+ * <p>
+ * Projections that are not persistent are rebuilt when registered, whatever their checkpoint: their read model starts
+ * empty, so resuming from a checkpoint saved before a restart would skip all the events before it.
+ */
+public final class ProjectionEngine implements ReminderEventSubscriber, AutoCloseable {
+
+    public static final int DEFAULT_PARTITION_COUNT = 16;
+
+    private final ReminderEventLog eventLog;
+    private final CheckpointStore checkpoints;
+    private final Clock clock;
+    private final ParallelReplay parallelReplay;
+    private final int batchSize;
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    public ProjectionEngine(final ReminderEventLog eventLog, final CheckpointStore checkpoints, final Clock clock) {
+        this(eventLog, checkpoints, clock, ParallelReplay.defaultParallelReplay(), CatchUpSubscription.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param parallelReplay how the partitions of a batch are handled when rebuilding a projection
+     * @param batchSize      number of events read from the log at once
+     */
+    public ProjectionEngine(final ReminderEventLog eventLog, final CheckpointStore checkpoints, final Clock clock,
+                            final ParallelReplay parallelReplay, final int batchSize) {
+        checkArgument(batchSize > 0, "Batch size is expected to be positive - value: %s", batchSize);
+        this.eventLog = eventLog;
+        this.checkpoints = checkpoints;
+        this.clock = clock;
+        this.parallelReplay = parallelReplay;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Register a projection, and catch it up with the events committed so far: from its checkpoint if it is
+     * persistent, from the beginning of the log otherwise.
+     */
+    public void register(final Projection projection) {
+        final var registration = new Registration(projection, subscriptionOf(projection));
+        registration.lock.lock();
+        try {
+            checkArgument(registrations.putIfAbsent(projection.name(), registration) == null,
+                    "Projection is already registered: '%s'", projection.name());
+            if (projection.isPersistent()) {
+                registration.subscription.catchUp();
+                projection.markCaughtUp();
+            } else {
+                rebuild(registration, DEFAULT_PARTITION_COUNT);
+            }
+        } finally {
+            registration.lock.unlock();
+        }
+    }
+
+    @Override
+    public void onEvent(final ReminderEvent event, final long position, final boolean endOfBatch) {
+        for (final Registration registration : registrations.values()) {
+            registration.onEvent(event, position, endOfBatch);
+        }
+    }
+
+    public void rebuild(final String projectionName) {
+        rebuild(projectionName, DEFAULT_PARTITION_COUNT);
+    }
+
+    /**
+     * Reset a projection, then handle all the events of the log again.
+     */
+    public void rebuild(final String projectionName, final int partitionCount) {
+        checkArgument(partitionCount > 0, "Partition count is expected to be positive - value: %s", partitionCount);
+        final var registration = registrations.get(projectionName);
+        checkArgument(registration != null, "Unknown projection: '%s'", projectionName);
+        registration.lock.lock();
+        try {
+            rebuild(registration, partitionCount);
+        } finally {
+            registration.lock.unlock();
+        }
+    }
+
+    /**
+     * @return lag of every projection, sorted by projection name
+     */
+    public List<ProjectionLag> lag() {
+        final var headPosition = eventLog.headPosition();
+        final var now = clock.instant();
+        return registrations.values().stream()
+                .map(registration -> lagOf(registration, headPosition, now))
+                .sorted(Comparator.comparing(ProjectionLag::projection))
+                .collect(toList());
+    }
+
+    /**
+     * @return number of live events a projection failed to handle, and got again later on
+     */
+    public long failedEvents(final String projectionName) {
+        final var registration = registrations.get(projectionName);
+        checkArgument(registration != null, "Unknown projection: '%s'", projectionName);
+        return registration.failedEvents.sum();
+    }
+
+    /**
+     * Save the checkpoints of all the projections.
+     */
+    @Override
+    public void close() {
+        registrations.values().forEach(registration -> registration.subscription.close());
+    }
+
+    private void rebuild(final Registration registration, final int partitionCount) {
+        final var projection = registration.projection;
+        projection.reset();
+        final var headPosition = eventLog.headPosition();
+        final List<List<ReminderEvent>> partitions = new ArrayList<>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions.add(new ArrayList<>());
+        }
+        final var lastEvent = new ReminderEvent[1];
+        var position = 1L;
+        while (position <= headPosition) {
+            partitions.forEach(List::clear);
+            final var count = eventLog.read(position, (int) Math.min(batchSize, headPosition - position + 1), (event, eventPosition, endOfBatch) -> {
+                partitions.get(Math.floorMod(event.reminderId().hashCode(), partitionCount)).add(event);
+                lastEvent[0] = event;
+            });
+            if (count == 0) {
+                break;
+            }
+            projection.beforeBatch();
+            parallelReplay.rehydrateAll(partitions, partition -> {
+                partition.forEach(projection::handle);
+                return partition.size();
+            });
+            projection.afterBatch();
+            position += count;
+        }
+        if (lastEvent[0] != null) {
+            projection.moveTo(position - 1, lastEvent[0]);
+        }
+        checkpoints.save(projection.name(), position - 1);
+        registration.subscription = subscriptionOf(projection);
+        registration.subscription.catchUp();
+        projection.markCaughtUp();
+    }
+
+    private CatchUpSubscription subscriptionOf(final Projection projection) {
+        return new CatchUpSubscription(projection.name(), eventLog, checkpoints, projection, batchSize, CatchUpSubscription.DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    private ProjectionLag lagOf(final Registration registration, final long headPosition, final Instant now) {
+        final var position = registration.projection.position();
+        final var oldestPending = new Instant[1];
+        if (position < headPosition) {
+            eventLog.read(position + 1, 1, (event, eventPosition, endOfBatch) -> oldestPending[0] = event.timestamp());
+        }
+        final var timeBehind = oldestPending[0] == null || oldestPending[0].isAfter(now)
+                ? Duration.ZERO
+                : Duration.between(oldestPending[0], now);
+        return new ProjectionLag(registration.projection.name(), position, headPosition, timeBehind);
+    }
+
+    private static final class Registration {
+
+        private final Projection projection;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongAdder failedEvents = new LongAdder();
+        private volatile CatchUpSubscription subscription;
+
+        private Registration(final Projection projection, final CatchUpSubscription subscription) {
+            this.projection = projection;
+            this.subscription = subscription;
+        }
+
+        private void onEvent(final ReminderEvent event, final long position, final boolean endOfBatch) {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                subscription.onEvent(event, position, endOfBatch);
+            } catch (RuntimeException e) {
+                failedEvents.increment();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+}
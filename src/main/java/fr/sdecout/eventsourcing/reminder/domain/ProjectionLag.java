@@ -0,0 +1,19 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Duration;
+
+/**
+ * How far a projection is behind the head of the event log.
+ *
+ * @param timeBehind age of the oldest event not handled yet, which is zero if the projection is up to date
+ */
+public record ProjectionLag(String projection, long position, long headPosition, Duration timeBehind) {
+
+    /**
+     * @return number of events not handled yet
+     */
+    public long events() {
+        return Math.max(0, headPosition - position);
+    }
+
+}
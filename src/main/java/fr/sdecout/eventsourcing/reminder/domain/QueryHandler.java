@@ -1,34 +1,103 @@
 package fr.sdecout.eventsourcing.reminder.domain;
 
+import fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.QueryType;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Queries are answered either by rehydrating reminders from the event store, which is always up to date, or by looking
+ * them up in a read model, which is cheaper but eventually consistent. The latency of every query is recorded, failed
+ * ones included.
+ */
 public final class QueryHandler {
 
-    private final ReminderEventStore eventStore;
+    private final Function<String, Optional<ReminderState>> findReminder;
+    private final Function<String, List<ReminderState>> findReminders;
+    private final ReminderSearchIndex searchIndex;
+    private final ReminderMetrics metrics;
 
     public QueryHandler(final ReminderEventStore eventStore) {
-        this.eventStore = eventStore;
+        this(eventStore, null);
+    }
+
+    public QueryHandler(final ReminderEventStore eventStore, final ReminderSearchIndex searchIndex) {
+        this(eventStore, searchIndex, new ReminderMetrics());
+    }
+
+    /**
+     * @param metrics where query latencies are recorded, possibly shared with a {@link CommandHandler}
+     */
+    public QueryHandler(final ReminderEventStore eventStore, final ReminderSearchIndex searchIndex, final ReminderMetrics metrics) {
+        this.findReminder = reminderId -> eventStore.find(reminderId).map(ReminderAggregate::state);
+        this.findReminders = interventionId -> eventStore.findByIntervention(interventionId).stream()
+                .map(ReminderAggregate::state)
+                .collect(toList());
+        this.searchIndex = searchIndex;
+        this.metrics = metrics;
+    }
+
+    public QueryHandler(final ReminderReadModel readModel) {
+        this(readModel, null);
+    }
+
+    public QueryHandler(final ReminderReadModel readModel, final ReminderSearchIndex searchIndex) {
+        this(readModel, searchIndex, new ReminderMetrics());
+    }
+
+    /**
+     * @param metrics where query latencies are recorded, possibly shared with a {@link CommandHandler}
+     */
+    public QueryHandler(final ReminderReadModel readModel, final ReminderSearchIndex searchIndex, final ReminderMetrics metrics) {
+        this.findReminder = readModel::get;
+        this.findReminders = readModel::getByIntervention;
+        this.searchIndex = searchIndex;
+        this.metrics = metrics;
+    }
+
+    public ReminderMetrics metrics() {
+        return metrics;
     }
 
     public Optional<ReminderState> getReminder(final String interventionId, final String reminderId) {
         requireNonNull(interventionId);
         requireNonNull(reminderId);
-        return eventStore.find(reminderId)
-                .filter(reminderAggregate -> interventionId.equals(reminderAggregate.state().interventionId()))
-                .map(ReminderAggregate::state);
+        final var start = System.nanoTime();
+        try {
+            return findReminder.apply(reminderId)
+                    .filter(state -> interventionId.equals(state.interventionId()));
+        } finally {
+            metrics.recordQuery(QueryType.GET_REMINDER, System.nanoTime() - start);
+        }
     }
 
     public List<ReminderState> getReminders(final String interventionId) {
         requireNonNull(interventionId);
-        return eventStore.findByIntervention(interventionId).stream()
-                .map(ReminderAggregate::state)
-                .collect(toList());
+        final var start = System.nanoTime();
+        try {
+            return findReminders.apply(interventionId);
+        } finally {
+            metrics.recordQuery(QueryType.GET_REMINDERS, System.nanoTime() - start);
+        }
     }
 
-    //TODO: how about global search? (/type, /status, /timerange)
+    public ReminderSearchResult search(final ReminderSearchCriteria criteria, final int offset, final int limit) {
+        requireNonNull(criteria);
+        checkArgument(offset >= 0, "Offset is expected not to be negative - value: %s", offset);
+        checkArgument(limit > 0, "Limit is expected to be positive - value: %s", limit);
+        checkState(searchIndex != null, "Global search is not available: no search index");
+        final var start = System.nanoTime();
+        try {
+            return searchIndex.search(criteria, offset, limit);
+        } finally {
+            metrics.recordQuery(QueryType.SEARCH, System.nanoTime() - start);
+        }
+    }
 
 }
@@ -18,12 +18,24 @@ public final class ReminderAggregate implements Aggregate<ReminderEvent, Reminde
 
     private final List<? super ReminderEvent> pendingEvents;
     private final Clock clock;
+    private final boolean rehydratedFromSnapshot;
+    private final int replayedEvents;
     private ReminderState state;
 
     public ReminderAggregate(final ReminderEventStream history, final Clock clock) {
         this.pendingEvents = new LinkedList<>();
         this.clock = clock;
         this.state = history.replay();
+        this.rehydratedFromSnapshot = false;
+        this.replayedEvents = history.events().size();
+    }
+
+    public ReminderAggregate(final ReminderState snapshot, final ReminderEventStream tail, final Clock clock) {
+        this.pendingEvents = new LinkedList<>();
+        this.clock = clock;
+        this.state = tail.replayFrom(snapshot);
+        this.rehydratedFromSnapshot = snapshot.version().value() > 0;
+        this.replayedEvents = tail.events().size();
     }
 
     static ReminderAggregate scheduleNewReminder(final String reminderId, final String interventionId, final ReminderType reminderType,
@@ -112,6 +124,17 @@ public final class ReminderAggregate implements Aggregate<ReminderEvent, Reminde
         return this.state;
     }
 
+    /**
+     * @return whether rehydration started from a snapshot or a cached state, rather than from the first event
+     */
+    boolean rehydratedFromSnapshot() {
+        return this.rehydratedFromSnapshot;
+    }
+
+    int replayedEvents() {
+        return this.replayedEvents;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
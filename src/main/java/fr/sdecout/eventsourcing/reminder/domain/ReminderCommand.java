@@ -0,0 +1,59 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.ZonedDateTime;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Command on an existing reminder, for handling many commands at once.
+ */
+public sealed interface ReminderCommand {
+
+    String reminderId();
+
+    record Reschedule(String reminderId, ZonedDateTime scheduledTime) implements ReminderCommand {
+        public Reschedule {
+            requireNonNull(reminderId);
+            requireNonNull(scheduledTime);
+        }
+    }
+
+    record Reopen(String reminderId) implements ReminderCommand {
+        public Reopen {
+            requireNonNull(reminderId);
+        }
+    }
+
+    record Cancel(String reminderId) implements ReminderCommand {
+        public Cancel {
+            requireNonNull(reminderId);
+        }
+    }
+
+    record MarkAsDone(String reminderId) implements ReminderCommand {
+        public MarkAsDone {
+            requireNonNull(reminderId);
+        }
+    }
+
+    record Assign(String reminderId, String operator) implements ReminderCommand {
+        public Assign {
+            requireNonNull(reminderId);
+            requireNonNull(operator);
+        }
+    }
+
+    record Unassign(String reminderId) implements ReminderCommand {
+        public Unassign {
+            requireNonNull(reminderId);
+        }
+    }
+
+    record Transfer(String reminderId, Country country) implements ReminderCommand {
+        public Transfer {
+            requireNonNull(reminderId);
+            requireNonNull(country);
+        }
+    }
+
+}
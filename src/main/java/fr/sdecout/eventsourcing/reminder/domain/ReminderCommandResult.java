@@ -0,0 +1,32 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Outcome of one command handled in a batch: either it was applied and saved, or it failed for given reason.
+ */
+public record ReminderCommandResult(ReminderCommand command, RuntimeException failure) {
+
+    public ReminderCommandResult {
+        requireNonNull(command);
+    }
+
+    static ReminderCommandResult success(final ReminderCommand command) {
+        return new ReminderCommandResult(command, null);
+    }
+
+    static ReminderCommandResult failure(final ReminderCommand command, final RuntimeException failure) {
+        return new ReminderCommandResult(command, requireNonNull(failure));
+    }
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    public Optional<RuntimeException> failureCause() {
+        return Optional.ofNullable(failure);
+    }
+
+}
@@ -39,6 +39,7 @@ public interface ReminderEvent extends Event {
             requireNonNull(reminderType);
             requireNonNull(country);
             requireNonNull(scheduledTime);
+            interventionId = SharedStrings.intern(interventionId);
         }
     }
 
@@ -71,6 +72,7 @@ public interface ReminderEvent extends Event {
             requireNonNull(version);
             requireNonNull(timestamp);
             requireNonNull(assignee);
+            assignee = SharedStrings.intern(assignee);
         }
     }
 
@@ -0,0 +1,26 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.annotations.HexagonalArchitecture;
+
+import static fr.sdecout.annotations.HexagonalArchitecture.Port.Type.DRIVEN;
+
+/**
+ * Log of all the committed events, in commit order. Every event is given a position in the log: positions start at 1,
+ * and are consecutive.
+ */
+@HexagonalArchitecture.Port(DRIVEN)
+public interface ReminderEventLog {
+
+    /**
+     * @return position of the last committed event, or 0 if no event has been committed yet
+     */
+    long headPosition();
+
+    /**
+     * Read committed events sequentially, from given position on. The last event read is flagged as end of batch.
+     *
+     * @return number of events read, which is less than the maximum count only if the head of the log was reached
+     */
+    int read(long fromPosition, int maxCount, ReminderEventSubscriber subscriber);
+
+}
@@ -0,0 +1,23 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.annotations.HexagonalArchitecture;
+
+import static fr.sdecout.annotations.HexagonalArchitecture.Port.Type.DRIVEN;
+
+@HexagonalArchitecture.Port(DRIVEN)
+public interface ReminderEventPublisher {
+
+    /**
+     * Make a committed event available to subscribers. Event stores call it in commit order, while appending, so it is
+     * expected to return right away.
+     *
+     * @param position position of the event in the log of all the committed events
+     */
+    void publish(ReminderEvent event, long position);
+
+    static ReminderEventPublisher noPublication() {
+        return (event, position) -> {
+        };
+    }
+
+}
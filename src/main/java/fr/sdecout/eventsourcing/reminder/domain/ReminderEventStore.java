@@ -1,10 +1,16 @@
 package fr.sdecout.eventsourcing.reminder.domain;
 
 import fr.sdecout.annotations.DomainDrivenDesign;
+import fr.sdecout.eventsourcing.StreamRevision;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static java.util.stream.Collectors.toList;
+
 @DomainDrivenDesign.Repository(ReminderAggregate.class)
 public interface ReminderEventStore {
 
@@ -14,10 +20,50 @@ public interface ReminderEventStore {
     Optional<ReminderAggregate> find(String reminderId);
     List<ReminderAggregate> findByIntervention(String interventionId);
 
+    /**
+     * Get events and rehydrate aggregates of several reminders at once, in the order of given IDs.
+     * Unknown reminder IDs are skipped.
+     */
+    default List<ReminderAggregate> findAll(final Collection<String> reminderIds) {
+        return reminderIds.stream()
+                .map(this::find)
+                .flatMap(Optional::stream)
+                .collect(toList());
+    }
+
+    /**
+     * Revision of the last event of the stream, which stores are expected to tell without reading any event
+     */
+    default Optional<StreamRevision> headRevision(final String reminderId) {
+        return find(reminderId).map(aggregate -> aggregate.state().version());
+    }
+
     /**
      * Append la liste des events de l'aggregate dans la DB
-     * Faire en sorte que l'ajout dans la DB publie un truc écoutable par ailleurs
+     * Les events ajoutés sont publiés dans l'ordre du commit, voir {@link ReminderEventPublisher}
+     *
+     * @param expectedRevision revision of the stream when the aggregate was loaded
+     * @throws StreamRevisionConflictException if the stream has moved on since then
+     */
+    void save(ReminderAggregate reminderAggregate, StreamRevision expectedRevision);
+
+    /**
+     * Append the pending events of several aggregates at once, which stores are expected to do in one write.
+     * Each aggregate is checked against its own expected revision, and rejected independently of the others, whatever
+     * the reason why it cannot be saved.
+     *
+     * @return reasons why aggregates were not saved, by reminder ID
      */
-    void save(ReminderAggregate reminderAggregate);
+    default Map<String, RuntimeException> saveAll(final List<ReminderSave> saves) {
+        final Map<String, RuntimeException> failures = new HashMap<>();
+        for (final ReminderSave save : saves) {
+            try {
+                save(save.reminderAggregate(), save.expectedRevision());
+            } catch (RuntimeException e) {
+                failures.put(save.reminderAggregate().state().id(), e);
+            }
+        }
+        return failures;
+    }
 
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
 
 @DomainDrivenDesign.Aggregate(aggregateRoot = ReminderEventStream.class, members = {ReminderEvent.class})
 public record ReminderEventStream(List<? extends ReminderEvent> events) implements EventStream<ReminderEvent, ReminderState> {
@@ -20,11 +21,39 @@ public record ReminderEventStream(List<? extends ReminderEvent> events) implemen
     }
 
     public ReminderState replay() {
-        return events.stream().reduce(
-                BLANK_STATE,
-                ReminderState::apply,
-                (formerState, updatedState) -> updatedState
-        );
+        return replayFrom(BLANK_STATE);
+    }
+
+    /**
+     * Apply events on top of a state (typically a snapshot) that precedes them.
+     * Events are folded into a single mutable accumulator, so that no intermediate state is allocated.
+     * The replay is reported to the flight recorder, when enabled, and to the trace of the command loading the reminder
+     * on the current thread, if any.
+     */
+    public ReminderState replayFrom(final ReminderState initialState) {
+        requireNonNull(initialState);
+        if (events.isEmpty()) {
+            return initialState;
+        }
+        final var trace = CommandTrace.loading();
+        final var replayStart = trace == null ? 0L : System.nanoTime();
+        final var flightEvent = new ReplayFlightEvent();
+        flightEvent.begin();
+        final var accumulator = new ReminderStateAccumulator(initialState);
+        for (final ReminderEvent event : events) {
+            accumulator.apply(event);
+        }
+        flightEvent.end();
+        if (trace != null) {
+            trace.replayed(System.nanoTime() - replayStart);
+        }
+        if (flightEvent.shouldCommit()) {
+            flightEvent.reminderId = events.get(0).reminderId();
+            flightEvent.initialVersion = initialState.version().value();
+            flightEvent.eventCount = events.size();
+            flightEvent.commit();
+        }
+        return accumulator.toState();
     }
 
     static ReminderEventStream emptyEventStream() {
@@ -0,0 +1,15 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+/**
+ * Receiver of committed events, in commit order.
+ */
+@FunctionalInterface
+public interface ReminderEventSubscriber {
+
+    /**
+     * @param position   position of the event in the log of all the committed events
+     * @param endOfBatch whether no more events are available right now, which is a good time to flush any buffered work
+     */
+    void onEvent(ReminderEvent event, long position, boolean endOfBatch);
+
+}
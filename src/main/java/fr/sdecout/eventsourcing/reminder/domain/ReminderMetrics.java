@@ -0,0 +1,127 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of commands, of queries and of event store operations, with counters of appended events and denied
+ * commands. Conflicts are counted by {@link ConflictMetrics}, along with the retries they caused. All the histograms and counters are created upfront, so that recording is lock-free and does not allocate.
+ */
+public final class ReminderMetrics {
+
+    public enum CommandType {
+        SCHEDULE, RESCHEDULE, REOPEN, CANCEL, MARK_AS_DONE, ASSIGN, UNASSIGN, TRANSFER,
+        /**
+         * Commands handled all at once
+         */
+        BATCH;
+
+        static CommandType of(final ReminderCommand command) {
+            if (command instanceof ReminderCommand.Reschedule) {
+                return RESCHEDULE;
+            } else if (command instanceof ReminderCommand.Reopen) {
+                return REOPEN;
+            } else if (command instanceof ReminderCommand.Cancel) {
+                return CANCEL;
+            } else if (command instanceof ReminderCommand.MarkAsDone) {
+                return MARK_AS_DONE;
+            } else if (command instanceof ReminderCommand.Assign) {
+                return ASSIGN;
+            } else if (command instanceof ReminderCommand.Unassign) {
+                return UNASSIGN;
+            } else if (command instanceof ReminderCommand.Transfer) {
+                return TRANSFER;
+            }
+            throw new IllegalArgumentException("Unexpected command type: " + command.getClass().getName());
+        }
+    }
+
+    public enum QueryType {
+        GET_REMINDER, GET_REMINDERS, SEARCH
+    }
+
+    public enum StoreOperation {
+        FIND, FIND_ALL, FIND_BY_INTERVENTION, HEAD_REVISION, SAVE, SAVE_ALL
+    }
+
+    private static final List<Class<? extends ReminderEvent>> EVENT_TYPES = List.of(
+            ReminderEvent.ReminderScheduled.class,
+            ReminderEvent.ReminderRescheduled.class,
+            ReminderEvent.ReminderReopened.class,
+            ReminderEvent.ReminderCancelled.class,
+            ReminderEvent.ReminderMarkedAsDone.class,
+            ReminderEvent.ReminderAssigned.class,
+            ReminderEvent.ReminderUnassigned.class,
+            ReminderEvent.ReminderTransferred.class
+    );
+
+    private final LatencyHistogram[] commandLatencies = new LatencyHistogram[CommandType.values().length];
+    private final LongAdder[] deniedCommands = new LongAdder[CommandType.values().length];
+    private final LatencyHistogram[] queryLatencies = new LatencyHistogram[QueryType.values().length];
+    private final LatencyHistogram[] storeLatencies = new LatencyHistogram[StoreOperation.values().length];
+    private final Map<Class<?>, LongAdder> appendedEvents = new IdentityHashMap<>();
+
+    public ReminderMetrics() {
+        for (int index = 0; index < commandLatencies.length; index++) {
+            commandLatencies[index] = new LatencyHistogram();
+            deniedCommands[index] = new LongAdder();
+        }
+        for (int index = 0; index < queryLatencies.length; index++) {
+            queryLatencies[index] = new LatencyHistogram();
+        }
+        for (int index = 0; index < storeLatencies.length; index++) {
+            storeLatencies[index] = new LatencyHistogram();
+        }
+        EVENT_TYPES.forEach(eventType -> appendedEvents.put(eventType, new LongAdder()));
+    }
+
+    public LatencyHistogram commandLatency(final CommandType commandType) {
+        return commandLatencies[commandType.ordinal()];
+    }
+
+    public LatencyHistogram queryLatency(final QueryType queryType) {
+        return queryLatencies[queryType.ordinal()];
+    }
+
+    public LatencyHistogram storeLatency(final StoreOperation operation) {
+        return storeLatencies[operation.ordinal()];
+    }
+
+    /**
+     * @return number of commands rejected with an {@link InvalidUpdateDeniedException}
+     */
+    public long deniedCommands(final CommandType commandType) {
+        return deniedCommands[commandType.ordinal()].sum();
+    }
+
+    public long appendedEvents(final Class<? extends ReminderEvent> eventType) {
+        final var counter = appendedEvents.get(eventType);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    void recordCommand(final CommandType commandType, final long nanos) {
+        commandLatencies[commandType.ordinal()].record(nanos);
+    }
+
+    void recordDenied(final CommandType commandType) {
+        deniedCommands[commandType.ordinal()].increment();
+    }
+
+    void recordQuery(final QueryType queryType, final long nanos) {
+        queryLatencies[queryType.ordinal()].record(nanos);
+    }
+
+    void recordStoreOperation(final StoreOperation operation, final long nanos) {
+        storeLatencies[operation.ordinal()].record(nanos);
+    }
+
+    void recordAppended(final Object event) {
+        final var counter = appendedEvents.get(event.getClass());
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderEventStream.emptyEventStream;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Latest state of every reminder, maintained by a projection of committed events, so that queries are answered by
+ * lookups rather than by replaying events. It is eventually consistent: events are only reflected once handled.
+ * Events older than the state of their reminder are skipped, so that events delivered again after a restart are
+ * harmless. It is only kept in memory: its projection is not persistent, and is therefore rebuilt from the whole event
+ * log when registered.
+ */
+public final class ReminderReadModel {
+
+    public static final String PROJECTION_NAME = "reminder-states";
+
+    private static final ReminderState BLANK_STATE = emptyEventStream().replay();
+
+    private final Map<String, ReminderState> states = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> reminderIdsByIntervention = new ConcurrentHashMap<>();
+    private final Projection projection = Projection.named(PROJECTION_NAME)
+            .on(ReminderEvent.ReminderScheduled.class, this::schedule)
+            .on(ReminderEvent.ReminderRescheduled.class, this::update)
+            .on(ReminderEvent.ReminderAssigned.class, this::update)
+            .on(ReminderEvent.ReminderUnassigned.class, this::update)
+            .on(ReminderEvent.ReminderTransferred.class, this::update)
+            .on(ReminderEvent.ReminderCancelled.class, this::update)
+            .on(ReminderEvent.ReminderReopened.class, this::update)
+            .on(ReminderEvent.ReminderMarkedAsDone.class, this::update)
+            .onReset(this::clear)
+            .build();
+
+    public Projection projection() {
+        return projection;
+    }
+
+    public Optional<ReminderState> get(final String reminderId) {
+        return Optional.ofNullable(states.get(reminderId));
+    }
+
+    public List<ReminderState> getByIntervention(final String interventionId) {
+        return reminderIdsByIntervention.getOrDefault(interventionId, Set.of()).stream()
+                .map(states::get)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+
+    private void schedule(final ReminderEvent.ReminderScheduled event) {
+        states.computeIfAbsent(event.reminderId(), reminderId -> BLANK_STATE.apply(event));
+        reminderIdsByIntervention.computeIfAbsent(event.interventionId(), interventionId -> ConcurrentHashMap.newKeySet())
+                .add(event.reminderId());
+    }
+
+    private void update(final ReminderEvent event) {
+        states.computeIfPresent(event.reminderId(), (reminderId, state) ->
+                event.version().value() > state.version().value() ? state.apply(event) : state);
+    }
+
+    private void clear() {
+        states.clear();
+        reminderIdsByIntervention.clear();
+    }
+
+}
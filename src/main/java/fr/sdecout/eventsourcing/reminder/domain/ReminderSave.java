@@ -0,0 +1,17 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aggregate to save along with others, with the revision of its stream when it was loaded.
+ */
+public record ReminderSave(ReminderAggregate reminderAggregate, StreamRevision expectedRevision) {
+
+    public ReminderSave {
+        requireNonNull(reminderAggregate);
+        requireNonNull(expectedRevision);
+    }
+
+}
@@ -0,0 +1,72 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.annotations.DomainDrivenDesign;
+
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Arrays.asList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Criteria of a global search among reminders. An empty set of values does not filter anything, and neither does a
+ * missing bound of the scheduled time range.
+ *
+ * @param scheduledFrom inclusive lower bound of the scheduled time, if any
+ * @param scheduledTo   exclusive upper bound of the scheduled time, if any
+ */
+@DomainDrivenDesign.ValueObject
+public record ReminderSearchCriteria(Set<ReminderType> types,
+                                     Set<ReminderState.ReminderStatus> statuses,
+                                     Set<Country> countries,
+                                     ZonedDateTime scheduledFrom,
+                                     ZonedDateTime scheduledTo) {
+
+    private static final ReminderSearchCriteria ANY_REMINDER = new ReminderSearchCriteria(Set.of(), Set.of(), Set.of(), null, null);
+
+    public ReminderSearchCriteria {
+        types = Set.copyOf(types);
+        statuses = Set.copyOf(statuses);
+        countries = Set.copyOf(countries);
+        checkArgument(scheduledFrom == null || scheduledTo == null || !scheduledTo.isBefore(scheduledFrom),
+                "Scheduled time range is expected to end after it starts - value: [%s, %s)", scheduledFrom, scheduledTo);
+    }
+
+    public static ReminderSearchCriteria anyReminder() {
+        return ANY_REMINDER;
+    }
+
+    public ReminderSearchCriteria withTypes(final ReminderType... types) {
+        return new ReminderSearchCriteria(Set.copyOf(asList(types)), statuses, countries, scheduledFrom, scheduledTo);
+    }
+
+    public ReminderSearchCriteria withStatuses(final ReminderState.ReminderStatus... statuses) {
+        return new ReminderSearchCriteria(types, Set.copyOf(asList(statuses)), countries, scheduledFrom, scheduledTo);
+    }
+
+    public ReminderSearchCriteria withCountries(final Country... countries) {
+        return new ReminderSearchCriteria(types, statuses, Set.copyOf(asList(countries)), scheduledFrom, scheduledTo);
+    }
+
+    public ReminderSearchCriteria scheduledBetween(final ZonedDateTime from, final ZonedDateTime to) {
+        return new ReminderSearchCriteria(types, statuses, countries, requireNonNull(from), requireNonNull(to));
+    }
+
+    public ReminderSearchCriteria scheduledFrom(final ZonedDateTime from) {
+        return new ReminderSearchCriteria(types, statuses, countries, requireNonNull(from), scheduledTo);
+    }
+
+    public ReminderSearchCriteria scheduledBefore(final ZonedDateTime to) {
+        return new ReminderSearchCriteria(types, statuses, countries, scheduledFrom, requireNonNull(to));
+    }
+
+    public boolean matches(final ReminderState state) {
+        return (types.isEmpty() || types.contains(state.type()))
+                && (statuses.isEmpty() || statuses.contains(state.status()))
+                && (countries.isEmpty() || countries.contains(state.country()))
+                && (scheduledFrom == null || !state.scheduledTime().isBefore(scheduledFrom))
+                && (scheduledTo == null || state.scheduledTime().isBefore(scheduledTo));
+    }
+
+}
@@ -0,0 +1,33 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.annotations.HexagonalArchitecture;
+
+import java.util.Optional;
+
+import static fr.sdecout.annotations.HexagonalArchitecture.Port.Type.DRIVEN;
+
+@HexagonalArchitecture.Port(DRIVEN)
+public interface ReminderSearchIndex {
+
+    /**
+     * Index the latest state of a reminder, replacing any older state of the same reminder.
+     * States older than the one already indexed are ignored.
+     */
+    void index(ReminderState state);
+
+    /**
+     * @return latest state indexed for a reminder, if any
+     */
+    Optional<ReminderState> get(String reminderId);
+
+    /**
+     * Remove all the indexed reminders, before the index is rebuilt.
+     */
+    void clear();
+
+    /**
+     * @return the reminders matching all given criteria, ordered by scheduled time
+     */
+    ReminderSearchResult search(ReminderSearchCriteria criteria, int offset, int limit);
+
+}
@@ -0,0 +1,15 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.List;
+
+/**
+ * @param reminders  requested page of matching reminders
+ * @param totalCount number of matching reminders, in all pages
+ */
+public record ReminderSearchResult(List<ReminderState> reminders, int totalCount) {
+
+    public ReminderSearchResult {
+        reminders = List.copyOf(reminders);
+    }
+
+}
@@ -1,13 +1,10 @@
 package fr.sdecout.eventsourcing.reminder.domain;
 
-import fr.sdecout.eventsourcing.Event;
 import fr.sdecout.eventsourcing.State;
 import fr.sdecout.eventsourcing.StreamRevision;
 
 import java.time.ZonedDateTime;
 
-import static java.lang.String.format;
-
 public record ReminderState(StreamRevision version, String id,
                             String interventionId,
                             ReminderStatus status,
@@ -20,41 +17,7 @@ public record ReminderState(StreamRevision version, String id,
     }
 
     public <T extends ReminderEvent> ReminderState apply(final T event) {
-        validateVersion(event);
-        final var builder = this.toBuilder()
-                .version(event.version());
-        if (event instanceof ReminderEvent.ReminderMarkedAsDone) {
-            builder.status(ReminderStatus.DONE);
-        } else if (event instanceof ReminderEvent.ReminderScheduled) {
-            builder.id(event.reminderId())
-                    .interventionId(((ReminderEvent.ReminderScheduled) event).interventionId())
-                    .status(ReminderStatus.PENDING)
-                    .type(((ReminderEvent.ReminderScheduled) event).reminderType())
-                    .country(((ReminderEvent.ReminderScheduled) event).country())
-                    .scheduledTime(((ReminderEvent.ReminderScheduled) event).scheduledTime());
-        } else if (event instanceof ReminderEvent.ReminderRescheduled) {
-            builder.scheduledTime(((ReminderEvent.ReminderRescheduled) event).scheduledTime());
-        } else if (event instanceof ReminderEvent.ReminderReopened) {
-            builder.status(ReminderStatus.PENDING);
-        } else if (event instanceof ReminderEvent.ReminderAssigned) {
-            builder.assignee(((ReminderEvent.ReminderAssigned) event).assignee());
-        } else if (event instanceof ReminderEvent.ReminderUnassigned) {
-            builder.assignee(null);
-        } else if (event instanceof ReminderEvent.ReminderTransferred) {
-            builder.country(((ReminderEvent.ReminderTransferred) event).country());
-        } else if (event instanceof ReminderEvent.ReminderCancelled) {
-            builder.status(ReminderStatus.CANCELLED);
-        } else {
-            throw new IllegalArgumentException("Unexpected event type: " + event.getClass().getName());
-        }
-        return builder.build();
-    }
-
-    private void validateVersion(final Event event) {
-        if (!event.version().isNext(this.version())) {
-            throw new IllegalStateException(format("Inconsistent stream revision for stream '%s': %s (expected: %s)",
-                    event.streamId(), event.version(), this.version().next()));
-        }
+        return new ReminderStateAccumulator(this).apply(event).toState();
     }
 
     ReminderStateBuilder toBuilder() {
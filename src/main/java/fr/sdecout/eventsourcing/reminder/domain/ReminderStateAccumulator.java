@@ -0,0 +1,95 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import java.time.ZonedDateTime;
+
+import static java.lang.String.format;
+
+/**
+ * Mutable state into which events are folded one after the other, so that replaying a stream only allocates the
+ * resulting {@link ReminderState}.
+ * How to apply an event is looked up by event class once per class, rather than through a chain of type checks.
+ */
+final class ReminderStateAccumulator {
+
+    private static final ClassValue<EventApplier> APPLIERS = new ClassValue<>() {
+        @Override
+        protected EventApplier computeValue(final Class<?> eventClass) {
+            return applierOf(eventClass);
+        }
+    };
+
+    private StreamRevision version;
+    private String id;
+    private String interventionId;
+    private ReminderState.ReminderStatus status;
+    private ReminderType type;
+    private String assignee;
+    private Country country;
+    private ZonedDateTime scheduledTime;
+
+    ReminderStateAccumulator(final ReminderState initialState) {
+        this.version = initialState.version();
+        this.id = initialState.id();
+        this.interventionId = initialState.interventionId();
+        this.status = initialState.status();
+        this.type = initialState.type();
+        this.assignee = initialState.assignee();
+        this.country = initialState.country();
+        this.scheduledTime = initialState.scheduledTime();
+    }
+
+    ReminderStateAccumulator apply(final ReminderEvent event) {
+        final var eventVersion = event.version();
+        if (eventVersion.value() != version.value() + 1) {
+            throw new IllegalStateException(format("Inconsistent stream revision for stream '%s': %s (expected: %s)",
+                    event.streamId(), eventVersion, version.next()));
+        }
+        APPLIERS.get(event.getClass()).apply(this, event);
+        version = eventVersion;
+        return this;
+    }
+
+    ReminderState toState() {
+        return new ReminderState(version, id, interventionId, status, type, assignee, country, scheduledTime);
+    }
+
+    private static EventApplier applierOf(final Class<?> eventClass) {
+        if (eventClass == ReminderEvent.ReminderMarkedAsDone.class) {
+            return (state, event) -> state.status = ReminderState.ReminderStatus.DONE;
+        } else if (eventClass == ReminderEvent.ReminderScheduled.class) {
+            return (state, event) -> {
+                final var scheduled = (ReminderEvent.ReminderScheduled) event;
+                state.id = scheduled.reminderId();
+                state.interventionId = scheduled.interventionId();
+                state.status = ReminderState.ReminderStatus.PENDING;
+                state.type = scheduled.reminderType();
+                state.country = scheduled.country();
+                state.scheduledTime = scheduled.scheduledTime();
+            };
+        } else if (eventClass == ReminderEvent.ReminderRescheduled.class) {
+            return (state, event) -> state.scheduledTime = ((ReminderEvent.ReminderRescheduled) event).scheduledTime();
+        } else if (eventClass == ReminderEvent.ReminderReopened.class) {
+            return (state, event) -> state.status = ReminderState.ReminderStatus.PENDING;
+        } else if (eventClass == ReminderEvent.ReminderAssigned.class) {
+            return (state, event) -> state.assignee = ((ReminderEvent.ReminderAssigned) event).assignee();
+        } else if (eventClass == ReminderEvent.ReminderUnassigned.class) {
+            return (state, event) -> state.assignee = null;
+        } else if (eventClass == ReminderEvent.ReminderTransferred.class) {
+            return (state, event) -> state.country = ((ReminderEvent.ReminderTransferred) event).country();
+        } else if (eventClass == ReminderEvent.ReminderCancelled.class) {
+            return (state, event) -> state.status = ReminderState.ReminderStatus.CANCELLED;
+        } else {
+            return (state, event) -> {
+                throw new IllegalArgumentException("Unexpected event type: " + event.getClass().getName());
+            };
+        }
+    }
+
+    @FunctionalInterface
+    private interface EventApplier {
+        void apply(ReminderStateAccumulator state, ReminderEvent event);
+    }
+
+}
@@ -0,0 +1,31 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.annotations.HexagonalArchitecture;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+import static fr.sdecout.annotations.HexagonalArchitecture.Port.Type.DRIVEN;
+
+@HexagonalArchitecture.Port(DRIVEN)
+public interface ReminderTimer {
+
+    /**
+     * Arm the timer of a reminder, replacing any timer previously armed for it.
+     */
+    void schedule(String reminderId, ZonedDateTime scheduledTime);
+
+    /**
+     * Arm the timers of many reminders at once, such as when rebuilding timers on startup.
+     */
+    default void scheduleAll(final Collection<DueReminder> reminders) {
+        reminders.forEach(reminder -> schedule(reminder.reminderId(), reminder.scheduledTime().atZone(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Disarm the timer of a reminder, if any.
+     */
+    void cancel(String reminderId);
+
+}
@@ -0,0 +1,70 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Projection arming the timers of pending reminders from committed events, so that timers are rebuilt from the event
+ * log when the projection is registered on startup: timers are only held in memory, and would otherwise be lost with a
+ * restart. Reminders that came due while the application was down are handed over as soon as the timer runs.
+ * <p>
+ * Changes are gathered during every batch, then applied at once at the end of the batch, so that rebuilding arms all
+ * the pending timers of a batch together.
+ */
+public final class ReminderTimerProjection {
+
+    public static final String PROJECTION_NAME = "reminder-timers";
+
+    private final ReminderTimer timer;
+    private final Map<String, Instant> scheduledTimes = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Instant>> changes = new ConcurrentHashMap<>();
+    private final Projection projection = Projection.named(PROJECTION_NAME)
+            .on(ReminderEvent.ReminderScheduled.class, event -> arm(event.reminderId(), event.scheduledTime().toInstant()))
+            .on(ReminderEvent.ReminderRescheduled.class, event -> arm(event.reminderId(), event.scheduledTime().toInstant()))
+            .on(ReminderEvent.ReminderReopened.class, event -> arm(event.reminderId(), scheduledTimes.get(event.reminderId())))
+            .on(ReminderEvent.ReminderCancelled.class, event -> changes.put(event.reminderId(), Optional.empty()))
+            .on(ReminderEvent.ReminderMarkedAsDone.class, event -> changes.put(event.reminderId(), Optional.empty()))
+            .afterBatch(this::applyChanges)
+            .onReset(this::clear)
+            .build();
+
+    public ReminderTimerProjection(final ReminderTimer timer) {
+        this.timer = timer;
+    }
+
+    public Projection projection() {
+        return projection;
+    }
+
+    private void arm(final String reminderId, final Instant scheduledTime) {
+        if (scheduledTime != null) {
+            scheduledTimes.put(reminderId, scheduledTime);
+            changes.put(reminderId, Optional.of(scheduledTime));
+        }
+    }
+
+    private void applyChanges() {
+        final List<DueReminder> pending = new ArrayList<>();
+        for (final var change : changes.entrySet()) {
+            if (change.getValue().isPresent()) {
+                pending.add(new DueReminder(change.getKey(), change.getValue().get()));
+            } else {
+                timer.cancel(change.getKey());
+            }
+        }
+        changes.clear();
+        if (!pending.isEmpty()) {
+            timer.scheduleAll(pending);
+        }
+    }
+
+    private void clear() {
+        scheduledTimes.clear();
+        changes.clear();
+    }
+
+}
@@ -0,0 +1,30 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of the replay of an event stream, from scratch or on top of a snapshot.
+ */
+@Name("fr.sdecout.eventsourcing.reminder.Replay")
+@Label("Reminder Replay")
+@Category({"Event Sourcing", "Reminders"})
+@Description("Events of a reminder folded into its state")
+@StackTrace(false)
+final class ReplayFlightEvent extends Event {
+
+    @Label("Reminder ID")
+    String reminderId;
+
+    @Label("Initial Version")
+    @Description("Version of the state the events were applied on, 0 when replayed from scratch")
+    int initialVersion;
+
+    @Label("Event Count")
+    int eventCount;
+
+}
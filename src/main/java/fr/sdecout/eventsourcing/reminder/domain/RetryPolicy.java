@@ -0,0 +1,41 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bounded retry of commands that conflict with a concurrent update, with exponential backoff and full jitter.
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+
+    private static final RetryPolicy DEFAULT = new RetryPolicy(5, Duration.ofMillis(1), Duration.ofMillis(50));
+    private static final RetryPolicy NO_RETRY = new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+
+    public RetryPolicy {
+        checkArgument(maxAttempts > 0, "Max attempts is expected to be positive - value: %s", maxAttempts);
+        checkArgument(!initialBackoff.isNegative(), "Initial backoff is expected not to be negative - value: %s", initialBackoff);
+        checkArgument(maxBackoff.compareTo(initialBackoff) >= 0, "Max backoff is expected not to be lower than initial backoff - value: %s", maxBackoff);
+    }
+
+    public static RetryPolicy defaultRetryPolicy() {
+        return DEFAULT;
+    }
+
+    public static RetryPolicy noRetry() {
+        return NO_RETRY;
+    }
+
+    /**
+     * @param attempt number of the attempt that just failed, starting from 1
+     */
+    Duration backoffAfter(final int attempt) {
+        final var shift = Math.min(attempt - 1, 62);
+        final var initial = initialBackoff.toNanos();
+        final var max = maxBackoff.toNanos();
+        final var ceiling = initial > (max >> shift) ? max : initial << shift;
+        return ceiling <= 0 ? Duration.ZERO : Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+}
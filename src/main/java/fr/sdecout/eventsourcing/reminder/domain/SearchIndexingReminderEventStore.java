@@ -0,0 +1,68 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Event store keeping a search index up to date with the state of every saved reminder, so that saves are searchable
+ * right away. Only saves made through this store are indexed: reminders saved before startup are indexed by a
+ * {@link ProjectedReminderSearchIndex}, rebuilt from the event log.
+ */
+public final class SearchIndexingReminderEventStore implements ReminderEventStore {
+
+    private final ReminderEventStore delegate;
+    private final ReminderSearchIndex searchIndex;
+
+    public SearchIndexingReminderEventStore(final ReminderEventStore delegate, final ReminderSearchIndex searchIndex) {
+        this.delegate = delegate;
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public Optional<ReminderAggregate> find(final String reminderId) {
+        return delegate.find(reminderId);
+    }
+
+    @Override
+    public List<ReminderAggregate> findByIntervention(final String interventionId) {
+        return delegate.findByIntervention(interventionId);
+    }
+
+    @Override
+    public List<ReminderAggregate> findAll(final Collection<String> reminderIds) {
+        return delegate.findAll(reminderIds);
+    }
+
+    @Override
+    public Optional<StreamRevision> headRevision(final String reminderId) {
+        return delegate.headRevision(reminderId);
+    }
+
+    @Override
+    public void save(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision) {
+        delegate.save(reminderAggregate, expectedRevision);
+        index(reminderAggregate);
+    }
+
+    @Override
+    public Map<String, RuntimeException> saveAll(final List<ReminderSave> saves) {
+        final var failures = delegate.saveAll(saves);
+        for (final ReminderSave save : saves) {
+            if (!failures.containsKey(save.reminderAggregate().state().id())) {
+                index(save.reminderAggregate());
+            }
+        }
+        return failures;
+    }
+
+    private void index(final ReminderAggregate reminderAggregate) {
+        if (!reminderAggregate.pendingEvents().isEmpty()) {
+            searchIndex.index(reminderAggregate.state());
+        }
+    }
+
+}
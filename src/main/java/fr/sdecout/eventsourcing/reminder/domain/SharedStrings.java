@@ -0,0 +1,21 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Canonical instances of the strings that many reminders have in common, such as assignees and intervention IDs.
+ * Instances are weakly referenced, so that values no reminder holds anymore can be garbage collected.
+ */
+public final class SharedStrings {
+
+    private static final Interner<String> INTERNER = Interners.newWeakInterner();
+
+    private SharedStrings() {
+    }
+
+    public static String intern(final String value) {
+        return value == null ? null : INTERNER.intern(value);
+    }
+
+}
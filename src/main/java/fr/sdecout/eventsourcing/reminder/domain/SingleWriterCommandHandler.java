@@ -0,0 +1,92 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.String.format;
+
+/**
+ * Command handler running every command on a reminder in the worker thread that owns its ID.
+ * Reminder IDs are hash-partitioned among workers, so that commands on a same reminder are executed one at a time,
+ * in submission order, without locking, while commands on different reminders run in parallel.
+ * Scheduling creates a new reminder, which nothing else can target yet: it runs in the calling thread.
+ */
+public final class SingleWriterCommandHandler implements AutoCloseable {
+
+    private final CommandHandler delegate;
+    private final ExecutorService[] workers;
+
+    public SingleWriterCommandHandler(final CommandHandler delegate) {
+        this(delegate, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SingleWriterCommandHandler(final CommandHandler delegate, final int workerCount) {
+        checkArgument(workerCount > 0, "Worker count is expected to be positive - value: %s", workerCount);
+        this.delegate = delegate;
+        this.workers = new ExecutorService[workerCount];
+        Arrays.setAll(workers, i -> Executors.newSingleThreadExecutor(runnable -> {
+            final var thread = new Thread(runnable, format("reminder-command-worker-%s", i));
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public ReminderState schedule(final ReminderType reminderType, final String interventionId, final ZonedDateTime scheduledTime) {
+        return delegate.schedule(reminderType, interventionId, scheduledTime);
+    }
+
+    public void reschedule(final String reminderId, final ZonedDateTime scheduledTime) {
+        execute(reminderId, () -> delegate.reschedule(reminderId, scheduledTime));
+    }
+
+    public void reopen(final String reminderId) {
+        execute(reminderId, () -> delegate.reopen(reminderId));
+    }
+
+    public void cancel(final String reminderId) {
+        execute(reminderId, () -> delegate.cancel(reminderId));
+    }
+
+    public void markAsDone(final String reminderId) {
+        execute(reminderId, () -> delegate.markAsDone(reminderId));
+    }
+
+    public void assign(final String reminderId, final String operator) {
+        execute(reminderId, () -> delegate.assign(reminderId, operator));
+    }
+
+    public void unassign(final String reminderId) {
+        execute(reminderId, () -> delegate.unassign(reminderId));
+    }
+
+    public void transfer(final String reminderId, final Country country) {
+        execute(reminderId, () -> delegate.transfer(reminderId, country));
+    }
+
+    @Override
+    public void close() {
+        Arrays.stream(workers).forEach(ExecutorService::shutdown);
+    }
+
+    private void execute(final String reminderId, final Runnable command) {
+        try {
+            CompletableFuture.runAsync(command, workerFor(reminderId)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ExecutorService workerFor(final String reminderId) {
+        final var hash = reminderId.hashCode();
+        return workers[Math.floorMod(hash ^ (hash >>> 16), workers.length)];
+    }
+
+}
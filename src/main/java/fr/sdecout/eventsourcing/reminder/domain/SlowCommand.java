@@ -0,0 +1,32 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Duration;
+
+import static java.lang.String.format;
+
+/**
+ * Command that took longer than the threshold of the slow command log, with the time spent in each of its phases.
+ *
+ * @param failure simple name of the exception the command failed with, if any
+ */
+public record SlowCommand(ReminderMetrics.CommandType commandType, String reminderId, Duration duration, int retries,
+                          int replayedEvents, boolean snapshotHit, Duration load, Duration replay, Duration decide,
+                          Duration save, String failure) {
+
+    static SlowCommand of(final CommandTrace trace, final long durationNanos, final RuntimeException failure) {
+        return new SlowCommand(trace.commandType, trace.reminderId, Duration.ofNanos(durationNanos),
+                Math.max(0, trace.attempts - 1), trace.replayedEvents, trace.snapshotHit,
+                Duration.ofNanos(trace.loadNanos), Duration.ofNanos(trace.replayNanos),
+                Duration.ofNanos(trace.decideNanos), Duration.ofNanos(trace.saveNanos),
+                failure == null ? null : failure.getClass().getSimpleName());
+    }
+
+    @Override
+    public String toString() {
+        return format("Slow command %s on reminder '%s': %s µs (load: %s µs, replay: %s µs for %s events from %s, decide: %s µs, save: %s µs, retries: %s%s)",
+                commandType, reminderId, duration.toNanos() / 1_000, load.toNanos() / 1_000, replay.toNanos() / 1_000,
+                replayedEvents, snapshotHit ? "snapshot" : "scratch", decide.toNanos() / 1_000, save.toNanos() / 1_000,
+                retries, failure == null ? "" : ", failure: " + failure);
+    }
+
+}
@@ -0,0 +1,187 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Log of the commands that took longer than a threshold, with the time spent in each of their phases.
+ * <p>
+ * Slow commands are stored in a bounded ring, overwriting the oldest ones, so that commands never wait for the log:
+ * they claim a sequence with an atomic increment and store the slow command along with its sequence in the matching
+ * slot. Slots only ever move forward: a command never replaces one with a higher sequence, even when recorders race
+ * after the ring wraps. A dedicated thread writes them to the sink in the background. Commands overwritten before
+ * being written are lost, and counted as such.
+ */
+public final class SlowCommandLog implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1_024;
+
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+    private static final System.Logger LOGGER = System.getLogger(SlowCommandLog.class.getName());
+    private static final SlowCommandLog DISABLED = new SlowCommandLog();
+
+    private final long thresholdNanos;
+    private final int mask;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final LongAdder lostCommands = new LongAdder();
+    private final Consumer<SlowCommand> sink;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private SlowCommandLog() {
+        this.thresholdNanos = Long.MAX_VALUE;
+        this.mask = 0;
+        this.slots = null;
+        this.sink = null;
+        this.writer = null;
+    }
+
+    /**
+     * Slow commands are logged as warnings with {@link System.Logger}.
+     */
+    public SlowCommandLog(final Duration threshold) {
+        this(threshold, DEFAULT_CAPACITY, slowCommand -> LOGGER.log(Level.WARNING, slowCommand::toString));
+    }
+
+    /**
+     * @param capacity number of slow commands that may wait to be written, as a power of two
+     * @param sink     where slow commands are written, on a dedicated thread
+     */
+    public SlowCommandLog(final Duration threshold, final int capacity, final Consumer<SlowCommand> sink) {
+        checkArgument(!threshold.isNegative(), "Threshold is expected not to be negative - value: %s", threshold);
+        checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1, "Capacity is expected to be a power of two - value: %s", capacity);
+        this.thresholdNanos = threshold.toNanos();
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sink = sink;
+        this.writer = new Thread(this::write, "reminder-slow-command-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @return log ignoring all commands
+     */
+    public static SlowCommandLog disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * @return slow commands still in the ring, from the oldest to the most recent
+     */
+    public List<SlowCommand> recent() {
+        final List<SlowCommand> recent = new ArrayList<>();
+        if (!isEnabled()) {
+            return recent;
+        }
+        final var claimed = nextSequence.get();
+        for (var sequence = Math.max(0, claimed - slots.length()); sequence < claimed; sequence++) {
+            final var slot = slots.get((int) sequence & mask);
+            if (slot != null && slot.sequence() == sequence) {
+                recent.add(slot.slowCommand());
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * @return number of slow commands overwritten in the ring before being written
+     */
+    public long lostCommands() {
+        return lostCommands.sum();
+    }
+
+    /**
+     * Stop the writer thread, once all the slow commands in the ring are written.
+     */
+    @Override
+    public void close() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void record(final CommandTrace trace, final long durationNanos, final RuntimeException failure) {
+        if (durationNanos < thresholdNanos) {
+            return;
+        }
+        final var sequence = nextSequence.getAndIncrement();
+        final var index = (int) sequence & mask;
+        final var slot = new Slot(sequence, SlowCommand.of(trace, durationNanos, failure));
+        while (true) {
+            final var current = slots.get(index);
+            if (current != null && current.sequence() > sequence) {
+                // Overwritten by a more recent command already: the writer counts this one as lost
+                return;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+        }
+    }
+
+    private void write() {
+        var next = 0L;
+        while (true) {
+            final var claimed = nextSequence.get();
+            if (next >= claimed) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            if (claimed - next > slots.length()) {
+                lostCommands.add(claimed - slots.length() - next);
+                next = claimed - slots.length();
+            }
+            final var slot = slots.get((int) next & mask);
+            if (slot == null || slot.sequence() < next) {
+                // Sequence claimed, but not written yet: skipped if its recorder is still late once closing
+                if (running) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                lostCommands.increment();
+            } else if (slot.sequence() == next) {
+                writeToSink(slot.slowCommand());
+            } else {
+                lostCommands.increment();
+            }
+            next++;
+        }
+    }
+
+    private void writeToSink(final SlowCommand slowCommand) {
+        try {
+            sink.accept(slowCommand);
+        } catch (RuntimeException e) {
+            // The slow command is lost, while the following ones still get written
+        }
+    }
+
+    private record Slot(long sequence, SlowCommand slowCommand) {
+    }
+
+}
@@ -0,0 +1,94 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decides when the state of a reminder is worth persisting as a snapshot, so that rehydration only has to replay
+ * the events appended since then. The interval (number of events between 2 snapshots) can depend on reminder type.
+ * <p>
+ * With a replay budget, hot streams are snapshotted more often: stores report every save to the policy, which records
+ * it in a {@link HotStreamDetector}, and the policy estimates the cost of replaying a stream as the number of events since its last snapshot
+ * times the number of recent updates of the reminder, each of which rehydrated it. A stream is snapshotted as soon as
+ * this cost reaches the budget, so that the few reminders updated all the time get snapshots, without snapshotting
+ * the many reminders with a handful of events.
+ */
+public final class SnapshotPolicy {
+
+    public static final int DEFAULT_INTERVAL = 100;
+
+    public static final long DEFAULT_REPLAY_BUDGET = 1_000;
+
+    private static final SnapshotPolicy DISABLED = new SnapshotPolicy(Integer.MAX_VALUE, new EnumMap<>(ReminderType.class), null, Long.MAX_VALUE);
+
+    private final int defaultInterval;
+    private final Map<ReminderType, Integer> intervals;
+    private final HotStreamDetector hotStreams;
+    private final long replayBudget;
+
+    private SnapshotPolicy(final int defaultInterval, final Map<ReminderType, Integer> intervals,
+                           final HotStreamDetector hotStreams, final long replayBudget) {
+        this.defaultInterval = defaultInterval;
+        this.intervals = intervals;
+        this.hotStreams = hotStreams;
+        this.replayBudget = replayBudget;
+    }
+
+    public static SnapshotPolicy disabled() {
+        return DISABLED;
+    }
+
+    public static SnapshotPolicy every(final int interval) {
+        checkInterval(interval);
+        return new SnapshotPolicy(interval, new EnumMap<>(ReminderType.class), null, Long.MAX_VALUE);
+    }
+
+    public SnapshotPolicy withInterval(final ReminderType type, final int interval) {
+        checkInterval(interval);
+        final var updatedIntervals = new EnumMap<>(this.intervals);
+        updatedIntervals.put(type, interval);
+        return new SnapshotPolicy(defaultInterval, updatedIntervals, hotStreams, replayBudget);
+    }
+
+    /**
+     * @param hotStreams   detector fed with every save reported to the policy
+     * @param replayBudget events since the last snapshot times recent updates, beyond which a stream is snapshotted
+     */
+    public SnapshotPolicy withReplayBudget(final HotStreamDetector hotStreams, final long replayBudget) {
+        checkArgument(replayBudget > 0, "Replay budget is expected to be positive - value: %s", replayBudget);
+        return new SnapshotPolicy(defaultInterval, intervals, requireNonNull(hotStreams), replayBudget);
+    }
+
+    public int intervalFor(final ReminderType type) {
+        return type == null ? defaultInterval : intervals.getOrDefault(type, defaultInterval);
+    }
+
+    /**
+     * Report that a reminder was saved, resulting in given state.
+     */
+    public void recordSave(final ReminderState state) {
+        if (hotStreams != null) {
+            hotStreams.recordUpdate(state.id(), state.version().value());
+        }
+    }
+
+    public boolean shouldSnapshot(final ReminderState state, final StreamRevision lastSnapshotVersion) {
+        final var eventsSinceSnapshot = state.version().value() - lastSnapshotVersion.value();
+        if (hotStreams == null) {
+            return eventsSinceSnapshot >= intervalFor(state.type());
+        }
+        final var recentUpdates = hotStreams.recentUpdates(state.id());
+        return eventsSinceSnapshot >= intervalFor(state.type())
+                || (long) eventsSinceSnapshot * recentUpdates >= replayBudget;
+    }
+
+    private static void checkInterval(final int interval) {
+        checkArgument(interval > 0, "Snapshot interval is expected to be positive - value: %s", interval);
+    }
+
+}
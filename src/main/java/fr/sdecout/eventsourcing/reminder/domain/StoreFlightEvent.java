@@ -0,0 +1,38 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of an event store operation.
+ */
+@Name("fr.sdecout.eventsourcing.reminder.StoreOperation")
+@Label("Reminder Store Operation")
+@Category({"Event Sourcing", "Reminders"})
+@Description("Operation of the event store, from its caller point of view")
+@StackTrace(false)
+final class StoreFlightEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Reminder ID")
+    @Description("Reminder the operation is about, if only one")
+    String reminderId;
+
+    @Label("Reminder Count")
+    @Description("Number of reminders loaded or saved")
+    int reminderCount;
+
+    @Label("Event Count")
+    @Description("Number of events appended")
+    int eventCount;
+
+    @Label("Failure")
+    String failure;
+
+}
@@ -0,0 +1,32 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import static java.lang.String.format;
+
+public final class StreamRevisionConflictException extends RuntimeException {
+
+    private final String streamId;
+    private final StreamRevision expectedRevision;
+    private final StreamRevision actualRevision;
+
+    public StreamRevisionConflictException(final String streamId, final StreamRevision expectedRevision, final StreamRevision actualRevision) {
+        super(format("Conflicting update of stream '%s': expected revision %s, found %s", streamId, expectedRevision, actualRevision));
+        this.streamId = streamId;
+        this.expectedRevision = expectedRevision;
+        this.actualRevision = actualRevision;
+    }
+
+    public String streamId() {
+        return streamId;
+    }
+
+    public StreamRevision expectedRevision() {
+        return expectedRevision;
+    }
+
+    public StreamRevision actualRevision() {
+        return actualRevision;
+    }
+
+}
@@ -0,0 +1,76 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Event store keeping reminder timers in line with saved events: scheduling, rescheduling and reopening a reminder
+ * arm its timer, while cancelling it or marking it as done disarm it. Timers of reminders saved before startup are
+ * armed again by a {@link ReminderTimerProjection}, rebuilt from the event log.
+ */
+public final class TimerArmingReminderEventStore implements ReminderEventStore {
+
+    private final ReminderEventStore delegate;
+    private final ReminderTimer timer;
+
+    public TimerArmingReminderEventStore(final ReminderEventStore delegate, final ReminderTimer timer) {
+        this.delegate = delegate;
+        this.timer = timer;
+    }
+
+    @Override
+    public Optional<ReminderAggregate> find(final String reminderId) {
+        return delegate.find(reminderId);
+    }
+
+    @Override
+    public List<ReminderAggregate> findByIntervention(final String interventionId) {
+        return delegate.findByIntervention(interventionId);
+    }
+
+    @Override
+    public List<ReminderAggregate> findAll(final Collection<String> reminderIds) {
+        return delegate.findAll(reminderIds);
+    }
+
+    @Override
+    public Optional<StreamRevision> headRevision(final String reminderId) {
+        return delegate.headRevision(reminderId);
+    }
+
+    @Override
+    public void save(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision) {
+        delegate.save(reminderAggregate, expectedRevision);
+        armTimers(reminderAggregate);
+    }
+
+    @Override
+    public Map<String, RuntimeException> saveAll(final List<ReminderSave> saves) {
+        final var failures = delegate.saveAll(saves);
+        for (final ReminderSave save : saves) {
+            if (!failures.containsKey(save.reminderAggregate().state().id())) {
+                armTimers(save.reminderAggregate());
+            }
+        }
+        return failures;
+    }
+
+    private void armTimers(final ReminderAggregate reminderAggregate) {
+        for (final Object event : reminderAggregate.pendingEvents()) {
+            if (event instanceof ReminderEvent.ReminderScheduled scheduled) {
+                timer.schedule(scheduled.reminderId(), scheduled.scheduledTime());
+            } else if (event instanceof ReminderEvent.ReminderRescheduled rescheduled) {
+                timer.schedule(rescheduled.reminderId(), rescheduled.scheduledTime());
+            } else if (event instanceof ReminderEvent.ReminderReopened reopened) {
+                timer.schedule(reopened.reminderId(), reminderAggregate.state().scheduledTime());
+            } else if (event instanceof ReminderEvent.ReminderCancelled || event instanceof ReminderEvent.ReminderMarkedAsDone) {
+                timer.cancel(((ReminderEvent) event).reminderId());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bounded cache evicting entries according to how often their key was accessed lately (W-TinyLFU).
+ * <p>
+ * New entries enter a small LRU window. When evicted from the window, an entry is only admitted into the main area
+ * if its key was accessed more often than the key the main area would evict instead, so that a scan of keys used
+ * once cannot flush the keys used all the time. Access frequencies are estimated by a count-min sketch of 4-bit
+ * counters, all halved every {@code 10 * maximumSize} accesses so that estimates follow changing workloads.
+ * The main area is segmented: entries accessed again while on probation are promoted to the protected segment.
+ */
+final class TinyLfuCache<K, V> {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, V> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final long[] sketch;
+    private final int sampleSize;
+    private int additions;
+
+    TinyLfuCache(final int maximumSize) {
+        checkArgument(maximumSize > 0, "Maximum size is expected to be positive - value: %s", maximumSize);
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = maximumSize - windowCapacity;
+        this.protectedCapacity = mainCapacity * 4 / 5;
+        this.sketch = new long[Math.max(8, Integer.highestOneBit(Math.max(1, maximumSize - 1)) << 1)];
+        this.sampleSize = 10 * maximumSize;
+    }
+
+    V get(final K key) {
+        lock.lock();
+        try {
+            recordAccess(key);
+            final var inWindow = window.get(key);
+            if (inWindow != null) {
+                return inWindow;
+            }
+            final var inProtectedArea = protectedArea.get(key);
+            if (inProtectedArea != null) {
+                return inProtectedArea;
+            }
+            final var onProbation = probation.remove(key);
+            if (onProbation != null) {
+                promote(key, onProbation);
+            }
+            return onProbation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(final K key, final V value) {
+        lock.lock();
+        try {
+            recordAccess(key);
+            if (window.containsKey(key)) {
+                window.put(key, value);
+            } else if (protectedArea.containsKey(key)) {
+                protectedArea.put(key, value);
+            } else if (probation.remove(key) != null) {
+                promote(key, value);
+            } else {
+                window.put(key, value);
+                if (window.size() > windowCapacity) {
+                    admitEldestOfWindow();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidate(final K key) {
+        lock.lock();
+        try {
+            if (window.remove(key) == null && probation.remove(key) == null) {
+                protectedArea.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return window.size() + probation.size() + protectedArea.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void promote(final K key, final V value) {
+        protectedArea.put(key, value);
+        if (protectedArea.size() > protectedCapacity) {
+            final var demoted = removeEldest(protectedArea);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private void admitEldestOfWindow() {
+        final var candidate = removeEldest(window);
+        if (probation.size() + protectedArea.size() < mainCapacity) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        final var victims = probation.isEmpty() ? protectedArea : probation;
+        if (victims.isEmpty()) {
+            return;
+        }
+        final var victim = victims.keySet().iterator().next();
+        if (frequency(candidate.getKey()) > frequency(victim)) {
+            victims.remove(victim);
+            probation.put(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(final Map<K, V> area) {
+        final Iterator<Map.Entry<K, V>> iterator = area.entrySet().iterator();
+        final var next = iterator.next();
+        final var eldest = Map.entry(next.getKey(), next.getValue());
+        iterator.remove();
+        return eldest;
+    }
+
+    private void recordAccess(final K key) {
+        final var hash = spread(key.hashCode());
+        final var start = (hash & 3) << 2;
+        var incremented = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final var index = indexOf(hash, i);
+            final var offset = (start + i) << 2;
+            final var mask = 0xfL << offset;
+            if ((sketch[index] & mask) != mask) {
+                sketch[index] += 1L << offset;
+                incremented = true;
+            }
+        }
+        if (incremented && ++additions == sampleSize) {
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] = (sketch[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+    }
+
+    private int frequency(final K key) {
+        final var hash = spread(key.hashCode());
+        final var start = (hash & 3) << 2;
+        var frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final var count = (int) ((sketch[indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    private int indexOf(final int hash, final int i) {
+        var h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & (sketch.length - 1);
+    }
+
+    private static int spread(final int hash) {
+        final var h = hash * 0x31848bab;
+        return h ^ (h >>> 14);
+    }
+
+}
@@ -0,0 +1,85 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 128-bit identifier whose 48 most significant bits are a timestamp in milliseconds, so that identifiers sort in the
+ * order they were generated in. Its string form is the 26 characters long Crockford's base 32 encoding, which sorts
+ * the same way.
+ * <p>
+ * Only the canonical string form, in upper case, is parsed, so that every identifier has a single string form.
+ */
+public record Ulid(long mostSignificantBits, long leastSignificantBits) implements Comparable<Ulid> {
+
+    public static final int LENGTH = 26;
+    public static final long MAX_TIMESTAMP = (1L << 48) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int digit = 0; digit < ALPHABET.length; digit++) {
+            DIGITS[ALPHABET[digit]] = (byte) digit;
+        }
+    }
+
+    public static Optional<Ulid> parse(final String value) {
+        return isUlid(value) ? Optional.of(decode(value)) : Optional.empty();
+    }
+
+    public static boolean isUlid(final String value) {
+        if (value == null || value.length() != LENGTH || value.charAt(0) > '7') {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            final var c = value.charAt(i);
+            if (c >= DIGITS.length || DIGITS[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Ulid decode(final String value) {
+        // 26 digits of 5 bits: the first one holds the 3 most significant bits only
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            final long digit = DIGITS[value.charAt(i)];
+            high = high << 5 | low >>> 59;
+            low = low << 5 | digit;
+        }
+        return new Ulid(high, low);
+    }
+
+    public long timestamp() {
+        return mostSignificantBits >>> 16;
+    }
+
+    public Instant instant() {
+        return Instant.ofEpochMilli(timestamp());
+    }
+
+    @Override
+    public int compareTo(final Ulid other) {
+        final var comparison = Long.compareUnsigned(mostSignificantBits, other.mostSignificantBits);
+        return comparison != 0 ? comparison : Long.compareUnsigned(leastSignificantBits, other.leastSignificantBits);
+    }
+
+    @Override
+    public String toString() {
+        final var chars = new char[LENGTH];
+        long high = mostSignificantBits;
+        long low = leastSignificantBits;
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (low & 0x1F)];
+            low = low >>> 5 | high << 59;
+            high = high >>> 5;
+        }
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,235 @@
+package fr.sdecout.eventsourcing.reminder.infra.bus;
+
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventPublisher;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * In-process event bus handing committed events over to subscribers through a preallocated ring buffer.
+ * <p>
+ * Publishers claim a slot with a compare-and-set on the cursor, and store a reference to the event in it, so that
+ * publication does not allocate. Every subscriber runs on its own thread and consumes all the events available at once
+ * before moving its sequence forward: a subscriber lagging behind catches up in larger batches. A slot is only reused
+ * once all the subscribers have consumed it. When the ring is full, the backpressure policy tells whether the event is
+ * dropped, so that slow subscribers never hold writers back, or whether the publisher waits for the slowest subscriber.
+ * Idle threads spin for a while before yielding and then parking, which keeps handoff fast under load without burning
+ * a core when there is nothing to do.
+ */
+public final class RingBufferReminderEventBus implements ReminderEventPublisher, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final int SPIN_TRIES = 1_000;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    public enum Backpressure {
+        /**
+         * Events published while the ring is full are dropped for all the subscribers, and publishers never wait.
+         */
+        DROP,
+        /**
+         * Publishers wait for the slowest subscriber to free a slot, and no event is lost.
+         */
+        BLOCK
+    }
+
+    private final int mask;
+    private final ReminderEvent[] entries;
+    private final long[] positions;
+    private final AtomicLongArray published;
+    private final Backpressure backpressure;
+    private final Sequence cursor = new Sequence(-1);
+    private final Sequence gatingSequenceCache = new Sequence(-1);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    public RingBufferReminderEventBus() {
+        this(DEFAULT_CAPACITY, Backpressure.DROP);
+    }
+
+    /**
+     * @param capacity number of events that may be published ahead of the slowest subscriber, as a power of two
+     */
+    public RingBufferReminderEventBus(final int capacity, final Backpressure backpressure) {
+        checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1, "Capacity is expected to be a power of two - value: %s", capacity);
+        this.mask = capacity - 1;
+        this.entries = new ReminderEvent[capacity];
+        this.positions = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int index = 0; index < capacity; index++) {
+            published.set(index, -1);
+        }
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * Subscribers receive the events published after they subscribe, on a dedicated thread.
+     */
+    public Subscription subscribe(final String name, final ReminderEventSubscriber subscriber) {
+        final var subscription = new Subscription(name, subscriber, cursor.get());
+        subscriptions.add(subscription);
+        subscription.sequence.set(cursor.get());
+        subscription.thread.start();
+        return subscription;
+    }
+
+    @Override
+    public void publish(final ReminderEvent event, final long position) {
+        final var sequence = claim();
+        if (sequence < 0) {
+            droppedEvents.increment();
+            return;
+        }
+        final var index = (int) sequence & mask;
+        entries[index] = event;
+        positions[index] = position;
+        published.lazySet(index, sequence);
+    }
+
+    /**
+     * @return number of events that were not published, because the ring was full
+     */
+    public long droppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    public void close() {
+        subscriptions.forEach(Subscription::close);
+    }
+
+    private long claim() {
+        var idleCount = 0;
+        while (true) {
+            final var current = cursor.get();
+            final var next = current + 1;
+            final var wrapPoint = next - entries.length;
+            if (wrapPoint > gatingSequenceCache.get()) {
+                final var gatingSequence = minimumSequence(current);
+                gatingSequenceCache.set(gatingSequence);
+                if (wrapPoint > gatingSequence) {
+                    if (backpressure == Backpressure.DROP) {
+                        return -1;
+                    }
+                    idleCount = idle(idleCount);
+                    continue;
+                }
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minimumSequence(final long defaultValue) {
+        var minimum = defaultValue;
+        for (final Subscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.sequence.get());
+        }
+        return minimum;
+    }
+
+    private long highestPublished(final long from) {
+        final var claimed = cursor.get();
+        var sequence = from;
+        while (sequence <= claimed && published.get((int) sequence & mask) == sequence) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    private static int idle(final int idleCount) {
+        if (idleCount < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idleCount + 1;
+    }
+
+    /**
+     * Subscriber consuming events on its own thread, until the subscription is closed.
+     * Failures of the subscriber are counted, and do not prevent the following events from being delivered.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final ReminderEventSubscriber subscriber;
+        private final Sequence sequence;
+        private final Thread thread;
+        private final LongAdder failedEvents = new LongAdder();
+        private volatile boolean running = true;
+
+        private Subscription(final String name, final ReminderEventSubscriber subscriber, final long initialSequence) {
+            this.subscriber = subscriber;
+            this.sequence = new Sequence(initialSequence);
+            this.thread = new Thread(this::consume, "reminder-event-bus-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * @return sequence of the last event consumed, among all the events published on the bus
+         */
+        public long sequence() {
+            return sequence.get();
+        }
+
+        public long failedEvents() {
+            return failedEvents.sum();
+        }
+
+        /**
+         * Stop consuming events, once the batch being consumed is complete.
+         */
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void consume() {
+            var next = sequence.get() + 1;
+            var idleCount = 0;
+            while (running) {
+                final var available = highestPublished(next);
+                if (available < next) {
+                    idleCount = idle(idleCount);
+                    continue;
+                }
+                idleCount = 0;
+                for (var current = next; current <= available; current++) {
+                    final var index = (int) current & mask;
+                    deliver(entries[index], positions[index], current == available);
+                }
+                sequence.set(available);
+                next = available + 1;
+            }
+        }
+
+        private void deliver(final ReminderEvent event, final long position, final boolean endOfBatch) {
+            try {
+                subscriber.onEvent(event, position, endOfBatch);
+            } catch (RuntimeException e) {
+                failedEvents.increment();
+            }
+        }
+
+    }
+
+}
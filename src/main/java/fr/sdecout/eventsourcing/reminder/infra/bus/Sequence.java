@@ -0,0 +1,52 @@
+package fr.sdecout.eventsourcing.reminder.infra.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Sequence padded on both sides, so that sequences updated by different threads never share a cache line.
+ * Padding relies on fields of a superclass being laid out before the fields of its subclasses.
+ */
+final class Sequence extends SequenceValue {
+
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    Sequence(final long initialValue) {
+        set(initialValue);
+    }
+
+}
+
+@SuppressWarnings("unused")
+abstract class SequenceLeftPadding {
+    private long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLeftPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long value;
+
+    long get() {
+        return value;
+    }
+
+    void set(final long newValue) {
+        value = newValue;
+    }
+
+    boolean compareAndSet(final long expectedValue, final long newValue) {
+        return VALUE.compareAndSet(this, expectedValue, newValue);
+    }
+
+}
@@ -0,0 +1,52 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import java.util.Arrays;
+
+/**
+ * Position in the event log of the first event of every events frame, in log order, so that events can be read from
+ * any position on. Entries are only added by the writer, while readers never lock: arrays, size and head are updated in
+ * that order, and read in the reverse order, so that readers never see a position that is not indexed yet.
+ */
+final class EventPositionIndex {
+
+    private volatile long[] firstPositions = new long[1024];
+    private volatile long[] framePositions = new long[1024];
+    private volatile int size;
+    private volatile long head;
+
+    /**
+     * @return position in the event log of the last event indexed, or 0 if none
+     */
+    long head() {
+        return head;
+    }
+
+    void add(final long framePosition, final int eventCount) {
+        if (size == firstPositions.length) {
+            firstPositions = Arrays.copyOf(firstPositions, size * 2);
+            framePositions = Arrays.copyOf(framePositions, size * 2);
+        }
+        firstPositions[size] = head + 1;
+        framePositions[size] = framePosition;
+        size = size + 1;
+        head = head + eventCount;
+    }
+
+    /**
+     * @return index of the frame holding the event at given position, which is expected to be indexed
+     */
+    int frameOf(final long position) {
+        final var currentSize = size;
+        final var index = Arrays.binarySearch(firstPositions, 0, currentSize, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    long firstPosition(final int frame) {
+        return firstPositions[frame];
+    }
+
+    long framePosition(final int frame) {
+        return framePositions[frame];
+    }
+
+}
@@ -0,0 +1,57 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import fr.sdecout.eventsourcing.reminder.domain.CheckpointStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Checkpoints kept in one file per subscription, holding the position of the checkpoint (8 bytes).
+ * A checkpoint is written to a temporary file, forced to disk, then moved over the previous one, so that a crash never
+ * leaves a torn checkpoint behind. This is costly enough for subscriptions to save checkpoints in batches.
+ */
+public final class FileCheckpointStore implements CheckpointStore {
+
+    private static final String EXTENSION = ".checkpoint";
+
+    private final Path directory;
+
+    public FileCheckpointStore(final Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long load(final String subscriptionName) {
+        final var file = directory.resolve(subscriptionName + EXTENSION);
+        try {
+            return Files.exists(file) ? ByteBuffer.wrap(Files.readAllBytes(file)).getLong() : 0L;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void save(final String subscriptionName, final long position) {
+        final var file = directory.resolve(subscriptionName + EXTENSION);
+        final var temporaryFile = directory.resolve(subscriptionName + EXTENSION + ".tmp");
+        try {
+            Files.write(temporaryFile, ByteBuffer.allocate(Long.BYTES).putLong(position).array(), CREATE, TRUNCATE_EXISTING, WRITE, SYNC);
+            Files.move(temporaryFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Makes appended frames durable in batches rather than one at a time.
+ * Each append is given a sequence number. A writer waiting for its sequence to be durable either finds it already
+ * covered by a flush made on behalf of another writer, or becomes the leader of the next flush, which covers everything
+ * appended so far. While a flush is in progress, concurrent writers keep appending and queue up for the next one,
+ * so that the batch size naturally grows with the load.
+ * When the previous batch showed concurrency, the leader may also linger a little before flushing, up to the duration of
+ * the previous flush and no longer than the configured maximum, to let the batch fill up to its maximum size.
+ */
+final class GroupCommit {
+
+    static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    static final Duration DEFAULT_MAX_LINGER = Duration.ofMillis(1);
+
+    private static final long LINGER_STEP_NANOS = 20_000;
+
+    private final Flusher flusher;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final AtomicLong appendedSequence = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile long durableSequence;
+    private long lastBatchSize;
+    private long lastFlushNanos;
+
+    GroupCommit(final Flusher flusher, final int maxBatchSize, final Duration maxLinger) {
+        checkArgument(maxBatchSize > 0, "Max batch size is expected to be positive - value: %s", maxBatchSize);
+        checkArgument(!maxLinger.isNegative(), "Max linger is expected not to be negative - value: %s", maxLinger);
+        this.flusher = flusher;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+    }
+
+    /**
+     * To be called once the frame is appended, in append order.
+     *
+     * @return sequence number of the append
+     */
+    long appended() {
+        return appendedSequence.incrementAndGet();
+    }
+
+    long lastAppended() {
+        return appendedSequence.get();
+    }
+
+    /**
+     * Block until the append with given sequence number, and all the ones before it, are durable.
+     */
+    void awaitDurable(final long sequence) {
+        while (durableSequence < sequence) {
+            flushLock.lock();
+            try {
+                if (durableSequence < sequence) {
+                    linger();
+                    final var flushStart = System.nanoTime();
+                    final var flushedSequence = flusher.flush();
+                    lastFlushNanos = System.nanoTime() - flushStart;
+                    lastBatchSize = flushedSequence - durableSequence;
+                    durableSequence = flushedSequence;
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void linger() {
+        if (lastBatchSize <= 1) {
+            return;
+        }
+        final var deadline = System.nanoTime() + Math.min(maxLingerNanos, lastFlushNanos);
+        while (appendedSequence.get() - durableSequence < maxBatchSize && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(LINGER_STEP_NANOS);
+        }
+    }
+
+    @FunctionalInterface
+    interface Flusher {
+
+        /**
+         * Force everything appended so far to disk.
+         *
+         * @return sequence number of the last append made durable
+         */
+        long flush();
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Fixed-size memory-mapped file holding a sequence of frames.
+ * A frame consists in its length (4 bytes) followed by its payload. The length is written last, so that a frame
+ * is only visible once complete. A zero length marks the end of the data written so far.
+ */
+final class LogSegment implements AutoCloseable {
+
+    static final int FRAME_HEADER_SIZE = Integer.BYTES;
+
+    private final int index;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private LogSegment(final int index, final FileChannel channel, final MappedByteBuffer buffer) {
+        this.index = index;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static LogSegment open(final Path directory, final int index, final int size) {
+        try {
+            final var channel = FileChannel.open(directory.resolve(fileName(index)), CREATE, READ, WRITE);
+            return new LogSegment(index, channel, channel.map(READ_WRITE, 0, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String fileName(final int index) {
+        return format("%010d.segment", index);
+    }
+
+    int index() {
+        return index;
+    }
+
+    /**
+     * Visit all complete frames, and move the write position right after the last one.
+     */
+    void recover(final FrameVisitor visitor) {
+        var position = 0;
+        while (position + FRAME_HEADER_SIZE <= buffer.capacity()) {
+            final var length = buffer.getInt(position);
+            if (length <= 0) {
+                break;
+            }
+            visitor.visit(position, buffer.slice(position + FRAME_HEADER_SIZE, length));
+            position += FRAME_HEADER_SIZE + length;
+        }
+        this.writePosition = position;
+    }
+
+    /**
+     * The bytes of a payload that does not fit are cleared, so that the zero length marking the end of the data is kept.
+     *
+     * @return offset of the frame, or -1 if it does not fit in the remaining space
+     */
+    int append(final Consumer<ByteBuffer> payloadWriter) {
+        final var payloadStart = writePosition + FRAME_HEADER_SIZE;
+        if (payloadStart >= buffer.capacity()) {
+            return -1;
+        }
+        final var payload = buffer.slice(payloadStart, buffer.capacity() - payloadStart);
+        try {
+            payloadWriter.accept(payload);
+        } catch (BufferOverflowException e) {
+            clear(payloadStart, payload.position());
+            return -1;
+        }
+        final var offset = writePosition;
+        buffer.putInt(offset, payload.position());
+        writePosition = payloadStart + payload.position();
+        return offset;
+    }
+
+    private void clear(final int from, final int length) {
+        for (int i = 0; i < length; i++) {
+            buffer.put(from + i, (byte) 0);
+        }
+    }
+
+    /**
+     * Force the data written between given offsets to disk. Other threads may keep appending beyond the end offset.
+     */
+    void force(final int fromOffset, final int toOffset) {
+        if (toOffset > fromOffset) {
+            buffer.force(fromOffset, toOffset - fromOffset);
+        }
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    boolean isEmpty() {
+        return writePosition == 0;
+    }
+
+    /**
+     * @return read-only view of the payload of the frame at given offset, backed by the mapped file
+     */
+    ByteBuffer read(final int offset) {
+        return buffer.slice(offset + FRAME_HEADER_SIZE, buffer.getInt(offset)).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface FrameVisitor {
+        void visit(int offset, ByteBuffer payload);
+    }
+
+}
@@ -0,0 +1,572 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.ParallelReplay;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderAggregate;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventLog;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventPublisher;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventStore;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventSubscriber;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventStream;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderSave;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderState;
+import fr.sdecout.eventsourcing.reminder.domain.SnapshotPolicy;
+import fr.sdecout.eventsourcing.reminder.domain.StreamRevisionConflictException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Event store backed by an append-only log of fixed-size memory-mapped segment files.
+ * Each save is written as one frame, holding all the pending events of the aggregate, and is forced to disk
+ * before returning. When the snapshot policy requires it, the resulting state is written as an additional frame.
+ * Concurrent saves share the cost of forcing the log to disk through group commit: appends are serialized, but saves
+ * wait for durability outside of the write lock, and one flush covers all the frames appended in the meantime.
+ * A frame may therefore be visible to reads by reminder a little before it is durable, but a save only returns once it is.
+ * Saving several aggregates at once appends all their frames in one go, and waits for a single flush.
+ * Events are given consecutive positions in the order of the log. They can be read sequentially from any position on,
+ * and are published in that order, but only up to the durable head of the log: events are published by the flush that
+ * made them durable, so that subscribers never checkpoint a position that could be given to another event after a crash.
+ * Reads decode the latest snapshot and the events that follow it straight from the mapped segments. Bulk reads decode
+ * the frames of all the requested streams in log order, then replay the streams in parallel.
+ * Reminder IDs are indexed by intervention when their stream is created. Indexes are only held in memory: recovery
+ * scans the whole log to rebuild them, decoding the first event of every events frame, which holds the intervention
+ * of new streams, and the state of every snapshot frame.
+ * In memory, streams are keyed by reminder ID in a compact form when the ID is a ULID.
+ */
+public final class MappedFileReminderEventStore implements ReminderEventStore, ReminderEventLog, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final byte EVENTS_FRAME = 1;
+    private static final byte SNAPSHOT_FRAME = 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Clock clock;
+    private final SnapshotPolicy snapshotPolicy;
+    private final ParallelReplay parallelReplay;
+    private final ReminderEventPublisher publisher;
+    private final SegmentSync segmentSync;
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    private final Map<StreamKey, StreamIndex> streams = new ConcurrentHashMap<>();
+    private final EventPositionIndex eventPositions = new EventPositionIndex();
+    private final Map<String, Set<StreamKey>> reminderIdsByIntervention = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Publication> pendingPublications = new ArrayList<>();
+    private final GroupCommit groupCommit;
+    private int forcedSegment;
+    private int forcedOffset;
+    private volatile long durablePosition;
+
+    public MappedFileReminderEventStore(final Path directory, final Clock clock) {
+        this(directory, DEFAULT_SEGMENT_SIZE, clock, SnapshotPolicy.every(SnapshotPolicy.DEFAULT_INTERVAL));
+    }
+
+    public MappedFileReminderEventStore(final Path directory, final int segmentSize, final Clock clock, final SnapshotPolicy snapshotPolicy) {
+        this(directory, segmentSize, clock, snapshotPolicy, GroupCommit.DEFAULT_MAX_BATCH_SIZE, GroupCommit.DEFAULT_MAX_LINGER);
+    }
+
+    /**
+     * @param maxBatchSize number of saves a flush waits for at most, when lingering
+     * @param maxLinger    duration a flush waits at most for concurrent saves to join it
+     */
+    public MappedFileReminderEventStore(final Path directory, final int segmentSize, final Clock clock, final SnapshotPolicy snapshotPolicy,
+                                        final int maxBatchSize, final Duration maxLinger) {
+        this(directory, segmentSize, clock, snapshotPolicy, maxBatchSize, maxLinger, ParallelReplay.defaultParallelReplay());
+    }
+
+    /**
+     * @param parallelReplay how reminders loaded together are rehydrated, once their frames have been read
+     */
+    public MappedFileReminderEventStore(final Path directory, final int segmentSize, final Clock clock, final SnapshotPolicy snapshotPolicy,
+                                        final int maxBatchSize, final Duration maxLinger, final ParallelReplay parallelReplay) {
+        this(directory, segmentSize, clock, snapshotPolicy, maxBatchSize, maxLinger, parallelReplay, ReminderEventPublisher.noPublication());
+    }
+
+    /**
+     * @param publisher where events are published once durable
+     */
+    public MappedFileReminderEventStore(final Path directory, final int segmentSize, final Clock clock, final SnapshotPolicy snapshotPolicy,
+                                        final int maxBatchSize, final Duration maxLinger, final ParallelReplay parallelReplay,
+                                        final ReminderEventPublisher publisher) {
+        this(directory, segmentSize, clock, snapshotPolicy, maxBatchSize, maxLinger, parallelReplay, publisher, LogSegment::force);
+    }
+
+    MappedFileReminderEventStore(final Path directory, final int segmentSize, final Clock clock, final SnapshotPolicy snapshotPolicy,
+                                 final int maxBatchSize, final Duration maxLinger, final ParallelReplay parallelReplay,
+                                 final ReminderEventPublisher publisher, final SegmentSync segmentSync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.clock = clock;
+        this.snapshotPolicy = snapshotPolicy;
+        this.parallelReplay = parallelReplay;
+        this.publisher = publisher;
+        this.segmentSync = segmentSync;
+        this.groupCommit = new GroupCommit(this::flush, maxBatchSize, maxLinger);
+        createDirectory(directory);
+        recover();
+    }
+
+    @Override
+    public Optional<ReminderAggregate> find(final String reminderId) {
+        return Optional.ofNullable(streams.get(StreamKey.of(reminderId)))
+                .map(this::rehydrate);
+    }
+
+    @Override
+    public List<ReminderAggregate> findByIntervention(final String interventionId) {
+        return findAll(reminderIdsByIntervention.getOrDefault(interventionId, Set.of()).stream()
+                .map(StreamKey::reminderId)
+                .collect(toList()));
+    }
+
+    /**
+     * The frames of all the requested streams are decoded in a single pass, in the order of the log, then streams are
+     * replayed in parallel.
+     */
+    @Override
+    public List<ReminderAggregate> findAll(final Collection<String> reminderIds) {
+        final List<StreamLoad> loads = new ArrayList<>(reminderIds.size());
+        final List<FrameLoad> frames = new ArrayList<>();
+        for (final String reminderId : reminderIds) {
+            final var stream = streams.get(StreamKey.of(reminderId));
+            if (stream != null) {
+                final var load = new StreamLoad(stream.snapshot());
+                loads.add(load);
+                if (load.snapshot == null) {
+                    addFrameLoads(stream.positions(), load, frames);
+                } else {
+                    frames.add(new FrameLoad(load.snapshot.position(), load));
+                    addFrameLoads(stream.positionsFrom(load.snapshot.frameCount()), load, frames);
+                }
+            }
+        }
+        frames.sort(Comparator.comparingLong(FrameLoad::position));
+        for (final FrameLoad frame : frames) {
+            frame.load().read(frame.position(), frame(frame.position()));
+        }
+        return parallelReplay.rehydrateAll(loads, load -> load.rehydrate(clock));
+    }
+
+    @Override
+    public Optional<StreamRevision> headRevision(final String reminderId) {
+        return Optional.ofNullable(streams.get(StreamKey.of(reminderId)))
+                .map(StreamIndex::head);
+    }
+
+    /**
+     * Once its events are appended, a save waits for them to be durable, even when it fails afterwards, for instance
+     * to append a snapshot.
+     */
+    @Override
+    public void save(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision) {
+        final var events = pendingEvents(reminderAggregate);
+        if (events.isEmpty()) {
+            return;
+        }
+        final long sequence;
+        RuntimeException failure = null;
+        writeLock.lock();
+        try {
+            final var headBefore = eventPositions.head();
+            try {
+                append(reminderAggregate, expectedRevision, events);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            sequence = eventPositions.head() > headBefore ? groupCommit.appended() : 0L;
+        } finally {
+            writeLock.unlock();
+        }
+        if (sequence > 0L) {
+            groupCommit.awaitDurable(sequence);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The frames of all the aggregates are appended under one acquisition of the write lock, and made durable by one
+     * flush. Aggregates that fail to be saved, whether rejected on their revision or too large for a segment, are
+     * skipped without preventing the others from being saved. As soon as any frame was appended, the flush is awaited.
+     */
+    @Override
+    public Map<String, RuntimeException> saveAll(final List<ReminderSave> saves) {
+        final Map<String, RuntimeException> failures = new HashMap<>();
+        final long sequence;
+        writeLock.lock();
+        try {
+            final var headBefore = eventPositions.head();
+            for (final ReminderSave save : saves) {
+                final var events = pendingEvents(save.reminderAggregate());
+                if (events.isEmpty()) {
+                    continue;
+                }
+                try {
+                    append(save.reminderAggregate(), save.expectedRevision(), events);
+                } catch (RuntimeException e) {
+                    failures.put(save.reminderAggregate().state().id(), e);
+                }
+            }
+            sequence = eventPositions.head() > headBefore ? groupCommit.appended() : 0L;
+        } finally {
+            writeLock.unlock();
+        }
+        if (sequence > 0L) {
+            groupCommit.awaitDurable(sequence);
+        }
+        return failures;
+    }
+
+    /**
+     * @return position of the last durable event
+     */
+    @Override
+    public long headPosition() {
+        return durablePosition;
+    }
+
+    /**
+     * Frames are decoded in log order from the one holding the event at given position.
+     */
+    @Override
+    public int read(final long fromPosition, final int maxCount, final ReminderEventSubscriber subscriber) {
+        checkArgument(fromPosition > 0, "Position is expected to be positive - value: %s", fromPosition);
+        final var lastPosition = Math.min(durablePosition, fromPosition + maxCount - 1);
+        if (lastPosition < fromPosition) {
+            return 0;
+        }
+        final var lastFrame = eventPositions.frameOf(lastPosition);
+        for (var frame = eventPositions.frameOf(fromPosition); frame <= lastFrame; frame++) {
+            final var payload = frame(eventPositions.framePosition(frame));
+            payload.get();
+            ReminderEventCodec.readFormatVersion(payload);
+            final var count = ReminderEventCodec.readVarInt(payload);
+            final var firstPosition = eventPositions.firstPosition(frame);
+            for (int i = 0; i < count && firstPosition + i <= lastPosition; i++) {
+                final var event = ReminderEventCodec.read(payload);
+                if (firstPosition + i >= fromPosition) {
+                    subscriber.onEvent(event, firstPosition + i, firstPosition + i == lastPosition);
+                }
+            }
+        }
+        return (int) (lastPosition - fromPosition + 1);
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            segments.forEach(LogSegment::close);
+            segments.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void append(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision, final List<ReminderEvent> events) {
+        final var streamId = events.get(0).streamId();
+        final var streamKey = StreamKey.of(streamId);
+        final var stream = Optional.ofNullable(streams.get(streamKey)).orElseGet(StreamIndex::new);
+        if (!stream.head().equals(expectedRevision)) {
+            throw new StreamRevisionConflictException(streamId, expectedRevision, stream.head());
+        }
+        validateVersions(stream, events);
+        final var eventsPosition = append(streamId, payload -> writeEventsFrame(events, payload));
+        stream.add(eventsPosition, events.get(events.size() - 1).version());
+        final var firstPosition = eventPositions.head() + 1;
+        eventPositions.add(eventsPosition, events.size());
+        if (streams.putIfAbsent(streamKey, stream) == null && events.get(0) instanceof ReminderEvent.ReminderScheduled scheduled) {
+            indexIntervention(scheduled.interventionId(), streamKey);
+        }
+        for (int i = 0; i < events.size(); i++) {
+            pendingPublications.add(new Publication(events.get(i), firstPosition + i));
+        }
+        final var state = reminderAggregate.state();
+        snapshotPolicy.recordSave(state);
+        if (snapshotPolicy.shouldSnapshot(state, stream.lastSnapshotVersion())) {
+            appendSnapshot(streamId, stream, state);
+        }
+    }
+
+    /**
+     * The events frame is indexed before the snapshot frame is appended, so that a snapshot failing to be appended never
+     * leaves events in the log that are not indexed. Snapshots are optional: a snapshot that does not fit in a segment
+     * is skipped, and taken again with a next save. Other failures, such as failing to create a segment, are thrown.
+     */
+    private void appendSnapshot(final String streamId, final StreamIndex stream, final ReminderState state) {
+        final var snapshotPosition = tryAppend(payload -> writeSnapshotFrame(streamId, state, payload));
+        if (snapshotPosition >= 0) {
+            stream.addSnapshot(snapshotPosition, state.version());
+        }
+    }
+
+    /**
+     * Flushes are serialized by group commit, so that events are published in log order once durable.
+     * Pending publications are only discarded once forced: when forcing fails, they are published by the next flush.
+     */
+    private long flush() {
+        final long sequence;
+        final int targetSegment;
+        final int targetOffset;
+        final long targetPosition;
+        final List<Publication> publications;
+        writeLock.lock();
+        try {
+            sequence = groupCommit.lastAppended();
+            targetSegment = segments.size() - 1;
+            targetOffset = currentSegment().writePosition();
+            targetPosition = eventPositions.head();
+            publications = new ArrayList<>(pendingPublications);
+        } finally {
+            writeLock.unlock();
+        }
+        for (int segment = forcedSegment; segment <= targetSegment; segment++) {
+            final var logSegment = segments.get(segment);
+            segmentSync.force(logSegment, segment == forcedSegment ? forcedOffset : 0, segment == targetSegment ? targetOffset : logSegment.writePosition());
+        }
+        forcedSegment = targetSegment;
+        forcedOffset = targetOffset;
+        durablePosition = targetPosition;
+        writeLock.lock();
+        try {
+            pendingPublications.subList(0, publications.size()).clear();
+        } finally {
+            writeLock.unlock();
+        }
+        publications.forEach(publication -> publisher.publish(publication.event(), publication.position()));
+        return sequence;
+    }
+
+    private long append(final String streamId, final Consumer<ByteBuffer> payloadWriter) {
+        final var position = tryAppend(payloadWriter);
+        if (position < 0) {
+            throw new IllegalArgumentException(format("Frame of stream '%s' does not fit in a segment of %s bytes", streamId, segmentSize));
+        }
+        return position;
+    }
+
+    /**
+     * @return position of the frame, or -1 if it does not fit in a segment
+     */
+    private long tryAppend(final Consumer<ByteBuffer> payloadWriter) {
+        var segment = currentSegment();
+        var offset = segment.append(payloadWriter);
+        if (offset < 0) {
+            segment = rollSegment();
+            offset = segment.append(payloadWriter);
+            if (offset < 0) {
+                return -1;
+            }
+        }
+        return StreamIndex.position(segment.index(), offset);
+    }
+
+    private ReminderAggregate rehydrate(final StreamIndex stream) {
+        final var snapshot = stream.snapshot();
+        if (snapshot == null) {
+            return new ReminderAggregate(new ReminderEventStream(readEvents(stream.positions())), clock);
+        }
+        final var state = readSnapshotFrame(frame(snapshot.position()));
+        return new ReminderAggregate(state, new ReminderEventStream(readEvents(stream.positionsFrom(snapshot.frameCount()))), clock);
+    }
+
+    private static void addFrameLoads(final long[] positions, final StreamLoad load, final List<FrameLoad> frames) {
+        for (final long position : positions) {
+            frames.add(new FrameLoad(position, load));
+        }
+    }
+
+    private void indexIntervention(final String interventionId, final StreamKey streamKey) {
+        reminderIdsByIntervention.computeIfAbsent(interventionId, id -> ConcurrentHashMap.newKeySet()).add(streamKey);
+    }
+
+    private List<ReminderEvent> readEvents(final long[] positions) {
+        final List<ReminderEvent> events = new ArrayList<>();
+        for (final long position : positions) {
+            readEventsFrame(frame(position), events);
+        }
+        return events;
+    }
+
+    private ByteBuffer frame(final long position) {
+        return segments.get(StreamIndex.segment(position)).read(StreamIndex.offset(position));
+    }
+
+    private static List<ReminderEvent> pendingEvents(final ReminderAggregate reminderAggregate) {
+        return reminderAggregate.pendingEvents().stream()
+                .map(ReminderEvent.class::cast)
+                .collect(toList());
+    }
+
+    private static void validateVersions(final StreamIndex stream, final List<ReminderEvent> events) {
+        var expectedVersion = stream.head().next();
+        for (final ReminderEvent event : events) {
+            if (!event.version().equals(expectedVersion)) {
+                throw new IllegalStateException(format("Inconsistent stream revision for stream '%s': %s (expected: %s)",
+                        event.streamId(), event.version(), expectedVersion));
+            }
+            expectedVersion = expectedVersion.next();
+        }
+    }
+
+    private static void writeEventsFrame(final List<ReminderEvent> events, final ByteBuffer payload) {
+        payload.put(EVENTS_FRAME);
+        ReminderEventCodec.writeFormatVersion(payload);
+        ReminderEventCodec.writeVarInt(events.size(), payload);
+        events.forEach(event -> ReminderEventCodec.write(event, payload));
+    }
+
+    private static void readEventsFrame(final ByteBuffer payload, final List<ReminderEvent> events) {
+        payload.get();
+        ReminderEventCodec.readFormatVersion(payload);
+        final var count = ReminderEventCodec.readVarInt(payload);
+        for (int i = 0; i < count; i++) {
+            events.add(ReminderEventCodec.read(payload));
+        }
+    }
+
+    private static void writeSnapshotFrame(final String streamId, final ReminderState state, final ByteBuffer payload) {
+        payload.put(SNAPSHOT_FRAME);
+        ReminderEventCodec.writeFormatVersion(payload);
+        ReminderEventCodec.writeString(streamId, payload);
+        ReminderEventCodec.writeState(state, payload);
+    }
+
+    private static ReminderState readSnapshotFrame(final ByteBuffer payload) {
+        payload.get();
+        ReminderEventCodec.readFormatVersion(payload);
+        ReminderEventCodec.readString(payload);
+        return ReminderEventCodec.readState(payload);
+    }
+
+    private LogSegment currentSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private LogSegment rollSegment() {
+        if (currentSegment().isEmpty()) {
+            return currentSegment();
+        }
+        final var segment = LogSegment.open(directory, segments.size(), segmentSize);
+        segments.add(segment);
+        return segment;
+    }
+
+    private static void createDirectory(final Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover() {
+        var index = 0;
+        do {
+            final var segment = LogSegment.open(directory, index, segmentSize);
+            segment.recover((offset, payload) -> index(segment.index(), offset, payload));
+            segments.add(segment);
+            index++;
+        } while (Files.exists(directory.resolve(LogSegment.fileName(index))));
+        forcedSegment = segments.size() - 1;
+        forcedOffset = currentSegment().writePosition();
+        durablePosition = eventPositions.head();
+    }
+
+    private void index(final int segment, final int offset, final ByteBuffer payload) {
+        final var position = StreamIndex.position(segment, offset);
+        if (payload.get(0) == SNAPSHOT_FRAME) {
+            payload.get();
+            ReminderEventCodec.readFormatVersion(payload);
+            final var streamId = ReminderEventCodec.readString(payload);
+            streams.get(StreamKey.of(streamId)).addSnapshot(position, ReminderEventCodec.readState(payload).version());
+        } else {
+            payload.get();
+            ReminderEventCodec.readFormatVersion(payload);
+            final var count = ReminderEventCodec.readVarInt(payload);
+            final var firstEvent = ReminderEventCodec.read(payload);
+            final var streamKey = StreamKey.of(firstEvent.streamId());
+            var stream = streams.get(streamKey);
+            if (stream == null) {
+                stream = new StreamIndex();
+                streams.put(streamKey, stream);
+                if (firstEvent instanceof ReminderEvent.ReminderScheduled scheduled) {
+                    indexIntervention(scheduled.interventionId(), streamKey);
+                }
+            }
+            stream.add(position, new StreamRevision(firstEvent.version().value() + count - 1));
+            eventPositions.add(position, count);
+        }
+    }
+
+    @FunctionalInterface
+    interface SegmentSync {
+
+        /**
+         * Force the data written to a segment between given offsets to disk.
+         */
+        void force(LogSegment segment, int fromOffset, int toOffset);
+
+    }
+
+    private record FrameLoad(long position, StreamLoad load) {
+    }
+
+    private record Publication(ReminderEvent event, long position) {
+    }
+
+    /**
+     * Frames of one stream read by a bulk load, from its latest snapshot on.
+     */
+    private static final class StreamLoad {
+
+        private final StreamIndex.SnapshotReference snapshot;
+        private final List<ReminderEvent> events = new ArrayList<>();
+        private ReminderState snapshotState;
+
+        private StreamLoad(final StreamIndex.SnapshotReference snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private void read(final long position, final ByteBuffer frame) {
+            if (snapshot != null && position == snapshot.position()) {
+                snapshotState = readSnapshotFrame(frame);
+            } else {
+                readEventsFrame(frame, events);
+            }
+        }
+
+        private ReminderAggregate rehydrate(final Clock clock) {
+            return snapshotState == null
+                    ? new ReminderAggregate(new ReminderEventStream(events), clock)
+                    : new ReminderAggregate(snapshotState, new ReminderEventStream(events), clock);
+        }
+
+    }
+
+}
@@ -0,0 +1,287 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.Country;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderState;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderType;
+import fr.sdecout.eventsourcing.reminder.domain.SharedStrings;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static java.lang.String.format;
+
+/**
+ * Compact binary layout of reminder events and snapshots in the log.
+ * Every event starts with a one-byte type tag. Integers are written as varints (7 bits per byte), signed ones after
+ * zigzag encoding so that small negative values stay small too. Instants are written as epoch seconds, followed by
+ * nanoseconds only when there are any. Zone offsets are written as a number of seconds, region IDs as strings.
+ * Countries and reminder types are written as their small integer IDs, and decoded as canonical instances.
+ * Strings are written as their length followed by their chars (1 to 3 bytes each), so that any Java string survives
+ * a round trip.
+ * Nothing is allocated on the way in; on the way out, only the decoded values themselves are.
+ */
+final class ReminderEventCodec {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte MARKED_AS_DONE = 1;
+    private static final byte SCHEDULED = 2;
+    private static final byte RESCHEDULED = 3;
+    private static final byte REOPENED = 4;
+    private static final byte ASSIGNED = 5;
+    private static final byte UNASSIGNED = 6;
+    private static final byte TRANSFERRED = 7;
+    private static final byte CANCELLED = 8;
+
+    private static final int ID = 1;
+    private static final int INTERVENTION_ID = 1 << 1;
+    private static final int STATUS = 1 << 2;
+    private static final int TYPE = 1 << 3;
+    private static final int ASSIGNEE = 1 << 4;
+    private static final int COUNTRY = 1 << 5;
+    private static final int SCHEDULED_TIME = 1 << 6;
+
+    private static final byte ZONE_OFFSET = 0;
+    private static final byte ZONE_REGION = 1;
+
+    private static final ReminderType[] REMINDER_TYPES = ReminderType.values();
+    private static final ReminderState.ReminderStatus[] REMINDER_STATUSES = ReminderState.ReminderStatus.values();
+
+    private static final ThreadLocal<char[]> CHAR_BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+
+    private ReminderEventCodec() {
+    }
+
+    static void writeFormatVersion(final ByteBuffer buffer) {
+        buffer.put(FORMAT_VERSION);
+    }
+
+    static void readFormatVersion(final ByteBuffer buffer) {
+        final var version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException(format("Unsupported codec format version: %s (expected: %s)", version, FORMAT_VERSION));
+        }
+    }
+
+    static void write(final ReminderEvent event, final ByteBuffer buffer) {
+        buffer.put(tagOf(event));
+        writeString(event.reminderId(), buffer);
+        writeVarInt(event.version().value(), buffer);
+        writeInstant(event.timestamp(), buffer);
+        if (event instanceof ReminderEvent.ReminderScheduled scheduled) {
+            writeString(scheduled.interventionId(), buffer);
+            buffer.put((byte) scheduled.reminderType().ordinal());
+            writeVarInt(scheduled.country().id(), buffer);
+            writeZonedDateTime(scheduled.scheduledTime(), buffer);
+        } else if (event instanceof ReminderEvent.ReminderRescheduled rescheduled) {
+            writeZonedDateTime(rescheduled.scheduledTime(), buffer);
+        } else if (event instanceof ReminderEvent.ReminderAssigned assigned) {
+            writeString(assigned.assignee(), buffer);
+        } else if (event instanceof ReminderEvent.ReminderTransferred transferred) {
+            writeVarInt(transferred.country().id(), buffer);
+        }
+    }
+
+    static ReminderEvent read(final ByteBuffer buffer) {
+        final var tag = buffer.get();
+        final var reminderId = readString(buffer);
+        final var version = new StreamRevision(readVarInt(buffer));
+        final var timestamp = readInstant(buffer);
+        return switch (tag) {
+            case MARKED_AS_DONE -> new ReminderEvent.ReminderMarkedAsDone(reminderId, version, timestamp);
+            case SCHEDULED -> new ReminderEvent.ReminderScheduled(reminderId, version, timestamp,
+                    readString(buffer), REMINDER_TYPES[buffer.get()], Country.ofId(readVarInt(buffer)), readZonedDateTime(buffer));
+            case RESCHEDULED -> new ReminderEvent.ReminderRescheduled(reminderId, version, timestamp, readZonedDateTime(buffer));
+            case REOPENED -> new ReminderEvent.ReminderReopened(reminderId, version, timestamp);
+            case ASSIGNED -> new ReminderEvent.ReminderAssigned(reminderId, version, timestamp, readString(buffer));
+            case UNASSIGNED -> new ReminderEvent.ReminderUnassigned(reminderId, version, timestamp);
+            case TRANSFERRED -> new ReminderEvent.ReminderTransferred(reminderId, version, timestamp, Country.ofId(readVarInt(buffer)));
+            case CANCELLED -> new ReminderEvent.ReminderCancelled(reminderId, version, timestamp);
+            default -> throw new IllegalStateException("Unexpected event tag: " + tag);
+        };
+    }
+
+    static void writeState(final ReminderState state, final ByteBuffer buffer) {
+        writeVarInt(state.version().value(), buffer);
+        final var presentFields = (state.id() == null ? 0 : ID)
+                | (state.interventionId() == null ? 0 : INTERVENTION_ID)
+                | (state.status() == null ? 0 : STATUS)
+                | (state.type() == null ? 0 : TYPE)
+                | (state.assignee() == null ? 0 : ASSIGNEE)
+                | (state.country() == null ? 0 : COUNTRY)
+                | (state.scheduledTime() == null ? 0 : SCHEDULED_TIME);
+        buffer.put((byte) presentFields);
+        if (state.id() != null) {
+            writeString(state.id(), buffer);
+        }
+        if (state.interventionId() != null) {
+            writeString(state.interventionId(), buffer);
+        }
+        if (state.status() != null) {
+            buffer.put((byte) state.status().ordinal());
+        }
+        if (state.type() != null) {
+            buffer.put((byte) state.type().ordinal());
+        }
+        if (state.assignee() != null) {
+            writeString(state.assignee(), buffer);
+        }
+        if (state.country() != null) {
+            writeVarInt(state.country().id(), buffer);
+        }
+        if (state.scheduledTime() != null) {
+            writeZonedDateTime(state.scheduledTime(), buffer);
+        }
+    }
+
+    static ReminderState readState(final ByteBuffer buffer) {
+        final var version = new StreamRevision(readVarInt(buffer));
+        final var presentFields = buffer.get();
+        return new ReminderState(version,
+                (presentFields & ID) == 0 ? null : readString(buffer),
+                (presentFields & INTERVENTION_ID) == 0 ? null : SharedStrings.intern(readString(buffer)),
+                (presentFields & STATUS) == 0 ? null : REMINDER_STATUSES[buffer.get()],
+                (presentFields & TYPE) == 0 ? null : REMINDER_TYPES[buffer.get()],
+                (presentFields & ASSIGNEE) == 0 ? null : SharedStrings.intern(readString(buffer)),
+                (presentFields & COUNTRY) == 0 ? null : Country.ofId(readVarInt(buffer)),
+                (presentFields & SCHEDULED_TIME) == 0 ? null : readZonedDateTime(buffer));
+    }
+
+    private static byte tagOf(final ReminderEvent event) {
+        if (event instanceof ReminderEvent.ReminderMarkedAsDone) {
+            return MARKED_AS_DONE;
+        } else if (event instanceof ReminderEvent.ReminderScheduled) {
+            return SCHEDULED;
+        } else if (event instanceof ReminderEvent.ReminderRescheduled) {
+            return RESCHEDULED;
+        } else if (event instanceof ReminderEvent.ReminderReopened) {
+            return REOPENED;
+        } else if (event instanceof ReminderEvent.ReminderAssigned) {
+            return ASSIGNED;
+        } else if (event instanceof ReminderEvent.ReminderUnassigned) {
+            return UNASSIGNED;
+        } else if (event instanceof ReminderEvent.ReminderTransferred) {
+            return TRANSFERRED;
+        } else if (event instanceof ReminderEvent.ReminderCancelled) {
+            return CANCELLED;
+        } else {
+            throw new IllegalArgumentException("Unexpected event type: " + event.getClass().getName());
+        }
+    }
+
+    /**
+     * The lowest bit of the first varint tells whether nanoseconds follow.
+     */
+    private static void writeInstant(final Instant instant, final ByteBuffer buffer) {
+        final var nanos = instant.getNano();
+        writeVarLong((zigZag(instant.getEpochSecond()) << 1) | (nanos == 0 ? 0 : 1), buffer);
+        if (nanos != 0) {
+            writeVarInt(nanos, buffer);
+        }
+    }
+
+    private static Instant readInstant(final ByteBuffer buffer) {
+        final var value = readVarLong(buffer);
+        final var epochSecond = unZigZag(value >>> 1);
+        return Instant.ofEpochSecond(epochSecond, (value & 1) == 0 ? 0 : readVarInt(buffer));
+    }
+
+    private static void writeZonedDateTime(final ZonedDateTime dateTime, final ByteBuffer buffer) {
+        writeInstant(dateTime.toInstant(), buffer);
+        if (dateTime.getZone() instanceof ZoneOffset offset) {
+            buffer.put(ZONE_OFFSET);
+            writeVarLong(zigZag(offset.getTotalSeconds()), buffer);
+        } else {
+            buffer.put(ZONE_REGION);
+            writeString(dateTime.getZone().getId(), buffer);
+        }
+    }
+
+    private static ZonedDateTime readZonedDateTime(final ByteBuffer buffer) {
+        final var instant = readInstant(buffer);
+        final ZoneId zone = buffer.get() == ZONE_OFFSET
+                ? ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong(buffer)))
+                : ZoneId.of(readString(buffer));
+        return ZonedDateTime.ofInstant(instant, zone);
+    }
+
+    static void writeString(final String value, final ByteBuffer buffer) {
+        final var length = value.length();
+        writeVarInt(length, buffer);
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c != 0 && c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    static String readString(final ByteBuffer buffer) {
+        final var length = readVarInt(buffer);
+        var chars = CHAR_BUFFER.get();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            CHAR_BUFFER.set(chars);
+        }
+        for (int i = 0; i < length; i++) {
+            final int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[i] = (char) b;
+            } else if (b < 0xE0) {
+                chars[i] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+            } else {
+                chars[i] = (char) (((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F));
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    static void writeVarInt(final int value, final ByteBuffer buffer) {
+        writeVarLong(value & 0xFFFFFFFFL, buffer);
+    }
+
+    static int readVarInt(final ByteBuffer buffer) {
+        return (int) readVarLong(buffer);
+    }
+
+    private static void writeVarLong(final long value, final ByteBuffer buffer) {
+        var remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    private static long readVarLong(final ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final var b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
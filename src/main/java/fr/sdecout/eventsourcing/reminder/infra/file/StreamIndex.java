@@ -0,0 +1,76 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import java.util.Arrays;
+
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+
+/**
+ * Positions of the frames of one stream in the log, along with the revision of its last event and the position of
+ * its latest snapshot.
+ * Only one thread is expected to write at a time, while any number of threads may read without locking.
+ */
+final class StreamIndex {
+
+    private volatile long[] positions = new long[4];
+    private volatile int size;
+    private volatile StreamRevision head = defaultStreamRevision();
+    private volatile SnapshotReference snapshot;
+
+    static long position(final int segment, final int offset) {
+        return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    static int segment(final long position) {
+        return (int) (position >>> 32);
+    }
+
+    static int offset(final long position) {
+        return (int) position;
+    }
+
+    void add(final long position, final StreamRevision head) {
+        var currentPositions = this.positions;
+        if (size == currentPositions.length) {
+            currentPositions = Arrays.copyOf(currentPositions, size * 2);
+            this.positions = currentPositions;
+        }
+        currentPositions[size] = position;
+        this.head = head;
+        this.size = size + 1;
+    }
+
+    void addSnapshot(final long position, final StreamRevision version) {
+        this.snapshot = new SnapshotReference(position, size, version);
+    }
+
+    long[] positions() {
+        return positionsFrom(0);
+    }
+
+    /**
+     * @return positions of the frames appended after the given number of frames
+     */
+    long[] positionsFrom(final int frameCount) {
+        final var currentSize = this.size;
+        return Arrays.copyOfRange(this.positions, frameCount, currentSize);
+    }
+
+    SnapshotReference snapshot() {
+        return snapshot;
+    }
+
+    StreamRevision lastSnapshotVersion() {
+        final var currentSnapshot = this.snapshot;
+        return currentSnapshot == null ? defaultStreamRevision() : currentSnapshot.version();
+    }
+
+    StreamRevision head() {
+        return head;
+    }
+
+    record SnapshotReference(long position, int frameCount, StreamRevision version) {
+    }
+
+}
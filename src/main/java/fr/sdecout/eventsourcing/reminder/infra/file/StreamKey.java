@@ -0,0 +1,53 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import fr.sdecout.eventsourcing.reminder.domain.Ulid;
+
+import java.util.Objects;
+
+/**
+ * Key of a stream in the indexes kept in memory. Reminder IDs that are ULIDs are held as their two 64-bit halves
+ * rather than as strings of 26 characters, and are only formatted back when needed. Other reminder IDs are held as is.
+ */
+final class StreamKey {
+
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final String reminderId;
+
+    private StreamKey(final long mostSignificantBits, final long leastSignificantBits, final String reminderId) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.reminderId = reminderId;
+    }
+
+    static StreamKey of(final String reminderId) {
+        return Ulid.parse(reminderId)
+                .map(ulid -> new StreamKey(ulid.mostSignificantBits(), ulid.leastSignificantBits(), null))
+                .orElseGet(() -> new StreamKey(0, 0, reminderId));
+    }
+
+    String reminderId() {
+        return reminderId != null ? reminderId : new Ulid(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof StreamKey key
+                && mostSignificantBits == key.mostSignificantBits
+                && leastSignificantBits == key.leastSignificantBits
+                && Objects.equals(reminderId, key.reminderId);
+    }
+
+    @Override
+    public int hashCode() {
+        return reminderId != null
+                ? reminderId.hashCode()
+                : Long.hashCode(mostSignificantBits ^ leastSignificantBits);
+    }
+
+    @Override
+    public String toString() {
+        return reminderId();
+    }
+
+}
@@ -0,0 +1,64 @@
+package fr.sdecout.eventsourcing.reminder.infra.id;
+
+import fr.sdecout.eventsourcing.reminder.domain.ReminderIdGenerator;
+import fr.sdecout.eventsourcing.reminder.domain.Ulid;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Generates reminder IDs as ULIDs made of a 48-bit timestamp, a 16-bit node ID, a 16-bit sequence and 48 random bits.
+ * <p>
+ * Timestamp and sequence are packed in a single counter updated without locking: IDs generated by a node are strictly
+ * increasing, even within a millisecond. When the sequence of a millisecond is exhausted, or when the clock goes
+ * backward, IDs borrow the timestamp of the next millisecond until the clock catches up.
+ * Nodes sharing a same store are expected to have distinct node IDs.
+ */
+public final class UlidReminderIdGenerator implements ReminderIdGenerator {
+
+    public static final int MAX_NODE_ID = 0xFFFF;
+
+    private static final int SEQUENCE_BITS = 16;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long RANDOM_MASK = (1L << 48) - 1;
+
+    private final Clock clock;
+    private final long nodeId;
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    public UlidReminderIdGenerator(final Clock clock, final int nodeId) {
+        checkArgument(nodeId >= 0 && nodeId <= MAX_NODE_ID, "Node ID is expected to be between 0 and %s - value: %s", MAX_NODE_ID, nodeId);
+        this.clock = clock;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String generate() {
+        return generateUlid().toString();
+    }
+
+    public Ulid generateUlid() {
+        final var timestampAndSequence = nextTimestampAndSequence();
+        final var timestamp = timestampAndSequence >>> SEQUENCE_BITS;
+        final var sequence = timestampAndSequence & SEQUENCE_MASK;
+        return new Ulid(
+                timestamp << 16 | nodeId,
+                sequence << 48 | ThreadLocalRandom.current().nextLong() & RANDOM_MASK
+        );
+    }
+
+    private long nextTimestampAndSequence() {
+        final var firstOfMillisecond = clock.millis() << SEQUENCE_BITS;
+        while (true) {
+            final var last = lastTimestampAndSequence.get();
+            final var next = Math.max(firstOfMillisecond, last + 1);
+            if (lastTimestampAndSequence.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package fr.sdecout.eventsourcing.reminder.infra.memory;
+
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventSubscriber;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Events committed to the in-memory store, in commit order. Events are kept in chunks of fixed size, so that the log
+ * grows without copying events. Appends are expected to be serialized, while reads never lock.
+ */
+final class CommittedEventLog {
+
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile ReminderEvent[][] chunks = new ReminderEvent[16][];
+    private volatile long head;
+
+    long head() {
+        return head;
+    }
+
+    /**
+     * @return position of the event in the log
+     */
+    long append(final ReminderEvent event) {
+        final var position = head + 1;
+        final var index = position - 1;
+        final var chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = new ReminderEvent[CHUNK_SIZE];
+        }
+        chunks[chunkIndex][(int) index & CHUNK_MASK] = event;
+        head = position;
+        return position;
+    }
+
+    int read(final long fromPosition, final int maxCount, final ReminderEventSubscriber subscriber) {
+        checkArgument(fromPosition > 0, "Position is expected to be positive - value: %s", fromPosition);
+        final var lastPosition = Math.min(head, fromPosition + maxCount - 1);
+        final var currentChunks = chunks;
+        for (var position = fromPosition; position <= lastPosition; position++) {
+            final var index = position - 1;
+            subscriber.onEvent(currentChunks[(int) (index >>> CHUNK_SHIFT)][(int) index & CHUNK_MASK], position, position == lastPosition);
+        }
+        return (int) Math.max(0, lastPosition - fromPosition + 1);
+    }
+
+}
@@ -0,0 +1,69 @@
+package fr.sdecout.eventsourcing.reminder.infra.memory;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderAggregate;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventStream;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderState;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+
+/**
+ * Append-only list of the events of one stream, along with its latest snapshot.
+ * Only one thread is expected to append at a time, while any number of threads may read without locking.
+ */
+final class EventList {
+
+    private volatile ReminderEvent[] events;
+    private volatile int size;
+    private volatile Snapshot snapshot;
+
+    EventList(final List<ReminderEvent> events) {
+        this.events = events.toArray(new ReminderEvent[Math.max(4, events.size())]);
+        this.size = events.size();
+    }
+
+    void addAll(final List<ReminderEvent> newEvents) {
+        var currentEvents = this.events;
+        final var currentSize = this.size;
+        if (currentSize + newEvents.size() > currentEvents.length) {
+            currentEvents = Arrays.copyOf(currentEvents, Math.max(currentEvents.length * 2, currentSize + newEvents.size()));
+            this.events = currentEvents;
+        }
+        for (int i = 0; i < newEvents.size(); i++) {
+            currentEvents[currentSize + i] = newEvents.get(i);
+        }
+        this.size = currentSize + newEvents.size();
+    }
+
+    void takeSnapshot(final ReminderState state) {
+        this.snapshot = new Snapshot(state, size);
+    }
+
+    StreamRevision head() {
+        return events[size - 1].version();
+    }
+
+    StreamRevision lastSnapshotVersion() {
+        final var currentSnapshot = this.snapshot;
+        return currentSnapshot == null ? defaultStreamRevision() : currentSnapshot.state().version();
+    }
+
+    ReminderAggregate rehydrate(final Clock clock) {
+        final var currentSnapshot = this.snapshot;
+        final var currentSize = this.size;
+        if (currentSnapshot == null) {
+            return new ReminderAggregate(new ReminderEventStream(List.of(Arrays.copyOf(this.events, currentSize))), clock);
+        }
+        final var tail = List.of(Arrays.copyOfRange(this.events, currentSnapshot.eventCount(), currentSize));
+        return new ReminderAggregate(currentSnapshot.state(), new ReminderEventStream(tail), clock);
+    }
+
+    private record Snapshot(ReminderState state, int eventCount) {
+    }
+
+}
@@ -0,0 +1,25 @@
+package fr.sdecout.eventsourcing.reminder.infra.memory;
+
+import fr.sdecout.eventsourcing.reminder.domain.CheckpointStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checkpoints kept in memory, for subscriptions that start over with the application, such as those of in-memory stores.
+ */
+public final class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final Map<String, Long> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public long load(final String subscriptionName) {
+        return checkpoints.getOrDefault(subscriptionName, 0L);
+    }
+
+    @Override
+    public void save(final String subscriptionName, final long position) {
+        checkpoints.put(subscriptionName, position);
+    }
+
+}
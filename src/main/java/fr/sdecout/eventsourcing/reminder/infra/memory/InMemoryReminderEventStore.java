@@ -0,0 +1,236 @@
+package fr.sdecout.eventsourcing.reminder.infra.memory;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.ParallelReplay;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderAggregate;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventLog;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventPublisher;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderSave;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventStore;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEventSubscriber;
+import fr.sdecout.eventsourcing.reminder.domain.SnapshotPolicy;
+import fr.sdecout.eventsourcing.reminder.domain.StreamRevisionConflictException;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Event store keeping streams in memory, for tests and edge deployments.
+ * Appends are serialized per stream by a lock picked among a fixed set of stripes, so that saves of different
+ * reminders rarely contend. Reads never lock, and only replay the events appended since the latest snapshot.
+ * Reminder IDs are indexed by intervention when their stream is created, so that finding the reminders of an
+ * intervention only costs as much as the number of reminders found. Reminders loaded together are rehydrated in parallel.
+ * Appended events are also added to a log of all the committed events, and published, under one more lock shared by
+ * all the streams: it is only held for that long, and makes publication follow the order of the log.
+ * Saving several reminders at once locks all their stripes, in a fixed order, and takes the log lock only once.
+ */
+public final class InMemoryReminderEventStore implements ReminderEventStore, ReminderEventLog {
+
+    private final Clock clock;
+    private final SnapshotPolicy snapshotPolicy;
+    private final ParallelReplay parallelReplay;
+    private final ReminderEventPublisher publisher;
+    private final Map<String, EventList> streams = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> reminderIdsByIntervention = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final CommittedEventLog eventLog = new CommittedEventLog();
+    private final ReentrantLock eventLogLock = new ReentrantLock();
+
+    public InMemoryReminderEventStore(final Clock clock) {
+        this(clock, Runtime.getRuntime().availableProcessors() * 4, SnapshotPolicy.every(SnapshotPolicy.DEFAULT_INTERVAL));
+    }
+
+    public InMemoryReminderEventStore(final Clock clock, final int concurrencyLevel, final SnapshotPolicy snapshotPolicy) {
+        this(clock, concurrencyLevel, snapshotPolicy, ParallelReplay.defaultParallelReplay());
+    }
+
+    public InMemoryReminderEventStore(final Clock clock, final int concurrencyLevel, final SnapshotPolicy snapshotPolicy,
+                                      final ParallelReplay parallelReplay) {
+        this(clock, concurrencyLevel, snapshotPolicy, parallelReplay, ReminderEventPublisher.noPublication());
+    }
+
+    /**
+     * @param publisher where events are published once appended
+     */
+    public InMemoryReminderEventStore(final Clock clock, final int concurrencyLevel, final SnapshotPolicy snapshotPolicy,
+                                      final ParallelReplay parallelReplay, final ReminderEventPublisher publisher) {
+        checkArgument(concurrencyLevel > 0, "Concurrency level is expected to be positive - value: %s", concurrencyLevel);
+        this.clock = clock;
+        this.snapshotPolicy = snapshotPolicy;
+        this.parallelReplay = parallelReplay;
+        this.publisher = publisher;
+        this.stripes = new ReentrantLock[powerOfTwoAtLeast(concurrencyLevel)];
+        Arrays.setAll(stripes, i -> new ReentrantLock());
+    }
+
+    @Override
+    public Optional<ReminderAggregate> find(final String reminderId) {
+        return Optional.ofNullable(streams.get(reminderId))
+                .map(events -> events.rehydrate(clock));
+    }
+
+    @Override
+    public List<ReminderAggregate> findByIntervention(final String interventionId) {
+        return findAll(reminderIdsByIntervention.getOrDefault(interventionId, Set.of()));
+    }
+
+    @Override
+    public List<ReminderAggregate> findAll(final Collection<String> reminderIds) {
+        final var found = reminderIds.stream()
+                .map(streams::get)
+                .filter(Objects::nonNull)
+                .collect(toList());
+        return parallelReplay.rehydrateAll(found, events -> events.rehydrate(clock));
+    }
+
+    @Override
+    public Optional<StreamRevision> headRevision(final String reminderId) {
+        return Optional.ofNullable(streams.get(reminderId))
+                .map(EventList::head);
+    }
+
+    @Override
+    public void save(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision) {
+        final var events = pendingEvents(reminderAggregate);
+        if (events.isEmpty()) {
+            return;
+        }
+        final var lock = stripes[stripeIndexOf(events.get(0).streamId())];
+        lock.lock();
+        try {
+            append(reminderAggregate, expectedRevision, events);
+            appendToEventLog(events);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stripes are locked by increasing index, so that concurrent batches cannot deadlock, and kept locked until the
+     * events are in the log, so that the log keeps the order of every stream.
+     */
+    @Override
+    public Map<String, RuntimeException> saveAll(final List<ReminderSave> saves) {
+        final Map<String, RuntimeException> failures = new HashMap<>();
+        final SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        for (final ReminderSave save : saves) {
+            final var events = pendingEvents(save.reminderAggregate());
+            if (!events.isEmpty()) {
+                stripeIndexes.add(stripeIndexOf(events.get(0).streamId()));
+            }
+        }
+        stripeIndexes.forEach(index -> stripes[index].lock());
+        try {
+            final List<ReminderEvent> appended = new ArrayList<>();
+            for (final ReminderSave save : saves) {
+                final var events = pendingEvents(save.reminderAggregate());
+                if (events.isEmpty()) {
+                    continue;
+                }
+                try {
+                    append(save.reminderAggregate(), save.expectedRevision(), events);
+                    appended.addAll(events);
+                } catch (RuntimeException e) {
+                    failures.put(save.reminderAggregate().state().id(), e);
+                }
+            }
+            if (!appended.isEmpty()) {
+                appendToEventLog(appended);
+            }
+        } finally {
+            stripeIndexes.forEach(index -> stripes[index].unlock());
+        }
+        return failures;
+    }
+
+    @Override
+    public long headPosition() {
+        return eventLog.head();
+    }
+
+    @Override
+    public int read(final long fromPosition, final int maxCount, final ReminderEventSubscriber subscriber) {
+        return eventLog.read(fromPosition, maxCount, subscriber);
+    }
+
+    private void append(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision, final List<ReminderEvent> events) {
+        final var streamId = events.get(0).streamId();
+        final var existingStream = streams.get(streamId);
+        final var head = existingStream == null ? defaultStreamRevision() : existingStream.head();
+        if (!head.equals(expectedRevision)) {
+            throw new StreamRevisionConflictException(streamId, expectedRevision, head);
+        }
+        validateVersions(streamId, head, events);
+        final EventList stream;
+        if (existingStream == null) {
+            stream = new EventList(events);
+            streams.put(streamId, stream);
+            if (events.get(0) instanceof ReminderEvent.ReminderScheduled scheduled) {
+                reminderIdsByIntervention.computeIfAbsent(scheduled.interventionId(), id -> ConcurrentHashMap.newKeySet()).add(streamId);
+            }
+        } else {
+            stream = existingStream;
+            stream.addAll(events);
+        }
+        snapshotPolicy.recordSave(reminderAggregate.state());
+        if (snapshotPolicy.shouldSnapshot(reminderAggregate.state(), stream.lastSnapshotVersion())) {
+            stream.takeSnapshot(reminderAggregate.state());
+        }
+    }
+
+    private void appendToEventLog(final List<ReminderEvent> events) {
+        eventLogLock.lock();
+        try {
+            for (final ReminderEvent event : events) {
+                publisher.publish(event, eventLog.append(event));
+            }
+        } finally {
+            eventLogLock.unlock();
+        }
+    }
+
+    private int stripeIndexOf(final String streamId) {
+        final var hash = streamId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private static List<ReminderEvent> pendingEvents(final ReminderAggregate reminderAggregate) {
+        return reminderAggregate.pendingEvents().stream()
+                .map(ReminderEvent.class::cast)
+                .collect(toList());
+    }
+
+    private static int powerOfTwoAtLeast(final int value) {
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static void validateVersions(final String streamId, final StreamRevision head, final List<ReminderEvent> events) {
+        var expectedVersion = head.next();
+        for (final ReminderEvent event : events) {
+            if (!event.version().equals(expectedVersion)) {
+                throw new IllegalStateException(format("Inconsistent stream revision for stream '%s': %s (expected: %s)",
+                        streamId, event.version(), expectedVersion));
+            }
+            expectedVersion = expectedVersion.next();
+        }
+    }
+
+}
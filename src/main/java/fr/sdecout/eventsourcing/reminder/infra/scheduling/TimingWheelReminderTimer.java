@@ -0,0 +1,359 @@
+package fr.sdecout.eventsourcing.reminder.infra.scheduling;
+
+import fr.sdecout.eventsourcing.reminder.domain.DueReminder;
+import fr.sdecout.eventsourcing.reminder.domain.DueReminderHandler;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderTimer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Reminder timers held in a hierarchical timing wheel, handing due reminders over to a handler in batches.
+ * <p>
+ * Time is divided into ticks. Each level of the wheel has 256 buckets: a bucket of level 0 holds the timers expiring
+ * at one tick, a bucket of level 1 those expiring within 256 ticks, and so on. When time enters the range of a bucket
+ * of a higher level, its timers cascade down to lower levels, until they reach level 0 and expire. Arming and
+ * disarming a timer are thus O(1), while each timer cascades at most once per level.
+ * <p>
+ * Timers are stored column-wise in primitive arrays, linked within their bucket by index, and found by reminder ID
+ * through an open-addressing table of indexes: there is no object per timer, besides the reminder ID itself.
+ */
+public final class TimingWheelReminderTimer implements ReminderTimer, AutoCloseable {
+
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = Long.SIZE / WHEEL_BITS;
+    private static final int OVERDUE = LEVELS * WHEEL_SIZE;
+    private static final int NONE = -1;
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final DueReminderHandler handler;
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int[] bucketHeads = new int[OVERDUE + 1];
+    private ScheduledExecutorService ticker;
+    private long currentTick;
+
+    private String[] reminderIds = new String[1024];
+    private long[] scheduledTimes = new long[1024];
+    private int[] buckets = new int[1024];
+    private int[] previous = new int[1024];
+    private int[] next = new int[1024];
+    private int highWaterMark;
+    private int freeHead = NONE;
+    private int size;
+
+    private int[] table = new int[2048];
+
+    public TimingWheelReminderTimer(final Clock clock, final DueReminderHandler handler) {
+        this(clock, handler, DEFAULT_TICK, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public TimingWheelReminderTimer(final Clock clock, final DueReminderHandler handler, final Duration tick, final int maxBatchSize) {
+        checkArgument(tick.toMillis() > 0, "Tick is expected to last at least 1 ms - value: %s", tick);
+        checkArgument(maxBatchSize > 0, "Max batch size is expected to be positive - value: %s", maxBatchSize);
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.handler = handler;
+        this.maxBatchSize = maxBatchSize;
+        this.currentTick = Math.floorDiv(clock.millis(), tickMillis);
+        Arrays.fill(bucketHeads, NONE);
+    }
+
+    /**
+     * Advance the wheel every tick in a background thread, until closed.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (ticker == null) {
+                ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final var thread = new Thread(runnable, "reminder-timing-wheel");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A failing handler must not stop the ticker: the failure is reported as uncaught, and next ticks go on.
+     */
+    private void tick() {
+        try {
+            advanceTo(clock.instant());
+        } catch (RuntimeException e) {
+            final var thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (ticker != null) {
+                ticker.shutdown();
+                ticker = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void schedule(final String reminderId, final ZonedDateTime scheduledTime) {
+        lock.lock();
+        try {
+            arm(reminderId, scheduledTime.toInstant().toEpochMilli());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Arm many timers at once, such as when rebuilding the wheel on startup from the pending reminders.
+     */
+    @Override
+    public void scheduleAll(final Collection<DueReminder> reminders) {
+        lock.lock();
+        try {
+            ensureCapacity(size + reminders.size());
+            reminders.forEach(reminder -> arm(reminder.reminderId(), reminder.scheduledTime().toEpochMilli()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void cancel(final String reminderId) {
+        lock.lock();
+        try {
+            final var timer = find(reminderId);
+            if (timer != NONE) {
+                release(timer);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Expire all the timers scheduled up to given time, and hand the corresponding reminders over to the handler.
+     */
+    public void advanceTo(final Instant now) {
+        final List<DueReminder> dueReminders = new ArrayList<>();
+        lock.lock();
+        try {
+            final var targetTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                expireBucket((int) (currentTick & WHEEL_MASK), dueReminders);
+            }
+            expireBucket(OVERDUE, dueReminders);
+        } finally {
+            lock.unlock();
+        }
+        for (int from = 0; from < dueReminders.size(); from += maxBatchSize) {
+            handler.handle(dueReminders.subList(from, Math.min(from + maxBatchSize, dueReminders.size())));
+        }
+    }
+
+    private void arm(final String reminderId, final long scheduledTime) {
+        var timer = find(reminderId);
+        if (timer == NONE) {
+            timer = allocate(reminderId);
+        } else {
+            unlink(timer);
+        }
+        scheduledTimes[timer] = scheduledTime;
+        link(timer, bucketFor(-Math.floorDiv(-scheduledTime, tickMillis)));
+    }
+
+    private int bucketFor(final long deadlineTick) {
+        final var delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            return OVERDUE;
+        }
+        var level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        return level * WHEEL_SIZE + (int) ((deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    /**
+     * Move the timers of the buckets whose range time has just entered to lower levels, highest level first.
+     */
+    private void cascade() {
+        var level = 0;
+        while (level < LEVELS - 1 && (currentTick & ((1L << (WHEEL_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        for (; level > 0; level--) {
+            final var bucket = level * WHEEL_SIZE + (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            var timer = bucketHeads[bucket];
+            bucketHeads[bucket] = NONE;
+            while (timer != NONE) {
+                final var following = next[timer];
+                link(timer, bucketFor(-Math.floorDiv(-scheduledTimes[timer], tickMillis)));
+                timer = following;
+            }
+        }
+    }
+
+    private void expireBucket(final int bucket, final List<DueReminder> dueReminders) {
+        var timer = bucketHeads[bucket];
+        while (timer != NONE) {
+            final var following = next[timer];
+            dueReminders.add(new DueReminder(reminderIds[timer], Instant.ofEpochMilli(scheduledTimes[timer])));
+            release(timer);
+            timer = following;
+        }
+    }
+
+    private void link(final int timer, final int bucket) {
+        final var head = bucketHeads[bucket];
+        buckets[timer] = bucket;
+        previous[timer] = NONE;
+        next[timer] = head;
+        if (head != NONE) {
+            previous[head] = timer;
+        }
+        bucketHeads[bucket] = timer;
+    }
+
+    private void unlink(final int timer) {
+        if (previous[timer] == NONE) {
+            bucketHeads[buckets[timer]] = next[timer];
+        } else {
+            next[previous[timer]] = next[timer];
+        }
+        if (next[timer] != NONE) {
+            previous[next[timer]] = previous[timer];
+        }
+    }
+
+    private int allocate(final String reminderId) {
+        ensureCapacity(size + 1);
+        final int timer;
+        if (freeHead != NONE) {
+            timer = freeHead;
+            freeHead = next[timer];
+        } else {
+            timer = highWaterMark++;
+        }
+        reminderIds[timer] = reminderId;
+        size++;
+        insertInTable(timer);
+        return timer;
+    }
+
+    private void release(final int timer) {
+        unlink(timer);
+        removeFromTable(timer);
+        reminderIds[timer] = null;
+        next[timer] = freeHead;
+        freeHead = timer;
+        size--;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > reminderIds.length) {
+            final var newLength = Math.max(capacity, reminderIds.length * 2);
+            reminderIds = Arrays.copyOf(reminderIds, newLength);
+            scheduledTimes = Arrays.copyOf(scheduledTimes, newLength);
+            buckets = Arrays.copyOf(buckets, newLength);
+            previous = Arrays.copyOf(previous, newLength);
+            next = Arrays.copyOf(next, newLength);
+        }
+        if (capacity * 2 > table.length) {
+            rehash(Integer.highestOneBit(capacity * 2) << 1);
+        }
+    }
+
+    private int find(final String reminderId) {
+        final var mask = table.length - 1;
+        for (int slot = spread(reminderId.hashCode()) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            final var timer = table[slot] - 1;
+            if (reminderIds[timer].equals(reminderId)) {
+                return timer;
+            }
+        }
+        return NONE;
+    }
+
+    private void insertInTable(final int timer) {
+        final var mask = table.length - 1;
+        var slot = spread(reminderIds[timer].hashCode()) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = timer + 1;
+    }
+
+    /**
+     * Linear probing deletion: entries following the removed one in its probe sequence are shifted back, so that no
+     * tombstone is needed.
+     */
+    private void removeFromTable(final int timer) {
+        final var mask = table.length - 1;
+        var slot = spread(reminderIds[timer].hashCode()) & mask;
+        while (table[slot] != timer + 1) {
+            slot = (slot + 1) & mask;
+        }
+        var hole = slot;
+        for (slot = (slot + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            final var home = spread(reminderIds[table[slot] - 1].hashCode()) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                table[hole] = table[slot];
+                hole = slot;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void rehash(final int length) {
+        table = new int[length];
+        for (int timer = 0; timer < highWaterMark; timer++) {
+            if (reminderIds[timer] != null) {
+                insertInTable(timer);
+            }
+        }
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
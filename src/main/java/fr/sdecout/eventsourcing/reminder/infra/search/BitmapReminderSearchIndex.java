@@ -0,0 +1,236 @@
+package fr.sdecout.eventsourcing.reminder.infra.search;
+
+import fr.sdecout.eventsourcing.reminder.domain.Country;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderSearchCriteria;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderSearchIndex;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderSearchResult;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderState;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * In-memory search index giving every reminder a dense document number.
+ * There is one bitmap of document numbers per reminder type, status and country, and reminders are also kept sorted
+ * by scheduled time. A search intersects the bitmaps of the requested values, then either walks the requested
+ * range of scheduled times, or sorts the matching reminders when they are few compared to the whole index.
+ */
+public final class BitmapReminderSearchIndex implements ReminderSearchIndex {
+
+    private static final int COUNTRY_COUNT = 26 * 26;
+    private static final int SORT_THRESHOLD_RATIO = 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> documents = new HashMap<>();
+    private final BitSet[] byType = newBitSets(ReminderType.values().length);
+    private final BitSet[] byStatus = newBitSets(ReminderState.ReminderStatus.values().length);
+    private final BitSet[] byCountry = new BitSet[COUNTRY_COUNT];
+    private final NavigableSet<ScheduledEntry> byScheduledTime = new TreeSet<>();
+    private final BitSet allDocuments = new BitSet();
+    private ReminderState[] states = new ReminderState[1024];
+
+    @Override
+    public void index(final ReminderState state) {
+        if (state.id() == null || state.scheduledTime() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            final var document = documents.computeIfAbsent(state.id(), id -> documents.size());
+            if (document == states.length) {
+                states = Arrays.copyOf(states, states.length * 2);
+            }
+            final var previous = states[document];
+            if (previous != null) {
+                if (previous.version().value() >= state.version().value()) {
+                    return;
+                }
+                unindex(document, previous);
+            }
+            states[document] = state;
+            allDocuments.set(document);
+            set(byType, state.type(), ReminderType::ordinal, document);
+            set(byStatus, state.status(), ReminderState.ReminderStatus::ordinal, document);
+            if (state.country() != null) {
+                byCountry(state.country()).set(document);
+            }
+            byScheduledTime.add(new ScheduledEntry(state.scheduledTime().toInstant(), document));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<ReminderState> get(final String reminderId) {
+        lock.readLock().lock();
+        try {
+            final var document = documents.get(reminderId);
+            return document == null ? Optional.empty() : Optional.of(states[document]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            Arrays.stream(byType).forEach(BitSet::clear);
+            Arrays.stream(byStatus).forEach(BitSet::clear);
+            Arrays.fill(byCountry, null);
+            byScheduledTime.clear();
+            allDocuments.clear();
+            Arrays.fill(states, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ReminderSearchResult search(final ReminderSearchCriteria criteria, final int offset, final int limit) {
+        checkArgument(offset >= 0, "Offset is expected not to be negative - value: %s", offset);
+        checkArgument(limit > 0, "Limit is expected to be positive - value: %s", limit);
+        lock.readLock().lock();
+        try {
+            final var candidates = (BitSet) allDocuments.clone();
+            candidates.and(union(criteria.types(), type -> byType[type.ordinal()]));
+            candidates.and(union(criteria.statuses(), status -> byStatus[status.ordinal()]));
+            candidates.and(union(criteria.countries(), country -> byCountry[country.id()]));
+            final var candidateCount = candidates.cardinality();
+            return (long) candidateCount * SORT_THRESHOLD_RATIO < byScheduledTime.size()
+                    ? sortCandidates(candidates, candidateCount, criteria, offset, limit)
+                    : walkRange(scheduledRange(criteria), candidates, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableSet<ScheduledEntry> scheduledRange(final ReminderSearchCriteria criteria) {
+        if (criteria.scheduledFrom() == null && criteria.scheduledTo() == null) {
+            return byScheduledTime;
+        } else if (criteria.scheduledTo() == null) {
+            return byScheduledTime.tailSet(ScheduledEntry.lowest(criteria.scheduledFrom().toInstant()), true);
+        } else if (criteria.scheduledFrom() == null) {
+            return byScheduledTime.headSet(ScheduledEntry.lowest(criteria.scheduledTo().toInstant()), false);
+        } else {
+            return byScheduledTime.subSet(ScheduledEntry.lowest(criteria.scheduledFrom().toInstant()), true,
+                    ScheduledEntry.lowest(criteria.scheduledTo().toInstant()), false);
+        }
+    }
+
+    private ReminderSearchResult walkRange(final NavigableSet<ScheduledEntry> range, final BitSet candidates, final int offset, final int limit) {
+        final List<ReminderState> page = new ArrayList<>();
+        var count = 0;
+        for (final ScheduledEntry entry : range) {
+            if (candidates.get(entry.document())) {
+                if (count >= offset && page.size() < limit) {
+                    page.add(states[entry.document()]);
+                }
+                count++;
+            }
+        }
+        return new ReminderSearchResult(page, count);
+    }
+
+    private ReminderSearchResult sortCandidates(final BitSet candidates, final int candidateCount, final ReminderSearchCriteria criteria,
+                                                final int offset, final int limit) {
+        final List<ScheduledEntry> matches = new ArrayList<>(candidateCount);
+        for (int document = candidates.nextSetBit(0); document >= 0; document = candidates.nextSetBit(document + 1)) {
+            if (criteria.matches(states[document])) {
+                matches.add(new ScheduledEntry(states[document].scheduledTime().toInstant(), document));
+            }
+        }
+        matches.sort(Comparator.naturalOrder());
+        final List<ReminderState> page = new ArrayList<>();
+        for (int i = offset; i < matches.size() && page.size() < limit; i++) {
+            page.add(states[matches.get(i).document()]);
+        }
+        return new ReminderSearchResult(page, matches.size());
+    }
+
+    private void unindex(final int document, final ReminderState state) {
+        clear(byType, state.type(), ReminderType::ordinal, document);
+        clear(byStatus, state.status(), ReminderState.ReminderStatus::ordinal, document);
+        if (state.country() != null) {
+            byCountry(state.country()).clear(document);
+        }
+        byScheduledTime.remove(new ScheduledEntry(state.scheduledTime().toInstant(), document));
+    }
+
+    private BitSet byCountry(final Country country) {
+        var bitSet = byCountry[country.id()];
+        if (bitSet == null) {
+            bitSet = new BitSet();
+            byCountry[country.id()] = bitSet;
+        }
+        return bitSet;
+    }
+
+    /**
+     * @return union of the bitmaps of given values, or all documents if no value is given
+     */
+    private <T> BitSet union(final Collection<T> values, final Function<T, BitSet> bitmap) {
+        if (values.isEmpty()) {
+            return allDocuments;
+        }
+        final var union = new BitSet();
+        for (final T value : values) {
+            final var bitSet = bitmap.apply(value);
+            if (bitSet != null) {
+                union.or(bitSet);
+            }
+        }
+        return union;
+    }
+
+    private static <T> void set(final BitSet[] bitSets, final T value, final ToIntFunction<T> ordinal, final int document) {
+        if (value != null) {
+            bitSets[ordinal.applyAsInt(value)].set(document);
+        }
+    }
+
+    private static <T> void clear(final BitSet[] bitSets, final T value, final ToIntFunction<T> ordinal, final int document) {
+        if (value != null) {
+            bitSets[ordinal.applyAsInt(value)].clear(document);
+        }
+    }
+
+    private static BitSet[] newBitSets(final int count) {
+        final var bitSets = new BitSet[count];
+        Arrays.setAll(bitSets, i -> new BitSet());
+        return bitSets;
+    }
+
+    private record ScheduledEntry(Instant scheduledTime, int document) implements Comparable<ScheduledEntry> {
+
+        static ScheduledEntry lowest(final Instant scheduledTime) {
+            return new ScheduledEntry(scheduledTime, -1);
+        }
+
+        @Override
+        public int compareTo(final ScheduledEntry other) {
+            final var byTime = scheduledTime.compareTo(other.scheduledTime);
+            return byTime != 0 ? byTime : Integer.compare(document, other.document);
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.lifecycle.AfterExample;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class AsyncCommandHandlerTest {
+
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), systemDefault());
+    private final AtomicInteger idSequence = new AtomicInteger();
+    private final ReminderEventStore eventStore = mock(ReminderEventStore.class);
+    private final List<AsyncCommandHandler> commandHandlers = new ArrayList<>();
+
+    @AfterExample
+    void closeCommandHandlers() {
+        commandHandlers.forEach(AsyncCommandHandler::close);
+    }
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_limits() {
+        final var delegate = new CommandHandler(eventStore, () -> "1", clock);
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new AsyncCommandHandler(delegate, 0, 1))
+                .withMessage("Max number of commands in flight is expected to be positive - value: 0");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new AsyncCommandHandler(delegate, 1, 0))
+                .withMessage("Max concurrency is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_complete_with_state_of_scheduled_reminder() throws Exception {
+        given(eventStore.find(anyString())).willReturn(Optional.empty());
+
+        final var state = commandHandler(10, 10).schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(state.id()).isEqualTo("REMINDER1");
+        assertThat(state.scheduledTime()).isEqualTo(A_DATE_IN_THE_FUTURE);
+    }
+
+    @Example
+    void should_complete_exceptionally_with_failure_of_command() {
+        given(eventStore.find("UNKNOWN")).willReturn(Optional.empty());
+
+        assertThat(commandHandler(10, 10).cancel("UNKNOWN"))
+                .failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class)
+                .havingRootCause()
+                .isInstanceOf(IllegalStateException.class)
+                .withMessage("Unexpected command: reminder ID does not exist");
+    }
+
+    @Example
+    void should_reject_commands_beyond_max_number_in_flight() {
+        final var release = new CountDownLatch(1);
+        given(eventStore.find(anyString())).willAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+        final var commandHandler = commandHandler(2, 2);
+        final var first = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        final var second = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+
+        assertThat(commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE))
+                .failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class)
+                .withCauseInstanceOf(RejectedExecutionException.class)
+                .withMessageContaining("Command rejected: 2 commands are already in flight");
+
+        release.countDown();
+        assertThat(CompletableFuture.allOf(first, second)).succeedsWithin(10, TimeUnit.SECONDS);
+        assertThat(commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE)).succeedsWithin(10, TimeUnit.SECONDS);
+    }
+
+    @Example
+    void should_not_run_more_commands_at_once_than_max_concurrency() {
+        final var running = new AtomicInteger();
+        final var maxRunning = new AtomicInteger();
+        given(eventStore.find(anyString())).willAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return Optional.empty();
+        });
+        final var commandHandler = commandHandler(100, 3);
+
+        final List<CompletableFuture<ReminderState>> futures = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            futures.add(commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE));
+        }
+
+        assertThat(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))).succeedsWithin(10, TimeUnit.SECONDS);
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    private AsyncCommandHandler commandHandler(final int maxInFlight, final int maxConcurrency) {
+        final var commandHandler = new AsyncCommandHandler(
+                new CommandHandler(eventStore, () -> "REMINDER" + idSequence.incrementAndGet(), clock), maxInFlight, maxConcurrency);
+        commandHandlers.add(commandHandler);
+        return commandHandler;
+    }
+
+}
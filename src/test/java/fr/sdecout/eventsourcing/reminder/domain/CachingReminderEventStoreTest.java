@@ -0,0 +1,141 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+class CachingReminderEventStoreTest {
+
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), systemDefault());
+    private final ReminderEventStore delegate = mock(ReminderEventStore.class);
+    private final CachingReminderEventStore eventStore = new CachingReminderEventStore(delegate, clock, 100);
+
+    @Example
+    void should_reuse_saved_state_while_it_is_the_stream_head() {
+        final var aggregate = scheduledReminder();
+        eventStore.save(aggregate, defaultStreamRevision());
+        given(delegate.headRevision("REMINDER1")).willReturn(Optional.of(new StreamRevision(1)));
+
+        assertThat(eventStore.find("REMINDER1").map(ReminderAggregate::state)).contains(aggregate.state());
+        then(delegate).should(never()).find(any());
+    }
+
+    @Example
+    void should_rehydrate_reminder_updated_elsewhere() {
+        eventStore.save(scheduledReminder(), defaultStreamRevision());
+        final var updatedAggregate = scheduledReminder();
+        updatedAggregate.assignTo("OPERATOR1");
+        given(delegate.headRevision("REMINDER1")).willReturn(Optional.of(new StreamRevision(2)));
+        given(delegate.find("REMINDER1")).willReturn(Optional.of(updatedAggregate));
+
+        assertThat(eventStore.find("REMINDER1").map(ReminderAggregate::state)).contains(updatedAggregate.state());
+        assertThat(eventStore.find("REMINDER1").map(ReminderAggregate::state)).contains(updatedAggregate.state());
+        then(delegate).should(times(1)).find("REMINDER1");
+    }
+
+    @Example
+    void should_fast_forward_cached_state_on_save() {
+        final var aggregate = scheduledReminder();
+        eventStore.save(aggregate, defaultStreamRevision());
+        final var reloadedAggregate = new ReminderAggregate(aggregate.state(), ReminderEventStream.emptyEventStream(), clock);
+        reloadedAggregate.assignTo("OPERATOR1");
+        eventStore.save(reloadedAggregate, new StreamRevision(1));
+        given(delegate.headRevision("REMINDER1")).willReturn(Optional.of(new StreamRevision(2)));
+
+        assertThat(eventStore.find("REMINDER1").map(ReminderAggregate::state)).contains(reloadedAggregate.state());
+        then(delegate).should(never()).find(any());
+    }
+
+    @Example
+    void should_not_find_reminder_absent_from_delegate() {
+        eventStore.save(scheduledReminder(), defaultStreamRevision());
+        given(delegate.headRevision("REMINDER1")).willReturn(Optional.empty());
+
+        assertThat(eventStore.find("REMINDER1")).isEmpty();
+    }
+
+    @Example
+    void should_forget_cached_state_on_conflict() {
+        final var aggregate = scheduledReminder();
+        eventStore.save(aggregate, defaultStreamRevision());
+        final var conflictingAggregate = new ReminderAggregate(aggregate.state(), ReminderEventStream.emptyEventStream(), clock);
+        conflictingAggregate.cancel();
+        final var conflict = new StreamRevisionConflictException("REMINDER1", new StreamRevision(1), new StreamRevision(2));
+        willThrow(conflict).given(delegate).save(conflictingAggregate, new StreamRevision(1));
+
+        assertThatThrownBy(() -> eventStore.save(conflictingAggregate, new StreamRevision(1))).isSameAs(conflict);
+        given(delegate.headRevision("REMINDER1")).willReturn(Optional.of(new StreamRevision(1)));
+        given(delegate.find("REMINDER1")).willReturn(Optional.of(aggregate));
+        eventStore.find("REMINDER1");
+        then(delegate).should().find("REMINDER1");
+    }
+
+    @Example
+    void should_only_load_reminders_missing_from_cache_when_finding_many_at_once() {
+        final var cachedAggregate = scheduledReminder("REMINDER1");
+        eventStore.save(cachedAggregate, defaultStreamRevision());
+        final var missingAggregate = scheduledReminder("REMINDER2");
+        given(delegate.headRevision("REMINDER1")).willReturn(Optional.of(new StreamRevision(1)));
+        given(delegate.headRevision("REMINDER2")).willReturn(Optional.of(new StreamRevision(1)));
+        given(delegate.headRevision("UNKNOWN")).willReturn(Optional.empty());
+        given(delegate.findAll(List.of("REMINDER2"))).willReturn(List.of(missingAggregate));
+
+        assertThat(eventStore.findAll(List.of("REMINDER2", "UNKNOWN", "REMINDER1")))
+                .extracting(ReminderAggregate::state)
+                .containsExactly(missingAggregate.state(), cachedAggregate.state());
+        assertThat(eventStore.find("REMINDER2").map(ReminderAggregate::state)).contains(missingAggregate.state());
+        then(delegate).should(never()).find(any());
+    }
+
+    @Example
+    void should_cache_saved_states_and_forget_rejected_ones_when_saving_many_at_once() {
+        eventStore.save(scheduledReminder("REMINDER2"), defaultStreamRevision());
+        final var savedAggregate = scheduledReminder("REMINDER1");
+        final var rejectedAggregate = new ReminderAggregate(scheduledReminder("REMINDER2").state(), ReminderEventStream.emptyEventStream(), clock);
+        rejectedAggregate.cancel();
+        given(delegate.saveAll(any())).willReturn(Map.of("REMINDER2",
+                new StreamRevisionConflictException("REMINDER2", new StreamRevision(1), new StreamRevision(2))));
+
+        assertThat(eventStore.saveAll(List.of(
+                new ReminderSave(savedAggregate, defaultStreamRevision()),
+                new ReminderSave(rejectedAggregate, new StreamRevision(1))))).containsOnlyKeys("REMINDER2");
+        given(delegate.headRevision("REMINDER1")).willReturn(Optional.of(new StreamRevision(1)));
+        given(delegate.headRevision("REMINDER2")).willReturn(Optional.of(new StreamRevision(1)));
+        given(delegate.find("REMINDER2")).willReturn(Optional.of(scheduledReminder("REMINDER2")));
+        assertThat(eventStore.find("REMINDER1").map(ReminderAggregate::state)).contains(savedAggregate.state());
+        eventStore.find("REMINDER2");
+        then(delegate).should(never()).find("REMINDER1");
+        then(delegate).should().find("REMINDER2");
+    }
+
+    private ReminderAggregate scheduledReminder() {
+        return scheduledReminder("REMINDER1");
+    }
+
+    private ReminderAggregate scheduledReminder(final String reminderId) {
+        return ReminderAggregate.scheduleNewReminder(reminderId, "INTERVENTION1", CALL_CUSTOMER,
+                CommandHandler.DEFAULT_COUNTRY, A_DATE_IN_THE_FUTURE, clock);
+    }
+
+}
@@ -0,0 +1,142 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class CatchUpSubscriptionTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+
+    private final ListEventLog eventLog = new ListEventLog();
+    private final RecordingCheckpointStore checkpoints = new RecordingCheckpointStore();
+    private final List<Long> delivered = new ArrayList<>();
+    private final List<Long> endsOfBatch = new ArrayList<>();
+    private final ReminderEventSubscriber subscriber = (event, position, endOfBatch) -> {
+        delivered.add(position);
+        if (endOfBatch) {
+            endsOfBatch.add(position);
+        }
+    };
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_batch_size() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new CatchUpSubscription("projection", eventLog, checkpoints, subscriber, 0, 10))
+                .withMessage("Batch size is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_checkpoint_interval() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new CatchUpSubscription("projection", eventLog, checkpoints, subscriber, 10, 0))
+                .withMessage("Checkpoint interval is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_catch_up_history_in_batches_from_checkpoint() {
+        eventLog.append(25);
+        checkpoints.save("projection", 5);
+        final var subscription = new CatchUpSubscription("projection", eventLog, checkpoints, subscriber, 8, 100);
+
+        subscription.catchUp();
+
+        assertThat(delivered).containsExactlyElementsOf(positions(6, 25));
+        assertThat(endsOfBatch).containsExactly(13L, 21L, 25L);
+        assertThat(eventLog.reads).isEqualTo(3);
+        assertThat(subscription.position()).isEqualTo(25);
+    }
+
+    @Example
+    void should_switch_to_live_events_without_gaps_nor_duplicates() {
+        eventLog.append(10);
+        final var subscription = new CatchUpSubscription("projection", eventLog, checkpoints, subscriber, 4, 100);
+        subscription.catchUp();
+        eventLog.append(5);
+
+        liveEvent(subscription, 9);
+        liveEvent(subscription, 11);
+        liveEvent(subscription, 12);
+        liveEvent(subscription, 15);
+        liveEvent(subscription, 14);
+
+        assertThat(delivered).containsExactlyElementsOf(positions(1, 15));
+    }
+
+    @Example
+    void should_catch_up_history_when_first_live_event_is_received() {
+        eventLog.append(20);
+        final var subscription = new CatchUpSubscription("projection", eventLog, checkpoints, subscriber, 8, 100);
+
+        liveEvent(subscription, 20);
+
+        assertThat(delivered).containsExactlyElementsOf(positions(1, 20));
+    }
+
+    @Example
+    void should_fail_when_events_are_missing_from_log() {
+        eventLog.append(2);
+        final var subscription = new CatchUpSubscription("projection", eventLog, checkpoints, subscriber);
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> liveEvent(subscription, 5))
+                .withMessage("Events missing from the log for subscription 'projection': 3 to 4");
+        assertThat(delivered).containsExactly(1L, 2L);
+    }
+
+    @Example
+    void should_save_checkpoints_in_batches_at_end_of_batch() {
+        eventLog.append(50);
+        final var subscription = new CatchUpSubscription("projection", eventLog, checkpoints, subscriber, 10, 25);
+
+        subscription.catchUp();
+        assertThat(checkpoints.saved).containsExactly(30L);
+        subscription.close();
+
+        assertThat(checkpoints.saved).containsExactly(30L, 50L);
+        assertThat(new CatchUpSubscription("projection", eventLog, checkpoints, subscriber).position()).isEqualTo(50);
+    }
+
+    @Example
+    void should_deliver_again_event_whose_delivery_failed() {
+        eventLog.append(3);
+        final List<Long> received = new ArrayList<>();
+        final var failures = new int[]{1};
+        final var subscription = new CatchUpSubscription("projection", eventLog, checkpoints, (event, position, endOfBatch) -> {
+            if (position == 2 && failures[0]-- > 0) {
+                throw new IllegalStateException("Failure of subscriber");
+            }
+            received.add(position);
+        });
+
+        liveEvent(subscription, 1);
+        try {
+            liveEvent(subscription, 2);
+        } catch (IllegalStateException e) {
+            // Live feed moves on to the next event
+        }
+        liveEvent(subscription, 3);
+
+        assertThat(received).containsExactly(1L, 2L, 3L);
+    }
+
+    private void liveEvent(final CatchUpSubscription subscription, final long position) {
+        subscription.onEvent(new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision((int) position + 1), NOW, "OPERATOR1"), position, true);
+    }
+
+    private static List<Long> positions(final long from, final long to) {
+        final List<Long> positions = new ArrayList<>();
+        for (var position = from; position <= to; position++) {
+            positions.add(position);
+        }
+        return positions;
+    }
+
+}
@@ -1,14 +1,20 @@
 package fr.sdecout.eventsourcing.reminder.domain;
 
 import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
 import org.mockito.Mockito;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static fr.sdecout.eventsourcing.reminder.domain.CommandHandler.DEFAULT_COUNTRY;
 import static fr.sdecout.eventsourcing.reminder.domain.ReminderEventStream.emptyEventStream;
@@ -17,11 +23,16 @@ import static java.time.ZoneId.systemDefault;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 
 class CommandHandlerTest {
 
@@ -43,7 +54,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderScheduled(NEXT_ID, new StreamRevision(1), NOW, interventionId, reminderType, DEFAULT_COUNTRY, scheduledTime)
-        ));
+        ), eq(new StreamRevision(0)));
         assertThat(state.id()).isEqualTo(NEXT_ID);
     }
 
@@ -65,7 +76,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderRescheduled(reminderId, new StreamRevision(2), NOW, scheduledTime)
-        ));
+        ), eq(new StreamRevision(1)));
     }
 
     @Property
@@ -76,7 +87,7 @@ class CommandHandlerTest {
         assertThatIllegalStateException()
                 .isThrownBy(() -> commandHandler.reschedule(reminderId, scheduledTime))
                 .withMessage("Unexpected command: reminder ID does not exist");
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -87,7 +98,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.reschedule(reminderId, scheduledTime))
                 .withMessage("Update denied for reminder '%s' (status: 'CANCELLED'): reschedule to %s", reminderId, scheduledTime);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -98,7 +109,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.reschedule(reminderId, scheduledTime))
                 .withMessage("Update denied for reminder '%s' (status: 'DONE'): reschedule to %s", reminderId, scheduledTime);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -110,7 +121,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderReopened(reminderId, new StreamRevision(3), NOW)
-        ));
+        ), eq(new StreamRevision(2)));
     }
 
     @Property
@@ -122,7 +133,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderReopened(reminderId, new StreamRevision(3), NOW)
-        ));
+        ), eq(new StreamRevision(2)));
     }
 
     @Property
@@ -133,7 +144,7 @@ class CommandHandlerTest {
         assertThatIllegalStateException()
                 .isThrownBy(() -> commandHandler.reopen(reminderId))
                 .withMessage("Unexpected command: reminder ID does not exist");
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -143,7 +154,7 @@ class CommandHandlerTest {
 
         commandHandler.reopen(reminderId);
 
-        then(eventStore).should().save(aggregateWithPendingEvents());
+        then(eventStore).should().save(aggregateWithPendingEvents(), eq(new StreamRevision(1)));
     }
 
     @Property
@@ -155,7 +166,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderCancelled(reminderId, new StreamRevision(2), NOW)
-        ));
+        ), eq(new StreamRevision(1)));
     }
 
     @Property
@@ -166,7 +177,7 @@ class CommandHandlerTest {
         assertThatIllegalStateException()
                 .isThrownBy(() -> commandHandler.cancel(reminderId))
                 .withMessage("Unexpected command: reminder ID does not exist");
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -176,7 +187,7 @@ class CommandHandlerTest {
 
         commandHandler.cancel(reminderId);
 
-        then(eventStore).should().save(aggregateWithPendingEvents());
+        then(eventStore).should().save(aggregateWithPendingEvents(), eq(new StreamRevision(2)));
     }
 
     @Property
@@ -187,7 +198,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.cancel(reminderId))
                 .withMessage("Update denied for reminder '%s' (status: 'DONE'): cancel", reminderId);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -199,7 +210,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderMarkedAsDone(reminderId, new StreamRevision(2), NOW)
-        ));
+        ), eq(new StreamRevision(1)));
     }
 
     @Property
@@ -210,7 +221,7 @@ class CommandHandlerTest {
         assertThatIllegalStateException()
                 .isThrownBy(() -> commandHandler.markAsDone(reminderId))
                 .withMessage("Unexpected command: reminder ID does not exist");
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -220,7 +231,7 @@ class CommandHandlerTest {
 
         commandHandler.markAsDone(reminderId);
 
-        then(eventStore).should().save(aggregateWithPendingEvents());
+        then(eventStore).should().save(aggregateWithPendingEvents(), eq(new StreamRevision(2)));
     }
 
     @Property
@@ -230,7 +241,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.markAsDone(reminderId))
                 .withMessage("Update denied for reminder '%s' (status: 'CANCELLED'): mark as done", reminderId);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -242,7 +253,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderAssigned(reminderId, new StreamRevision(2), NOW, assignee)
-        ));
+        ), eq(new StreamRevision(1)));
     }
 
     @Property
@@ -253,7 +264,7 @@ class CommandHandlerTest {
         assertThatIllegalStateException()
                 .isThrownBy(() -> commandHandler.assign(reminderId, assignee))
                 .withMessage("Unexpected command: reminder ID does not exist");
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -264,7 +275,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.assign(reminderId, assignee))
                 .withMessage("Update denied for reminder '%s' (status: 'CANCELLED'): assign to %s", reminderId, assignee);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -275,7 +286,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.assign(reminderId, assignee))
                 .withMessage("Update denied for reminder '%s' (status: 'DONE'): assign to %s", reminderId, assignee);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -287,7 +298,7 @@ class CommandHandlerTest {
 
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderUnassigned(reminderId, new StreamRevision(2), NOW)
-        ));
+        ), eq(new StreamRevision(1)));
     }
 
     @Property
@@ -298,7 +309,7 @@ class CommandHandlerTest {
         assertThatIllegalStateException()
                 .isThrownBy(() -> commandHandler.unassign(reminderId))
                 .withMessage("Unexpected command: reminder ID does not exist");
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -309,7 +320,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.unassign(reminderId))
                 .withMessage("Update denied for reminder '%s' (status: 'CANCELLED'): unassign", reminderId);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -320,7 +331,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.unassign(reminderId))
                 .withMessage("Update denied for reminder '%s' (status: 'DONE'): unassign", reminderId);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -333,7 +344,7 @@ class CommandHandlerTest {
         then(eventStore).should().save(aggregateWithPendingEvents(
                 new ReminderEvent.ReminderUnassigned(reminderId, new StreamRevision(2), NOW),
                 new ReminderEvent.ReminderTransferred(reminderId, new StreamRevision(3), NOW, country)
-        ));
+        ), eq(new StreamRevision(1)));
     }
 
     @Property
@@ -344,7 +355,7 @@ class CommandHandlerTest {
         assertThatIllegalStateException()
                 .isThrownBy(() -> commandHandler.transfer(reminderId, country))
                 .withMessage("Unexpected command: reminder ID does not exist");
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -355,7 +366,7 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.transfer(reminderId, country))
                 .withMessage("Update denied for reminder '%s' (status: 'CANCELLED'): transfer to %s", reminderId, country);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
     }
 
     @Property
@@ -366,7 +377,210 @@ class CommandHandlerTest {
         assertThatExceptionOfType(InvalidUpdateDeniedException.class)
                 .isThrownBy(() -> commandHandler.transfer(reminderId, country))
                 .withMessage("Update denied for reminder '%s' (status: 'DONE'): transfer to %s", reminderId, country);
-        then(eventStore).should(never()).save(any());
+        then(eventStore).should(never()).save(any(), any());
+    }
+
+    @Property
+    void should_decide_again_on_fresh_state_after_conflicting_update(@ForAll String reminderId, @ForAll String assignee) {
+        Mockito.reset(eventStore);
+        final var retryingCommandHandler = new CommandHandler(eventStore, idGenerator, clock, new RetryPolicy(3, Duration.ZERO, Duration.ZERO));
+        given(eventStore.find(reminderId)).willReturn(Optional.of(aPendingReminder(reminderId, clock)), Optional.of(aCancelledReminder(reminderId, clock)));
+        willThrow(new StreamRevisionConflictException(reminderId, new StreamRevision(1), new StreamRevision(2)))
+                .given(eventStore).save(any(), eq(new StreamRevision(1)));
+
+        assertThatExceptionOfType(InvalidUpdateDeniedException.class)
+                .isThrownBy(() -> retryingCommandHandler.assign(reminderId, assignee))
+                .withMessage("Update denied for reminder '%s' (status: 'CANCELLED'): assign to %s", reminderId, assignee);
+        assertThat(retryingCommandHandler.conflictMetrics().conflicts()).isEqualTo(1);
+        assertThat(retryingCommandHandler.conflictMetrics().retries()).isEqualTo(1);
+        assertThat(retryingCommandHandler.conflictMetrics().failures()).isZero();
+    }
+
+    @Property
+    void should_give_up_after_last_allowed_attempt(@ForAll String reminderId) {
+        Mockito.reset(eventStore);
+        final var retryingCommandHandler = new CommandHandler(eventStore, idGenerator, clock, new RetryPolicy(3, Duration.ZERO, Duration.ZERO));
+        given(eventStore.find(reminderId)).willAnswer(invocation -> Optional.of(aPendingReminder(reminderId, clock)));
+        willThrow(new StreamRevisionConflictException(reminderId, new StreamRevision(1), new StreamRevision(2)))
+                .given(eventStore).save(any(), any());
+
+        assertThatExceptionOfType(StreamRevisionConflictException.class)
+                .isThrownBy(() -> retryingCommandHandler.cancel(reminderId))
+                .withMessage("Conflicting update of stream '%s': expected revision V1, found V2", reminderId);
+        then(eventStore).should(times(3)).save(any(), eq(new StreamRevision(1)));
+        assertThat(retryingCommandHandler.conflictMetrics().conflicts()).isEqualTo(3);
+        assertThat(retryingCommandHandler.conflictMetrics().retries()).isEqualTo(2);
+        assertThat(retryingCommandHandler.conflictMetrics().failures()).isEqualTo(1);
+    }
+
+    @Example
+    void should_handle_batch_of_commands_with_one_load_and_one_save() {
+        Mockito.reset(eventStore);
+        given(eventStore.findAll(reminderIds("REMINDER1", "REMINDER2", "REMINDER3")))
+                .willReturn(List.of(aPendingReminder("REMINDER1", clock), aPendingReminder("REMINDER2", clock)));
+        given(eventStore.saveAll(anyList())).willReturn(Map.of());
+
+        final var results = commandHandler.handleAll(List.of(
+                new ReminderCommand.Assign("REMINDER1", "OPERATOR1"),
+                new ReminderCommand.Cancel("REMINDER2"),
+                new ReminderCommand.Reopen("REMINDER3"),
+                new ReminderCommand.Reschedule("REMINDER1", A_DATE_IN_THE_FUTURE.plusDays(1))
+        ));
+
+        assertThat(results).extracting(ReminderCommandResult::command).containsExactly(
+                new ReminderCommand.Assign("REMINDER1", "OPERATOR1"),
+                new ReminderCommand.Cancel("REMINDER2"),
+                new ReminderCommand.Reopen("REMINDER3"),
+                new ReminderCommand.Reschedule("REMINDER1", A_DATE_IN_THE_FUTURE.plusDays(1))
+        );
+        assertThat(results).extracting(ReminderCommandResult::isSuccessful).containsExactly(true, true, false, true);
+        assertThat(results.get(2).failure()).hasMessage("Unexpected command: reminder ID does not exist");
+        then(eventStore).should().saveAll(argThat(saves -> saves.size() == 2
+                && saves.get(0).reminderAggregate().pendingEvents().equals(List.of(
+                        new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision(2), NOW, "OPERATOR1"),
+                        new ReminderEvent.ReminderRescheduled("REMINDER1", new StreamRevision(3), NOW, A_DATE_IN_THE_FUTURE.plusDays(1))))
+                && saves.get(0).expectedRevision().equals(new StreamRevision(1))
+                && saves.get(1).reminderAggregate().pendingEvents().equals(List.of(
+                        new ReminderEvent.ReminderCancelled("REMINDER2", new StreamRevision(2), NOW)))));
+        then(eventStore).should(never()).find(any());
+        then(eventStore).should(never()).save(any(), any());
+    }
+
+    @Example
+    void should_fail_only_commands_that_cannot_be_applied_in_batch() {
+        Mockito.reset(eventStore);
+        given(eventStore.findAll(anyCollection())).willReturn(List.of(aCancelledReminder("REMINDER1", clock)));
+        given(eventStore.saveAll(anyList())).willReturn(Map.of());
+
+        final var results = commandHandler.handleAll(List.of(
+                new ReminderCommand.Assign("REMINDER1", "OPERATOR1"),
+                new ReminderCommand.Reopen("REMINDER1"),
+                new ReminderCommand.Assign("REMINDER1", "OPERATOR1")
+        ));
+
+        assertThat(results).extracting(ReminderCommandResult::isSuccessful).containsExactly(false, true, true);
+        assertThat(results.get(0).failure()).isInstanceOf(InvalidUpdateDeniedException.class);
+        then(eventStore).should().saveAll(argThat(saves -> saves.size() == 1
+                && saves.get(0).reminderAggregate().pendingEvents().size() == 2
+                && saves.get(0).expectedRevision().equals(new StreamRevision(2))));
+    }
+
+    @Example
+    void should_record_latency_of_commands_and_count_denied_ones() {
+        Mockito.reset(eventStore);
+        final var metrics = new ReminderMetrics();
+        final var meteredCommandHandler = new CommandHandler(eventStore, idGenerator, clock, RetryPolicy.defaultRetryPolicy(), metrics);
+        given(eventStore.find("REMINDER1")).willReturn(Optional.of(aPendingReminder("REMINDER1", clock)));
+        given(eventStore.find("REMINDER2")).willReturn(Optional.of(aCancelledReminder("REMINDER2", clock)));
+        given(eventStore.findAll(anyCollection())).willReturn(List.of(aCancelledReminder("REMINDER2", clock)));
+        given(eventStore.saveAll(anyList())).willReturn(Map.of());
+
+        meteredCommandHandler.assign("REMINDER1", "OPERATOR1");
+        assertThatExceptionOfType(InvalidUpdateDeniedException.class)
+                .isThrownBy(() -> meteredCommandHandler.assign("REMINDER2", "OPERATOR1"));
+        meteredCommandHandler.handleAll(List.of(new ReminderCommand.MarkAsDone("REMINDER2"), new ReminderCommand.Reopen("REMINDER2")));
+
+        assertThat(metrics.commandLatency(ReminderMetrics.CommandType.ASSIGN).count()).isEqualTo(2);
+        assertThat(metrics.commandLatency(ReminderMetrics.CommandType.BATCH).count()).isEqualTo(1);
+        assertThat(metrics.commandLatency(ReminderMetrics.CommandType.MARK_AS_DONE).count()).isZero();
+        assertThat(metrics.deniedCommands(ReminderMetrics.CommandType.ASSIGN)).isEqualTo(1);
+        assertThat(metrics.deniedCommands(ReminderMetrics.CommandType.MARK_AS_DONE)).isEqualTo(1);
+        assertThat(metrics.deniedCommands(ReminderMetrics.CommandType.REOPEN)).isZero();
+    }
+
+    @Example
+    void should_report_commands_with_duration_of_their_phases_to_flight_recorder() {
+        Mockito.reset(eventStore);
+        given(eventStore.find("REMINDER1")).willReturn(Optional.of(aPendingReminder("REMINDER1", clock)));
+        given(eventStore.find("REMINDER2")).willReturn(Optional.of(aCancelledReminder("REMINDER2", clock)));
+
+        final var events = FlightRecording.record("fr.sdecout.eventsourcing.reminder.Command", () -> {
+            commandHandler.assign("REMINDER1", "OPERATOR1");
+            assertThatExceptionOfType(InvalidUpdateDeniedException.class)
+                    .isThrownBy(() -> commandHandler.assign("REMINDER2", "OPERATOR1"));
+        });
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getString("command")).isEqualTo("ASSIGN");
+        assertThat(events.get(0).getString("reminderId")).isEqualTo("REMINDER1");
+        assertThat(events.get(0).getInt("attempts")).isEqualTo(1);
+        assertThat(events.get(0).getInt("streamLength")).isEqualTo(1);
+        assertThat(events.get(0).getInt("eventCount")).isEqualTo(1);
+        assertThat(events.get(0).getDuration("loadDuration")).isPositive();
+        assertThat(events.get(0).getDuration("saveDuration")).isPositive();
+        assertThat(events.get(0).getString("failure")).isNull();
+        assertThat(events.get(1).getString("reminderId")).isEqualTo("REMINDER2");
+        assertThat(events.get(1).getString("failure")).isEqualTo("InvalidUpdateDeniedException");
+    }
+
+    @Example
+    void should_log_slow_commands_with_time_spent_in_each_phase() {
+        Mockito.reset(eventStore);
+        final List<SlowCommand> slowCommands = new CopyOnWriteArrayList<>();
+        final var slowCommandLog = new SlowCommandLog(Duration.ZERO, 8, slowCommands::add);
+        final var loggingCommandHandler = new CommandHandler(eventStore, idGenerator, clock, new RetryPolicy(3, Duration.ZERO, Duration.ZERO),
+                new ReminderMetrics(), slowCommandLog);
+        given(eventStore.find("REMINDER1")).willAnswer(invocation -> Optional.of(aPendingReminder("REMINDER1", clock)));
+        willThrow(new StreamRevisionConflictException("REMINDER1", new StreamRevision(1), new StreamRevision(2)))
+                .willDoNothing()
+                .given(eventStore).save(any(), any());
+
+        loggingCommandHandler.assign("REMINDER1", "OPERATOR1");
+        slowCommandLog.close();
+
+        assertThat(slowCommands).hasSize(1);
+        final var slowCommand = slowCommands.get(0);
+        assertThat(slowCommand.commandType()).isEqualTo(ReminderMetrics.CommandType.ASSIGN);
+        assertThat(slowCommand.reminderId()).isEqualTo("REMINDER1");
+        assertThat(slowCommand.retries()).isEqualTo(1);
+        assertThat(slowCommand.replayedEvents()).isEqualTo(2);
+        assertThat(slowCommand.snapshotHit()).isFalse();
+        assertThat(slowCommand.failure()).isNull();
+        assertThat(slowCommand.load().plus(slowCommand.replay()).plus(slowCommand.decide()).plus(slowCommand.save()))
+                .isPositive()
+                .isLessThanOrEqualTo(slowCommand.duration());
+    }
+
+    @Example
+    void should_decide_again_only_for_reminders_with_conflicting_update_in_batch() {
+        Mockito.reset(eventStore);
+        final var retryingCommandHandler = new CommandHandler(eventStore, idGenerator, clock, new RetryPolicy(3, Duration.ZERO, Duration.ZERO));
+        given(eventStore.findAll(reminderIds("REMINDER1", "REMINDER2")))
+                .willReturn(List.of(aPendingReminder("REMINDER1", clock), aPendingReminder("REMINDER2", clock)));
+        given(eventStore.findAll(reminderIds("REMINDER1"))).willReturn(List.of(aCancelledReminder("REMINDER1", clock)));
+        given(eventStore.saveAll(anyList())).willReturn(
+                Map.of("REMINDER1", new StreamRevisionConflictException("REMINDER1", new StreamRevision(1), new StreamRevision(2))),
+                Map.of());
+
+        final var results = retryingCommandHandler.handleAll(List.of(
+                new ReminderCommand.Cancel("REMINDER1"),
+                new ReminderCommand.MarkAsDone("REMINDER2")
+        ));
+
+        assertThat(results).extracting(ReminderCommandResult::isSuccessful).containsExactly(true, true);
+        then(eventStore).should(times(2)).saveAll(anyList());
+        assertThat(retryingCommandHandler.conflictMetrics().conflicts()).isEqualTo(1);
+        assertThat(retryingCommandHandler.conflictMetrics().retries()).isEqualTo(1);
+        assertThat(retryingCommandHandler.conflictMetrics().failures()).isZero();
+    }
+
+    @Example
+    void should_fail_commands_of_reminder_after_last_allowed_attempt_in_batch() {
+        Mockito.reset(eventStore);
+        final var retryingCommandHandler = new CommandHandler(eventStore, idGenerator, clock, new RetryPolicy(2, Duration.ZERO, Duration.ZERO));
+        given(eventStore.findAll(anyCollection())).willAnswer(invocation -> List.of(aPendingReminder("REMINDER1", clock)));
+        given(eventStore.saveAll(anyList())).willReturn(
+                Map.of("REMINDER1", new StreamRevisionConflictException("REMINDER1", new StreamRevision(1), new StreamRevision(2))));
+
+        final var results = retryingCommandHandler.handleAll(List.of(
+                new ReminderCommand.Unassign("REMINDER1"),
+                new ReminderCommand.Transfer("REMINDER1", Country.of("BE"))
+        ));
+
+        assertThat(results).extracting(ReminderCommandResult::isSuccessful).containsExactly(false, false);
+        assertThat(results.get(1).failure()).isInstanceOf(StreamRevisionConflictException.class);
+        then(eventStore).should(times(2)).saveAll(anyList());
+        assertThat(retryingCommandHandler.conflictMetrics().failures()).isEqualTo(1);
     }
 
     private static ReminderAggregate aPendingReminder(final String reminderId, final Clock clock) {
@@ -394,4 +608,8 @@ class CommandHandlerTest {
                 && aggregate.pendingEvents().containsAll(asList(events)));
     }
 
+    private static Collection<String> reminderIds(final String... reminderIds) {
+        return argThat(ids -> ids != null && List.copyOf(ids).equals(asList(reminderIds)));
+    }
+
 }
@@ -48,4 +48,31 @@ class CountryTest {
                 .withMessage("Country code is expected to consist in exactly 2 upper-case alphabetic characters - value: '%s'", code);
     }
 
+    @Property
+    void should_return_canonical_instance(@ForAll @StringLength(2) @AlphaChars String code) {
+        assertThat(Country.of(code))
+                .isEqualTo(new Country(code))
+                .isSameAs(Country.of(code.toUpperCase()));
+    }
+
+    @Property
+    void should_fail_to_return_canonical_instance_of_invalid_code(@ForAll @StringLength(min = 3) @UpperChars String code) {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> Country.of(code))
+                .withMessage("Country code is expected to consist in exactly 2 upper-case alphabetic characters - value: '%s'", code);
+    }
+
+    @Property
+    void should_identify_country_with_small_integer(@ForAll Country country) {
+        assertThat(country.id()).isBetween(0, 26 * 26 - 1);
+        assertThat(Country.ofId(country.id())).isEqualTo(country);
+    }
+
+    @Example
+    void should_fail_to_return_country_of_unknown_id() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> Country.ofId(26 * 26))
+                .withMessage("Country ID is expected to be between 0 and 675 - value: 676");
+    }
+
 }
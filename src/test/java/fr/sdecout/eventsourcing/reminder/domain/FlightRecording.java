@@ -0,0 +1,38 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.List;
+
+final class FlightRecording {
+
+    private FlightRecording() {
+    }
+
+    /**
+     * @return events of the given type committed while running the given action
+     */
+    static List<RecordedEvent> record(final String eventName, final Runnable action) {
+        try (final var recording = new Recording()) {
+            recording.enable(eventName).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            final var file = Files.createTempFile("reminders", ".jfr");
+            try {
+                recording.dump(file);
+                return RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class HotStreamDetectorTest {
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_capacity() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new HotStreamDetector(0))
+                .withMessage("Capacity is expected to be positive - value: 0");
+    }
+
+    @Property
+    void should_never_underestimate_recent_updates(@ForAll @IntRange(min = 1, max = 500) int updates) {
+        final var detector = new HotStreamDetector(10);
+
+        for (int update = 1; update <= updates; update++) {
+            detector.recordUpdate("REMINDER1", update);
+            detector.recordUpdate("REMINDER" + (update + 1), 1);
+        }
+
+        assertThat(detector.recentUpdates("REMINDER1")).isGreaterThanOrEqualTo(updates);
+    }
+
+    @Example
+    void should_expose_hottest_streams_among_many_cold_ones() {
+        final var detector = new HotStreamDetector(5);
+
+        for (int round = 1; round <= 200; round++) {
+            detector.recordUpdate("HOT1", round);
+            detector.recordUpdate("HOT2", round);
+            if (round % 2 == 0) {
+                detector.recordUpdate("HOT3", round / 2);
+            }
+            detector.recordUpdate("COLD" + round, 1);
+        }
+
+        assertThat(detector.hottest(3)).extracting(HotStream::reminderId).containsExactly("HOT1", "HOT2", "HOT3");
+        assertThat(detector.hottest(3).get(0)).isEqualTo(new HotStream("HOT1", detector.recentUpdates("HOT1"), 200));
+        assertThat(detector.hottest(10)).hasSize(5);
+    }
+
+    @Example
+    void should_forget_streams_that_are_not_updated_anymore() {
+        final var detector = new HotStreamDetector(1);
+
+        for (int update = 1; update <= 100; update++) {
+            detector.recordUpdate("FORMERLY_HOT", update);
+        }
+        for (int update = 1; update <= 10_000; update++) {
+            detector.recordUpdate("HOT" + update % 8, update);
+        }
+
+        assertThat(detector.recentUpdates("FORMERLY_HOT")).isLessThan(100);
+        assertThat(detector.hottest(1)).extracting(HotStream::reminderId).doesNotContain("FORMERLY_HOT");
+    }
+
+    @Example
+    void should_record_updates_concurrently_without_losing_any() throws Exception {
+        final var detector = new HotStreamDetector(5);
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int task = 0; task < 4; task++) {
+                final var thread = task;
+                tasks.add(() -> {
+                    for (int update = 1; update <= 100; update++) {
+                        detector.recordUpdate("HOT", update);
+                        detector.recordUpdate("COLD" + thread + "-" + update, 1);
+                    }
+                    return null;
+                });
+            }
+            for (final Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(detector.recentUpdates("HOT")).isGreaterThanOrEqualTo(400);
+        assertThat(detector.hottest(1)).extracting(HotStream::reminderId).containsExactly("HOT");
+    }
+
+    @Example
+    void should_never_track_more_streams_than_capacity_when_recording_concurrently() throws Exception {
+        final var detector = new HotStreamDetector(5);
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                final var thread = task;
+                tasks.add(() -> {
+                    for (int update = 1; update <= 2_000; update++) {
+                        detector.recordUpdate("REMINDER" + thread + "-" + update % 50, update);
+                    }
+                    return null;
+                });
+            }
+            for (final Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(detector.hottest(100)).hasSizeLessThanOrEqualTo(5);
+    }
+
+    @Example
+    void should_fail_to_expose_non_positive_number_of_hottest_streams() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new HotStreamDetector().hottest(0))
+                .withMessage("Count is expected to be positive - value: 0");
+    }
+
+}
@@ -0,0 +1,71 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.LongRange;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Example
+    void should_report_nothing_before_first_record() {
+        final var histogram = new LatencyHistogram();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.mean()).isEqualTo(Duration.ZERO);
+        assertThat(histogram.max()).isEqualTo(Duration.ZERO);
+        assertThat(histogram.percentile(99)).isEqualTo(Duration.ZERO);
+    }
+
+    @Property
+    void should_report_recorded_latency_with_relative_precision_better_than_two_percent(@ForAll @LongRange(min = 0, max = 3_600_000_000_000L) long nanos) {
+        final var histogram = new LatencyHistogram();
+
+        histogram.record(nanos);
+
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.max()).isEqualTo(Duration.ofNanos(nanos));
+        assertThat((double) histogram.percentile(50).toNanos()).isCloseTo(nanos, within(nanos * 0.02));
+    }
+
+    @Example
+    void should_report_percentiles_of_recorded_latencies() {
+        final var histogram = new LatencyHistogram();
+
+        for (int micros = 1; micros <= 1_000; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+
+        assertThat(histogram.count()).isEqualTo(1_000);
+        assertThat(histogram.mean()).isEqualTo(Duration.ofNanos(500_500));
+        assertThat(histogram.max()).isEqualTo(Duration.ofMillis(1));
+        assertThat((double) histogram.percentile(50).toNanos()).isCloseTo(500_000, within(10_000.0));
+        assertThat((double) histogram.percentile(99).toNanos()).isCloseTo(990_000, within(20_000.0));
+        assertThat(histogram.percentile(100)).isEqualTo(Duration.ofMillis(1));
+    }
+
+    @Example
+    void should_clamp_latencies_out_of_trackable_range() {
+        final var histogram = new LatencyHistogram();
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.percentile(50)).isEqualTo(Duration.ZERO);
+        assertThat(histogram.max()).isEqualTo(Duration.ofNanos(LatencyHistogram.HIGHEST_TRACKABLE_VALUE));
+    }
+
+    @Example
+    void should_fail_to_report_percentile_out_of_range() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new LatencyHistogram().percentile(101))
+                .withMessage("Percentile is expected to be between 0 and 100 - value: 101.0");
+    }
+
+}
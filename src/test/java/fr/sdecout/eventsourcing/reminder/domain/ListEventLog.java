@@ -0,0 +1,41 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+final class ListEventLog implements ReminderEventLog {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+
+    final List<ReminderEvent> events = new ArrayList<>();
+    int reads;
+
+    void append(final int count) {
+        for (int i = 0; i < count; i++) {
+            events.add(new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision(events.size() + 2), NOW, "OPERATOR1"));
+        }
+    }
+
+    void append(final ReminderEvent... events) {
+        this.events.addAll(List.of(events));
+    }
+
+    @Override
+    public long headPosition() {
+        return events.size();
+    }
+
+    @Override
+    public int read(final long fromPosition, final int maxCount, final ReminderEventSubscriber subscriber) {
+        reads++;
+        final var lastPosition = Math.min(events.size(), fromPosition + maxCount - 1);
+        for (var position = fromPosition; position <= lastPosition; position++) {
+            subscriber.onEvent(events.get((int) position - 1), position, position == lastPosition);
+        }
+        return (int) Math.max(0, lastPosition - fromPosition + 1);
+    }
+
+}
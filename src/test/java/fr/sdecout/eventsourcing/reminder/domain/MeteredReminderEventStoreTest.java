@@ -0,0 +1,99 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.StoreOperation.FIND;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.StoreOperation.SAVE;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.StoreOperation.SAVE_ALL;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+
+class MeteredReminderEventStoreTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), systemDefault());
+    private final ReminderEventStore delegate = mock(ReminderEventStore.class);
+    private final ReminderMetrics metrics = new ReminderMetrics();
+    private final MeteredReminderEventStore eventStore = new MeteredReminderEventStore(delegate, metrics);
+
+    @Example
+    void should_record_latency_of_operations() {
+        eventStore.find("REMINDER1");
+        eventStore.find("REMINDER2");
+
+        assertThat(metrics.storeLatency(FIND).count()).isEqualTo(2);
+        assertThat(metrics.storeLatency(SAVE).count()).isZero();
+    }
+
+    @Example
+    void should_count_events_appended_per_type() {
+        final var aggregate = aScheduledReminder("REMINDER1");
+        aggregate.assignTo("OPERATOR1");
+
+        eventStore.save(aggregate, defaultStreamRevision());
+
+        assertThat(metrics.appendedEvents(ReminderEvent.ReminderScheduled.class)).isEqualTo(1);
+        assertThat(metrics.appendedEvents(ReminderEvent.ReminderAssigned.class)).isEqualTo(1);
+        assertThat(metrics.appendedEvents(ReminderEvent.ReminderCancelled.class)).isZero();
+        assertThat(metrics.storeLatency(SAVE).count()).isEqualTo(1);
+    }
+
+    @Example
+    void should_record_latency_of_failed_save() {
+        final var aggregate = aScheduledReminder("REMINDER1");
+        willThrow(new StreamRevisionConflictException("REMINDER1", defaultStreamRevision(), new StreamRevision(1)))
+                .given(delegate).save(any(), any());
+
+        assertThatExceptionOfType(StreamRevisionConflictException.class)
+                .isThrownBy(() -> eventStore.save(aggregate, defaultStreamRevision()));
+
+        assertThat(metrics.appendedEvents(ReminderEvent.ReminderScheduled.class)).isZero();
+        assertThat(metrics.storeLatency(SAVE).count()).isEqualTo(1);
+    }
+
+    @Example
+    void should_count_events_of_successful_saves_of_batch() {
+        final var saved = aScheduledReminder("REMINDER1");
+        final var conflicting = aScheduledReminder("REMINDER2");
+        given(delegate.saveAll(any())).willReturn(Map.of("REMINDER2",
+                new StreamRevisionConflictException("REMINDER2", defaultStreamRevision(), new StreamRevision(1))));
+
+        eventStore.saveAll(List.of(new ReminderSave(saved, defaultStreamRevision()), new ReminderSave(conflicting, defaultStreamRevision())));
+
+        assertThat(metrics.appendedEvents(ReminderEvent.ReminderScheduled.class)).isEqualTo(1);
+        assertThat(metrics.storeLatency(SAVE_ALL).count()).isEqualTo(1);
+    }
+
+    @Example
+    void should_report_saves_to_flight_recorder() {
+        final var aggregate = aScheduledReminder("REMINDER1");
+
+        final var events = FlightRecording.record("fr.sdecout.eventsourcing.reminder.StoreOperation",
+                () -> eventStore.save(aggregate, defaultStreamRevision()));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("operation")).isEqualTo("SAVE");
+        assertThat(events.get(0).getString("reminderId")).isEqualTo("REMINDER1");
+        assertThat(events.get(0).getInt("eventCount")).isEqualTo(1);
+        assertThat(events.get(0).getString("failure")).isNull();
+    }
+
+    private ReminderAggregate aScheduledReminder(final String reminderId) {
+        return ReminderAggregate.scheduleNewReminder(reminderId, "INTERVENTION1", CALL_CUSTOMER,
+                CommandHandler.DEFAULT_COUNTRY, ZonedDateTime.parse("2022-03-04T11:30:00Z"), clock);
+    }
+
+}
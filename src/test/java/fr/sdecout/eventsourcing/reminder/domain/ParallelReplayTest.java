@@ -0,0 +1,82 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ParallelReplayTest {
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_parallelism() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ParallelReplay.withParallelism(0))
+                .withMessage("Parallelism is expected to be positive - value: 0");
+    }
+
+    @Property(tries = 20)
+    void should_rehydrate_all_sources_in_order(@ForAll @IntRange(min = 1, max = 8) int parallelism,
+                                               @ForAll @IntRange(max = 2000) int sourceCount) {
+        final var sources = IntStream.range(0, sourceCount).boxed().collect(toList());
+
+        try (var parallelReplay = ParallelReplay.withParallelism(parallelism)) {
+            final List<String> results = parallelReplay.rehydrateAll(sources, source -> "REMINDER" + source);
+
+            assertThat(results).containsExactlyElementsOf(sources.stream().map(source -> "REMINDER" + source).collect(toList()));
+        }
+    }
+
+    @Example
+    void should_rehydrate_large_batches_on_replay_threads() {
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        try (var parallelReplay = ParallelReplay.withParallelism(2)) {
+            parallelReplay.rehydrateAll(IntStream.range(0, 1000).boxed().collect(toList()),
+                    source -> threadNames.add(Thread.currentThread().getName()));
+        }
+
+        assertThat(threadNames).isNotEmpty().allSatisfy(name -> assertThat(name).startsWith("reminder-replay-"));
+    }
+
+    @Example
+    void should_fail_to_rehydrate_in_parallel_once_closed() {
+        final var parallelReplay = ParallelReplay.withParallelism(2);
+
+        parallelReplay.close();
+
+        assertThatExceptionOfType(RejectedExecutionException.class)
+                .isThrownBy(() -> parallelReplay.rehydrateAll(IntStream.range(0, 1000).boxed().collect(toList()), source -> source));
+    }
+
+    @Example
+    void should_keep_shared_replays_open_when_closed() {
+        ParallelReplay.defaultParallelReplay().close();
+        ParallelReplay.sequential().close();
+
+        assertThat(ParallelReplay.defaultParallelReplay().rehydrateAll(IntStream.range(0, 1000).boxed().collect(toList()), source -> source))
+                .hasSize(1000);
+    }
+
+    @Example
+    void should_rehydrate_sequentially_on_calling_thread() {
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        ParallelReplay.sequential().rehydrateAll(IntStream.range(0, 1000).boxed().collect(toList()),
+                source -> threadNames.add(Thread.currentThread().getName()));
+
+        assertThat(threadNames).containsExactly(Thread.currentThread().getName());
+        assertThat(ParallelReplay.sequential().parallelism()).isEqualTo(1);
+    }
+
+}
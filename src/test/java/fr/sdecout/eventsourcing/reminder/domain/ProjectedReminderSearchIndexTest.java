@@ -0,0 +1,101 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.CANCELLED;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.PENDING;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class ProjectedReminderSearchIndexTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final ListEventLog eventLog = new ListEventLog();
+    private final RecordingCheckpointStore checkpoints = new RecordingCheckpointStore();
+    private final ProjectedReminderSearchIndex searchIndex = new ProjectedReminderSearchIndex(new MapSearchIndex());
+
+    @Example
+    void should_fail_to_search_before_being_rebuilt_from_event_log() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> searchIndex.search(ReminderSearchCriteria.anyReminder(), 0, 10))
+                .withMessage("Search index is not rebuilt: projection 'reminder-search-index' has not caught up with the event log");
+    }
+
+    @Example
+    void should_index_reminders_saved_before_startup_when_registered() {
+        checkpoints.save(ProjectedReminderSearchIndex.PROJECTION_NAME, 3);
+        eventLog.append(
+                scheduled("REMINDER1"),
+                scheduled("REMINDER2"),
+                new ReminderEvent.ReminderCancelled("REMINDER2", new StreamRevision(2), NOW));
+
+        new ProjectionEngine(eventLog, checkpoints, Clock.fixed(NOW, systemDefault())).register(searchIndex.projection());
+
+        assertThat(searchIndex.search(ReminderSearchCriteria.anyReminder().withStatuses(PENDING), 0, 10).reminders())
+                .extracting(ReminderState::id)
+                .containsExactly("REMINDER1");
+        assertThat(searchIndex.get("REMINDER2")).map(ReminderState::status).contains(CANCELLED);
+    }
+
+    @Example
+    void should_keep_newer_state_indexed_directly() {
+        final var aggregate = ReminderAggregate.scheduleNewReminder("REMINDER1", "INTERVENTION1", CALL_CUSTOMER,
+                CommandHandler.DEFAULT_COUNTRY, A_DATE_IN_THE_FUTURE, Clock.fixed(NOW, systemDefault()));
+        aggregate.cancel();
+        searchIndex.index(aggregate.state());
+
+        searchIndex.projection().onEvent(scheduled("REMINDER1"), 1, true);
+
+        assertThat(searchIndex.get("REMINDER1")).contains(aggregate.state());
+    }
+
+    private static ReminderEvent scheduled(final String reminderId) {
+        return new ReminderEvent.ReminderScheduled(reminderId, new StreamRevision(1), NOW, "INTERVENTION1", CALL_CUSTOMER, new Country("FR"), A_DATE_IN_THE_FUTURE);
+    }
+
+    private static final class MapSearchIndex implements ReminderSearchIndex {
+
+        private final Map<String, ReminderState> states = new ConcurrentHashMap<>();
+
+        @Override
+        public void index(final ReminderState state) {
+            states.merge(state.id(), state, (previous, next) -> next.version().value() > previous.version().value() ? next : previous);
+        }
+
+        @Override
+        public Optional<ReminderState> get(final String reminderId) {
+            return Optional.ofNullable(states.get(reminderId));
+        }
+
+        @Override
+        public void clear() {
+            states.clear();
+        }
+
+        @Override
+        public ReminderSearchResult search(final ReminderSearchCriteria criteria, final int offset, final int limit) {
+            final List<ReminderState> matches = states.values().stream()
+                    .filter(criteria::matches)
+                    .sorted(Comparator.comparing(ReminderState::id))
+                    .collect(toList());
+            return new ReminderSearchResult(matches.subList(Math.min(offset, matches.size()), Math.min(offset + limit, matches.size())), matches.size());
+        }
+
+    }
+
+}
@@ -0,0 +1,211 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+import net.jqwik.api.lifecycle.AfterExample;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ProjectionEngineTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+
+    private final ListEventLog eventLog = new ListEventLog();
+    private final RecordingCheckpointStore checkpoints = new RecordingCheckpointStore();
+    private final ParallelReplay parallelReplay = ParallelReplay.withParallelism(4);
+    private final ProjectionEngine engine = new ProjectionEngine(eventLog, checkpoints, Clock.fixed(NOW, systemDefault()), parallelReplay, 8);
+    private final List<String> handled = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> hooks = new ArrayList<>();
+
+    @AfterExample
+    void closeParallelReplay() {
+        parallelReplay.close();
+    }
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_batch_size() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ProjectionEngine(eventLog, checkpoints, Clock.systemUTC(), ParallelReplay.sequential(), 0))
+                .withMessage("Batch size is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_catch_up_persistent_projection_from_its_checkpoint_when_registered() {
+        eventLog.append(assigned("REMINDER1", 2), assigned("REMINDER1", 3), assigned("REMINDER2", 2));
+        checkpoints.save("assignees", 1);
+
+        engine.register(Projection.named("assignees")
+                .on(ReminderEvent.ReminderAssigned.class, event -> handled.add(event.reminderId() + "@" + event.version()))
+                .persistent()
+                .build());
+
+        assertThat(handled).containsExactly("REMINDER1@V3", "REMINDER2@V2");
+        assertThat(engine.lag()).containsExactly(new ProjectionLag("assignees", 3, 3, Duration.ZERO));
+    }
+
+    @Example
+    void should_rebuild_projection_that_is_not_persistent_from_whole_log_when_registered() {
+        eventLog.append(assigned("REMINDER1", 2), assigned("REMINDER1", 3), assigned("REMINDER2", 2));
+        checkpoints.save("assignees", 3);
+
+        engine.register(assignees());
+
+        assertThat(handled).containsExactlyInAnyOrder("REMINDER1@V2", "REMINDER1@V3", "REMINDER2@V2");
+        assertThat(engine.lag()).containsExactly(new ProjectionLag("assignees", 3, 3, Duration.ZERO));
+    }
+
+    @Example
+    void should_fail_to_register_projection_twice() {
+        engine.register(assignees());
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> engine.register(assignees()))
+                .withMessage("Projection is already registered: 'assignees'");
+    }
+
+    @Example
+    void should_hand_live_events_over_to_every_projection_with_handler_for_their_type() {
+        final List<String> cancellations = new ArrayList<>();
+        engine.register(assignees());
+        engine.register(Projection.named("cancellations")
+                .on(ReminderEvent.ReminderCancelled.class, event -> cancellations.add(event.reminderId()))
+                .build());
+
+        liveEvent(assigned("REMINDER1", 2));
+        liveEvent(new ReminderEvent.ReminderCancelled("REMINDER2", new StreamRevision(2), NOW));
+
+        assertThat(handled).containsExactly("REMINDER1@V2");
+        assertThat(cancellations).containsExactly("REMINDER2");
+        assertThat(engine.lag()).extracting(ProjectionLag::position).containsExactly(2L, 2L);
+    }
+
+    @Example
+    void should_run_batch_hooks_around_every_batch() {
+        eventLog.append(assigned("REMINDER1", 2), assigned("REMINDER1", 3));
+        final var projection = Projection.named("hooks")
+                .on(ReminderEvent.ReminderAssigned.class, event -> hooks.add(event.version().toString()))
+                .beforeBatch(() -> hooks.add("before"))
+                .afterBatch(() -> hooks.add("after"))
+                .build();
+
+        engine.register(projection);
+        liveEvent(assigned("REMINDER1", 4));
+
+        assertThat(hooks).containsExactly("before", "V2", "V3", "after", "before", "V4", "after");
+    }
+
+    @Example
+    void should_rebuild_projection_from_whole_log_in_partitions() {
+        for (int version = 2; version <= 11; version++) {
+            for (int reminder = 1; reminder <= 5; reminder++) {
+                eventLog.append(assigned("REMINDER" + reminder, version));
+            }
+        }
+        final List<String> resets = new ArrayList<>();
+        engine.register(Projection.named("assignees")
+                .on(ReminderEvent.ReminderAssigned.class, event -> handled.add(event.reminderId() + "@" + event.version()))
+                .beforeBatch(() -> hooks.add("before"))
+                .afterBatch(() -> hooks.add("after"))
+                .onReset(() -> {
+                    resets.add("reset");
+                    handled.clear();
+                })
+                .build());
+        hooks.clear();
+        resets.clear();
+
+        engine.rebuild("assignees", 3);
+
+        assertThat(resets).containsExactly("reset");
+        assertThat(handled).hasSize(50);
+        for (int reminder = 1; reminder <= 5; reminder++) {
+            final var reminderId = "REMINDER" + reminder;
+            assertThat(handled.stream().filter(event -> event.startsWith(reminderId + "@")))
+                    .containsExactly(reminderId + "@V2", reminderId + "@V3", reminderId + "@V4", reminderId + "@V5",
+                            reminderId + "@V6", reminderId + "@V7", reminderId + "@V8", reminderId + "@V9",
+                            reminderId + "@V10", reminderId + "@V11");
+        }
+        assertThat(hooks).hasSize(14).startsWith("before", "after");
+        assertThat(engine.lag()).containsExactly(new ProjectionLag("assignees", 50, 50, Duration.ZERO));
+        assertThat(checkpoints.load("assignees")).isEqualTo(50);
+    }
+
+    @Example
+    void should_fail_to_rebuild_unknown_projection() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> engine.rebuild("unknown"))
+                .withMessage("Unknown projection: 'unknown'");
+    }
+
+    @Example
+    void should_fail_to_rebuild_projection_with_non_positive_partition_count() {
+        engine.register(assignees());
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> engine.rebuild("assignees", 0))
+                .withMessage("Partition count is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_measure_lag_from_oldest_event_not_handled_yet() {
+        final var failing = new boolean[]{true};
+        engine.register(Projection.named("failing")
+                .on(ReminderEvent.ReminderAssigned.class, event -> {
+                    if (failing[0]) {
+                        throw new IllegalStateException("Failure of projection");
+                    }
+                })
+                .build());
+        eventLog.append(assigned("REMINDER1", 2, NOW.minusSeconds(30)), assigned("REMINDER1", 3));
+
+        engine.onEvent(eventLog.events.get(0), 1, true);
+
+        assertThat(engine.failedEvents("failing")).isEqualTo(1);
+        assertThat(engine.lag()).containsExactly(new ProjectionLag("failing", 0, 2, Duration.ofSeconds(30)));
+        assertThat(engine.lag().get(0).events()).isEqualTo(2);
+
+        failing[0] = false;
+        engine.onEvent(eventLog.events.get(1), 2, true);
+
+        assertThat(engine.lag()).containsExactly(new ProjectionLag("failing", 2, 2, Duration.ZERO));
+    }
+
+    @Example
+    void should_save_checkpoints_of_projections_when_closed() {
+        engine.register(assignees());
+        liveEvent(assigned("REMINDER1", 2));
+
+        engine.close();
+
+        assertThat(checkpoints.load("assignees")).isEqualTo(1);
+    }
+
+    private Projection assignees() {
+        return Projection.named("assignees")
+                .on(ReminderEvent.ReminderAssigned.class, event -> handled.add(event.reminderId() + "@" + event.version()))
+                .build();
+    }
+
+    private void liveEvent(final ReminderEvent event) {
+        eventLog.append(event);
+        engine.onEvent(event, eventLog.headPosition(), true);
+    }
+
+    private static ReminderEvent assigned(final String reminderId, final int version) {
+        return assigned(reminderId, version, NOW);
+    }
+
+    private static ReminderEvent assigned(final String reminderId, final int version, final Instant timestamp) {
+        return new ReminderEvent.ReminderAssigned(reminderId, new StreamRevision(version), timestamp, "OPERATOR1");
+    }
+
+}
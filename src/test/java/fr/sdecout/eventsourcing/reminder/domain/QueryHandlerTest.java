@@ -1,18 +1,26 @@
 package fr.sdecout.eventsourcing.reminder.domain;
 
+import fr.sdecout.eventsourcing.StreamRevision;
 import net.jqwik.api.Assume;
 import net.jqwik.api.Example;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
 
+import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.QueryType.GET_REMINDER;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.QueryType.GET_REMINDERS;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderMetrics.QueryType.SEARCH;
 import static java.util.stream.Collectors.toList;
-import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 class QueryHandlerTest {
 
@@ -69,4 +77,61 @@ class QueryHandlerTest {
         assertThat(queryHandler.getReminder(interventionId, reminderId)).isEmpty();
     }
 
+    @Example
+    void should_look_reminders_up_in_read_model() {
+        final var readModel = new ReminderReadModel();
+        final var scheduled = new ReminderEvent.ReminderScheduled("REMINDER1", new StreamRevision(1), Instant.EPOCH, "INTERVENTION1",
+                ReminderType.CALL_CUSTOMER, new Country("FR"), ZonedDateTime.parse("2022-03-04T11:30:00Z"));
+        readModel.projection().onEvent(scheduled, 1, true);
+        final var queryHandler = new QueryHandler(readModel);
+
+        assertThat(queryHandler.getReminder("INTERVENTION1", "REMINDER1")).map(ReminderState::interventionId).contains("INTERVENTION1");
+        assertThat(queryHandler.getReminder("INTERVENTION2", "REMINDER1")).isEmpty();
+        assertThat(queryHandler.getReminders("INTERVENTION1")).extracting(ReminderState::id).containsExactly("REMINDER1");
+        verifyNoInteractions(eventStore);
+    }
+
+    @Example
+    void should_fail_to_search_without_search_index() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> queryHandler.search(ReminderSearchCriteria.anyReminder(), 0, 10))
+                .withMessage("Global search is not available: no search index");
+    }
+
+    @Property
+    void should_search_reminders_in_search_index(@ForAll List<ReminderAggregate> reminders) {
+        final var searchIndex = mock(ReminderSearchIndex.class);
+        final var criteria = ReminderSearchCriteria.anyReminder().withStatuses(ReminderState.ReminderStatus.PENDING);
+        final var result = new ReminderSearchResult(reminders.stream().map(ReminderAggregate::state).collect(toList()), reminders.size());
+        given(searchIndex.search(criteria, 0, 10)).willReturn(result);
+
+        assertThat(new QueryHandler(eventStore, searchIndex).search(criteria, 0, 10)).isEqualTo(result);
+    }
+
+    @Example
+    void should_fail_to_search_with_non_positive_limit() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new QueryHandler(eventStore, mock(ReminderSearchIndex.class)).search(ReminderSearchCriteria.anyReminder(), 0, 0))
+                .withMessage("Limit is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_record_latency_of_queries() {
+        final var metrics = new ReminderMetrics();
+        final var searchIndex = mock(ReminderSearchIndex.class);
+        given(eventStore.find("REMINDER1")).willReturn(Optional.empty());
+        given(searchIndex.search(any(), anyInt(), anyInt())).willThrow(new IllegalStateException("Search index is not rebuilt"));
+        final var meteredQueryHandler = new QueryHandler(eventStore, searchIndex, metrics);
+
+        meteredQueryHandler.getReminder("INTERVENTION1", "REMINDER1");
+        meteredQueryHandler.getReminder("INTERVENTION1", "REMINDER1");
+        meteredQueryHandler.getReminders("INTERVENTION1");
+        assertThatIllegalStateException().isThrownBy(() -> meteredQueryHandler.search(ReminderSearchCriteria.anyReminder(), 0, 10));
+
+        assertThat(meteredQueryHandler.metrics()).isSameAs(metrics);
+        assertThat(metrics.queryLatency(GET_REMINDER).count()).isEqualTo(2);
+        assertThat(metrics.queryLatency(GET_REMINDERS).count()).isEqualTo(1);
+        assertThat(metrics.queryLatency(SEARCH).count()).isEqualTo(1);
+    }
+
 }
@@ -0,0 +1,24 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class RecordingCheckpointStore implements CheckpointStore {
+
+    private final Map<String, Long> checkpoints = new HashMap<>();
+    final List<Long> saved = new ArrayList<>();
+
+    @Override
+    public long load(final String subscriptionName) {
+        return checkpoints.getOrDefault(subscriptionName, 0L);
+    }
+
+    @Override
+    public void save(final String subscriptionName, final long position) {
+        checkpoints.put(subscriptionName, position);
+        saved.add(position);
+    }
+
+}
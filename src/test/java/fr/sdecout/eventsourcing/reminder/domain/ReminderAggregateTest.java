@@ -53,6 +53,37 @@ class ReminderAggregateTest {
                 .build());
     }
 
+    @Example
+    void should_initialize_state_from_snapshot_and_following_events() {
+        final var snapshot = ReminderState.builder()
+                .version(new StreamRevision(5))
+                .id("REMINDER2")
+                .interventionId("INTERVENTION1")
+                .status(PENDING)
+                .type(CALL_CUSTOMER)
+                .country(new Country("IT"))
+                .scheduledTime(SCHEDULED_DATE_1)
+                .build();
+        final var tail = ReminderEventStream.of(
+                new ReminderEvent.ReminderAssigned("REMINDER2", new StreamRevision(6), TIMESTAMP_1, "OPERATOR1"),
+                new ReminderEvent.ReminderCancelled("REMINDER2", new StreamRevision(7), TIMESTAMP_2)
+        );
+
+        final ReminderAggregate aggregate = new ReminderAggregate(snapshot, tail, clock);
+
+        assertThat(aggregate.state()).isEqualTo(snapshot.toBuilder()
+                .version(new StreamRevision(7))
+                .assignee("OPERATOR1")
+                .status(CANCELLED)
+                .build());
+    }
+
+    @Example
+    void should_fail_to_initialize_state_from_null_snapshot() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> new ReminderAggregate(null, ReminderEventStream.emptyEventStream(), clock));
+    }
+
     @Property
     void should_schedule_new_reminder(@ForAll String reminderId, @ForAll String interventionId, @ForAll ReminderType reminderType,
                                       @ForAll Country country, @ForAll ZonedDateTime scheduledTime) {
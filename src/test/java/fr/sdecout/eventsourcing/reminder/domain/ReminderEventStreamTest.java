@@ -18,6 +18,7 @@ import static com.google.common.base.Predicates.or;
 import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
 import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 class ReminderEventStreamTest {
 
@@ -80,6 +81,55 @@ class ReminderEventStreamTest {
         assertThat(state.country()).isEqualTo(getLastCountryUpdate(eventStream).orElse(null));
     }
 
+    @Property
+    @FromData("reminderEventsStreams")
+    void should_replay_from_intermediate_state_as_from_beginning(@ForAll ReminderEventStream eventStream) {
+        for (int i = 0; i <= eventStream.events().size(); i++) {
+            final var intermediateState = new ReminderEventStream(eventStream.events().subList(0, i)).replay();
+            final var tail = new ReminderEventStream(eventStream.events().subList(i, eventStream.events().size()));
+
+            assertThat(tail.replayFrom(intermediateState)).isEqualTo(eventStream.replay());
+        }
+    }
+
+    @Property
+    @FromData("reminderEventsStreams")
+    void should_replay_as_applying_events_one_at_a_time(@ForAll ReminderEventStream eventStream) {
+        var state = ReminderEventStream.emptyEventStream().replay();
+        for (final ReminderEvent event : eventStream.events()) {
+            state = state.apply(event);
+        }
+
+        assertThat(eventStream.replay()).isEqualTo(state);
+    }
+
+    @Example
+    void should_fail_to_replay_events_with_inconsistent_versions() {
+        final var eventStream = ReminderEventStream.of(
+                new ReminderEvent.ReminderScheduled("REMINDER1", new StreamRevision(1), Instant.EPOCH, "INTERVENTION1", CALL_CUSTOMER, new Country("FR"), ZonedDateTime.parse("2022-03-04T11:30:00Z")),
+                new ReminderEvent.ReminderCancelled("REMINDER1", new StreamRevision(3), Instant.EPOCH)
+        );
+
+        assertThatIllegalStateException()
+                .isThrownBy(eventStream::replay)
+                .withMessage("Inconsistent stream revision for stream 'REMINDER1': V3 (expected: V2)");
+    }
+
+    @Example
+    void should_report_replay_to_flight_recorder() {
+        final var eventStream = ReminderEventStream.of(
+                new ReminderEvent.ReminderScheduled("REMINDER1", new StreamRevision(1), Instant.EPOCH, "INTERVENTION1", CALL_CUSTOMER, new Country("FR"), ZonedDateTime.parse("2022-03-04T11:30:00Z")),
+                new ReminderEvent.ReminderCancelled("REMINDER1", new StreamRevision(2), Instant.EPOCH)
+        );
+
+        final var events = FlightRecording.record("fr.sdecout.eventsourcing.reminder.Replay", eventStream::replay);
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("reminderId")).isEqualTo("REMINDER1");
+        assertThat(events.get(0).getInt("initialVersion")).isZero();
+        assertThat(events.get(0).getInt("eventCount")).isEqualTo(2);
+    }
+
     private static Optional<Country> getLastCountryUpdate(@ForAll ReminderEventStream eventStream) {
         return reverseEvents(eventStream)
                 .filter(or(ReminderEvent.ReminderScheduled.class::isInstance, ReminderEvent.ReminderTransferred.class::isInstance))
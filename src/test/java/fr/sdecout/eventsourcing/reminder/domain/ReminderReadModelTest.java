@@ -0,0 +1,107 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.CANCELLED;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.PENDING;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReminderReadModelTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final ListEventLog eventLog = new ListEventLog();
+    private final ReminderReadModel readModel = new ReminderReadModel();
+    private final ProjectionEngine engine = new ProjectionEngine(eventLog, new RecordingCheckpointStore(), Clock.fixed(NOW, systemDefault()));
+
+    @Example
+    void should_fold_events_into_latest_state_of_reminders() {
+        eventLog.append(
+                scheduled("REMINDER1", "INTERVENTION1"),
+                scheduled("REMINDER2", "INTERVENTION1"),
+                new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision(2), NOW, "OPERATOR1"),
+                new ReminderEvent.ReminderCancelled("REMINDER2", new StreamRevision(2), NOW),
+                scheduled("REMINDER3", "INTERVENTION2"));
+
+        engine.register(readModel.projection());
+
+        assertThat(readModel.get("REMINDER1")).hasValueSatisfying(state -> {
+            assertThat(state.version()).isEqualTo(new StreamRevision(2));
+            assertThat(state.assignee()).isEqualTo("OPERATOR1");
+            assertThat(state.status()).isEqualTo(PENDING);
+        });
+        assertThat(readModel.get("REMINDER2")).map(ReminderState::status).contains(CANCELLED);
+        assertThat(readModel.getByIntervention("INTERVENTION1")).extracting(ReminderState::id)
+                .containsExactlyInAnyOrder("REMINDER1", "REMINDER2");
+        assertThat(readModel.getByIntervention("INTERVENTION2")).extracting(ReminderState::id).containsExactly("REMINDER3");
+        assertThat(readModel.get("REMINDER4")).isEmpty();
+    }
+
+    @Example
+    void should_match_states_rehydrated_from_event_stream() {
+        eventLog.append(
+                scheduled("REMINDER1", "INTERVENTION1"),
+                new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision(2), NOW, "OPERATOR1"),
+                new ReminderEvent.ReminderUnassigned("REMINDER1", new StreamRevision(3), NOW),
+                new ReminderEvent.ReminderTransferred("REMINDER1", new StreamRevision(4), NOW, new Country("IT")),
+                new ReminderEvent.ReminderRescheduled("REMINDER1", new StreamRevision(5), NOW, A_DATE_IN_THE_FUTURE.plusDays(1)),
+                new ReminderEvent.ReminderMarkedAsDone("REMINDER1", new StreamRevision(6), NOW),
+                new ReminderEvent.ReminderReopened("REMINDER1", new StreamRevision(7), NOW));
+
+        engine.register(readModel.projection());
+
+        assertThat(readModel.get("REMINDER1")).contains(ReminderEventStream.of(eventLog.events.toArray(ReminderEvent[]::new)).replay());
+    }
+
+    @Example
+    void should_be_rebuilt_from_whole_log_after_restart_whatever_its_checkpoint() {
+        final var checkpoints = new RecordingCheckpointStore();
+        checkpoints.save(ReminderReadModel.PROJECTION_NAME, 2);
+        eventLog.append(scheduled("REMINDER1", "INTERVENTION1"), scheduled("REMINDER2", "INTERVENTION1"));
+
+        new ProjectionEngine(eventLog, checkpoints, Clock.fixed(NOW, systemDefault())).register(readModel.projection());
+
+        assertThat(readModel.getByIntervention("INTERVENTION1")).extracting(ReminderState::id)
+                .containsExactlyInAnyOrder("REMINDER1", "REMINDER2");
+    }
+
+    @Example
+    void should_skip_events_already_folded_into_state() {
+        final var assigned = new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision(2), NOW, "OPERATOR1");
+        final var unassigned = new ReminderEvent.ReminderUnassigned("REMINDER1", new StreamRevision(3), NOW);
+        final var projection = readModel.projection();
+
+        projection.onEvent(scheduled("REMINDER1", "INTERVENTION1"), 1, true);
+        projection.onEvent(assigned, 2, true);
+        projection.onEvent(unassigned, 3, true);
+        projection.onEvent(assigned, 2, true);
+
+        assertThat(readModel.get("REMINDER1")).map(ReminderState::assignee).isEmpty();
+        assertThat(readModel.get("REMINDER1")).map(ReminderState::version).contains(new StreamRevision(3));
+    }
+
+    @Example
+    void should_rebuild_from_scratch() {
+        eventLog.append(scheduled("REMINDER1", "INTERVENTION1"), scheduled("REMINDER2", "INTERVENTION1"));
+        engine.register(readModel.projection());
+        eventLog.events.set(1, scheduled("REMINDER2", "INTERVENTION2"));
+
+        engine.rebuild(ReminderReadModel.PROJECTION_NAME);
+
+        assertThat(readModel.getByIntervention("INTERVENTION1")).extracting(ReminderState::id).containsExactly("REMINDER1");
+        assertThat(readModel.getByIntervention("INTERVENTION2")).extracting(ReminderState::id).containsExactly("REMINDER2");
+    }
+
+    private static ReminderEvent scheduled(final String reminderId, final String interventionId) {
+        return new ReminderEvent.ReminderScheduled(reminderId, new StreamRevision(1), NOW, interventionId, CALL_CUSTOMER, new Country("FR"), A_DATE_IN_THE_FUTURE);
+    }
+
+}
@@ -0,0 +1,44 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+
+import java.time.ZonedDateTime;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.PENDING;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ReminderSearchCriteriaTest {
+
+    private static final ZonedDateTime A_DATE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    @Example
+    void should_fail_to_initialize_with_range_ending_before_it_starts() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ReminderSearchCriteria.anyReminder().scheduledBetween(A_DATE, A_DATE.minusSeconds(1)))
+                .withMessage("Scheduled time range is expected to end after it starts - value: [%s, %s)", A_DATE, A_DATE.minusSeconds(1));
+    }
+
+    @Property
+    void should_match_any_reminder_without_criteria(@ForAll ReminderState state) {
+        assertThat(ReminderSearchCriteria.anyReminder().matches(state)).isTrue();
+    }
+
+    @Example
+    void should_match_scheduled_time_within_half_open_range() {
+        final var criteria = ReminderSearchCriteria.anyReminder().withTypes(CALL_CUSTOMER).withStatuses(PENDING).scheduledBetween(A_DATE, A_DATE.plusHours(1));
+
+        assertThat(criteria.matches(aPendingCall(A_DATE))).isTrue();
+        assertThat(criteria.matches(aPendingCall(A_DATE.plusMinutes(59)))).isTrue();
+        assertThat(criteria.matches(aPendingCall(A_DATE.plusHours(1)))).isFalse();
+    }
+
+    private static ReminderState aPendingCall(final ZonedDateTime scheduledTime) {
+        return new ReminderState(new StreamRevision(1), "REMINDER1", "INTERVENTION1", PENDING, CALL_CUSTOMER, null, Country.of("FR"), scheduledTime);
+    }
+
+}
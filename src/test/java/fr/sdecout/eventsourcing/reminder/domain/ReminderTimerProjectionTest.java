@@ -0,0 +1,75 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+class ReminderTimerProjectionTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final ListEventLog eventLog = new ListEventLog();
+    private final RecordingCheckpointStore checkpoints = new RecordingCheckpointStore();
+    private final ReminderTimer timer = mock(ReminderTimer.class);
+    private final ReminderTimerProjection timerProjection = new ReminderTimerProjection(timer);
+
+    @Example
+    void should_arm_timers_of_pending_reminders_at_once_when_registered() {
+        checkpoints.save(ReminderTimerProjection.PROJECTION_NAME, 6);
+        eventLog.append(
+                scheduled("REMINDER1"),
+                scheduled("REMINDER2"),
+                new ReminderEvent.ReminderRescheduled("REMINDER2", new StreamRevision(2), NOW, A_DATE_IN_THE_FUTURE.plusDays(1)),
+                scheduled("REMINDER3"),
+                new ReminderEvent.ReminderCancelled("REMINDER3", new StreamRevision(2), NOW),
+                new ReminderEvent.ReminderMarkedAsDone("REMINDER1", new StreamRevision(2), NOW),
+                new ReminderEvent.ReminderReopened("REMINDER1", new StreamRevision(3), NOW));
+
+        new ProjectionEngine(eventLog, checkpoints, Clock.fixed(NOW, systemDefault())).register(timerProjection.projection());
+
+        then(timer).should().scheduleAll(argThat(reminders -> containsExactlyInAnyOrder(reminders,
+                new DueReminder("REMINDER1", A_DATE_IN_THE_FUTURE.toInstant()),
+                new DueReminder("REMINDER2", A_DATE_IN_THE_FUTURE.plusDays(1).toInstant()))));
+        then(timer).should().cancel("REMINDER3");
+        then(timer).should(never()).cancel("REMINDER1");
+    }
+
+    @Example
+    void should_disarm_timer_of_reminder_cancelled_live() {
+        timerProjection.projection().onEvent(scheduled("REMINDER1"), 1, true);
+        timerProjection.projection().onEvent(new ReminderEvent.ReminderCancelled("REMINDER1", new StreamRevision(2), NOW), 2, true);
+
+        then(timer).should().scheduleAll(List.of(new DueReminder("REMINDER1", A_DATE_IN_THE_FUTURE.toInstant())));
+        then(timer).should().cancel("REMINDER1");
+    }
+
+    @Example
+    void should_not_arm_any_timer_without_pending_reminder() {
+        timerProjection.projection().onEvent(new ReminderEvent.ReminderCancelled("REMINDER1", new StreamRevision(2), NOW), 1, true);
+
+        then(timer).should(never()).scheduleAll(anyCollection());
+    }
+
+    private static boolean containsExactlyInAnyOrder(final Collection<DueReminder> reminders, final DueReminder... expected) {
+        return reminders.size() == expected.length && reminders.containsAll(List.of(expected));
+    }
+
+    private static ReminderEvent scheduled(final String reminderId) {
+        return new ReminderEvent.ReminderScheduled(reminderId, new StreamRevision(1), NOW, "INTERVENTION1", CALL_CUSTOMER, new Country("FR"), A_DATE_IN_THE_FUTURE);
+    }
+
+}
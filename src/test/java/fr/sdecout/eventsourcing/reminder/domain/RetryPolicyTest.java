@@ -0,0 +1,43 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Positive;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RetryPolicyTest {
+
+    @Property
+    void should_fail_to_initialize_with_non_positive_max_attempts(@ForAll @IntRange(min = Integer.MIN_VALUE, max = 0) int maxAttempts) {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RetryPolicy(maxAttempts, Duration.ZERO, Duration.ZERO))
+                .withMessage("Max attempts is expected to be positive - value: %s", maxAttempts);
+    }
+
+    @Example
+    void should_fail_to_initialize_with_max_backoff_lower_than_initial_backoff() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(5)))
+                .withMessage("Max backoff is expected not to be lower than initial backoff - value: PT0.005S");
+    }
+
+    @Property
+    void should_keep_backoff_within_exponential_ceiling(@ForAll @IntRange(min = 1, max = 100) int attempt) {
+        final var policy = new RetryPolicy(100, Duration.ofNanos(1000), Duration.ofMillis(50));
+
+        final var ceiling = Math.min(Duration.ofMillis(50).toNanos(), attempt > 40 ? Long.MAX_VALUE : 1000L << (attempt - 1));
+        assertThat(policy.backoffAfter(attempt)).isBetween(Duration.ZERO, Duration.ofNanos(ceiling));
+    }
+
+    @Property
+    void should_not_back_off_without_initial_backoff(@ForAll @Positive int attempt) {
+        assertThat(RetryPolicy.noRetry().backoffAfter(attempt)).isZero();
+    }
+
+}
@@ -0,0 +1,43 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+class SearchIndexingReminderEventStoreTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), systemDefault());
+    private final ReminderEventStore delegate = mock(ReminderEventStore.class);
+    private final ReminderSearchIndex searchIndex = mock(ReminderSearchIndex.class);
+    private final SearchIndexingReminderEventStore eventStore = new SearchIndexingReminderEventStore(delegate, searchIndex);
+
+    @Example
+    void should_index_state_of_saved_reminder() {
+        final var aggregate = ReminderAggregate.scheduleNewReminder("REMINDER1", "INTERVENTION1", CALL_CUSTOMER,
+                CommandHandler.DEFAULT_COUNTRY, ZonedDateTime.parse("2022-03-04T11:30:00Z"), clock);
+
+        eventStore.save(aggregate, defaultStreamRevision());
+
+        then(delegate).should().save(aggregate, defaultStreamRevision());
+        then(searchIndex).should().index(aggregate.state());
+    }
+
+    @Example
+    void should_not_index_reminder_without_new_events() {
+        eventStore.save(new ReminderAggregate(ReminderEventStream.emptyEventStream(), clock), new StreamRevision(0));
+
+        then(searchIndex).should(never()).index(any());
+    }
+
+}
@@ -0,0 +1,27 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedStringsTest {
+
+    @Property
+    void should_return_same_instance_for_equal_strings(@ForAll String value) {
+        assertThat(SharedStrings.intern(new String(value))).isSameAs(SharedStrings.intern(new String(value)));
+    }
+
+    @Example
+    void should_share_assignee_among_events() {
+        final var first = new ReminderEvent.ReminderAssigned("REMINDER1", new StreamRevision(2), Instant.EPOCH, new String("OPERATOR1"));
+        final var second = new ReminderEvent.ReminderAssigned("REMINDER2", new StreamRevision(2), Instant.EPOCH, new String("OPERATOR1"));
+
+        assertThat(first.assignee()).isSameAs(second.assignee());
+    }
+
+}
@@ -0,0 +1,135 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+import net.jqwik.api.lifecycle.AfterExample;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static java.util.Collections.synchronizedList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.*;
+
+class SingleWriterCommandHandlerTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final Clock clock = Clock.fixed(NOW, systemDefault());
+    private final AtomicInteger idSequence = new AtomicInteger();
+    private final UnprotectedEventStore eventStore = new UnprotectedEventStore(clock);
+    private final SingleWriterCommandHandler commandHandler = new SingleWriterCommandHandler(
+            new CommandHandler(eventStore, () -> "REMINDER" + idSequence.incrementAndGet(), clock), 4);
+
+    @AfterExample
+    void closeCommandHandler() {
+        commandHandler.close();
+    }
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_worker_count() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new SingleWriterCommandHandler(new CommandHandler(eventStore, () -> "1", clock), 0))
+                .withMessage("Worker count is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_handle_concurrent_commands_on_same_reminder_one_at_a_time() throws Exception {
+        final var reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+        final var threads = 8;
+        final var commandsPerThread = 50;
+        final var executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < commandsPerThread; j++) {
+                        commandHandler.assign(reminderId, "OPERATOR" + j);
+                    }
+                    return null;
+                });
+            }
+            for (final Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(eventStore.versions(reminderId)).containsExactlyElementsOf(versionsUpTo(threads * commandsPerThread + 1));
+    }
+
+    @Example
+    void should_propagate_exception_raised_by_command() {
+        final var reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+        commandHandler.cancel(reminderId);
+
+        assertThatExceptionOfType(InvalidUpdateDeniedException.class)
+                .isThrownBy(() -> commandHandler.assign(reminderId, "OPERATOR1"))
+                .withMessage("Update denied for reminder '%s' (status: 'CANCELLED'): assign to OPERATOR1", reminderId);
+    }
+
+    @Example
+    void should_fail_to_handle_command_on_unknown_reminder() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> commandHandler.markAsDone("UNKNOWN"))
+                .withMessage("Unexpected command: reminder ID does not exist");
+    }
+
+    private static List<StreamRevision> versionsUpTo(final int lastVersion) {
+        final List<StreamRevision> versions = new ArrayList<>();
+        for (int i = 1; i <= lastVersion; i++) {
+            versions.add(new StreamRevision(i));
+        }
+        return versions;
+    }
+
+    /**
+     * Event store with no concurrency control at all, expected revision is ignored: concurrent decisions on a same
+     * reminder would result in duplicate revisions.
+     */
+    private static final class UnprotectedEventStore implements ReminderEventStore {
+
+        private final Clock clock;
+        private final Map<String, List<ReminderEvent>> streams = new ConcurrentHashMap<>();
+
+        private UnprotectedEventStore(final Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public Optional<ReminderAggregate> find(final String reminderId) {
+            return Optional.ofNullable(streams.get(reminderId))
+                    .map(events -> new ReminderAggregate(new ReminderEventStream(List.copyOf(events)), clock));
+        }
+
+        @Override
+        public List<ReminderAggregate> findByIntervention(final String interventionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void save(final ReminderAggregate reminderAggregate, final StreamRevision expectedRevision) {
+            reminderAggregate.pendingEvents().stream()
+                    .map(ReminderEvent.class::cast)
+                    .forEach(event -> streams.computeIfAbsent(event.streamId(), id -> synchronizedList(new ArrayList<>())).add(event));
+        }
+
+        List<StreamRevision> versions(final String reminderId) {
+            return List.copyOf(streams.get(reminderId)).stream()
+                    .map(ReminderEvent::version)
+                    .collect(toList());
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class SlowCommandLogTest {
+
+    private final List<SlowCommand> written = new CopyOnWriteArrayList<>();
+
+    @Example
+    void should_fail_to_initialize_with_negative_threshold() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new SlowCommandLog(Duration.ofMillis(-1), 8, written::add))
+                .withMessage("Threshold is expected not to be negative - value: PT-0.001S");
+    }
+
+    @Example
+    void should_fail_to_initialize_with_capacity_other_than_power_of_two() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new SlowCommandLog(Duration.ZERO, 12, written::add))
+                .withMessage("Capacity is expected to be a power of two - value: 12");
+    }
+
+    @Example
+    void should_write_only_commands_slower_than_threshold() {
+        final var slowCommandLog = new SlowCommandLog(Duration.ofMillis(10), 8, written::add);
+
+        slowCommandLog.record(trace("REMINDER1"), Duration.ofMillis(9).toNanos(), null);
+        slowCommandLog.record(trace("REMINDER2"), Duration.ofMillis(10).toNanos(), new IllegalStateException());
+        slowCommandLog.close();
+
+        assertThat(written).extracting(SlowCommand::reminderId).containsExactly("REMINDER2");
+        assertThat(written.get(0).duration()).isEqualTo(Duration.ofMillis(10));
+        assertThat(written.get(0).failure()).isEqualTo("IllegalStateException");
+    }
+
+    @Example
+    void should_overwrite_oldest_commands_rather_than_wait_for_sink() throws InterruptedException {
+        final var sinkReleased = new CountDownLatch(1);
+        final var slowCommandLog = new SlowCommandLog(Duration.ZERO, 2, slowCommand -> {
+            try {
+                sinkReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(slowCommand);
+        });
+
+        for (int index = 1; index <= 5; index++) {
+            slowCommandLog.record(trace("REMINDER" + index), 1_000, null);
+        }
+        assertThat(slowCommandLog.recent()).extracting(SlowCommand::reminderId).containsExactly("REMINDER4", "REMINDER5");
+        sinkReleased.countDown();
+        slowCommandLog.close();
+
+        assertThat(slowCommandLog.lostCommands()).isGreaterThanOrEqualTo(2);
+        assertThat(written.size() + slowCommandLog.lostCommands()).isEqualTo(5);
+        assertThat(written).extracting(SlowCommand::reminderId).endsWith("REMINDER4", "REMINDER5");
+    }
+
+    @Example
+    void should_account_for_every_command_recorded_concurrently_and_close() throws Exception {
+        final var slowCommandLog = new SlowCommandLog(Duration.ZERO, 2, written::add);
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<Object>> recorders = new ArrayList<>();
+            for (int recorder = 0; recorder < 4; recorder++) {
+                recorders.add(() -> {
+                    for (int index = 0; index < 1_000; index++) {
+                        slowCommandLog.record(trace("REMINDER" + index), 1_000, null);
+                    }
+                    return null;
+                });
+            }
+            for (final Future<Object> result : executor.invokeAll(recorders)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final var closing = new Thread(slowCommandLog::close);
+        closing.start();
+        closing.join(Duration.ofSeconds(5).toMillis());
+
+        assertThat(closing.isAlive()).isFalse();
+        assertThat(written.size() + slowCommandLog.lostCommands()).isEqualTo(4_000);
+    }
+
+    @Example
+    void should_ignore_all_commands_when_disabled() {
+        final var slowCommandLog = SlowCommandLog.disabled();
+
+        slowCommandLog.record(trace("REMINDER1"), Long.MAX_VALUE - 1, null);
+
+        assertThat(slowCommandLog.isEnabled()).isFalse();
+        assertThat(slowCommandLog.recent()).isEmpty();
+    }
+
+    private static CommandTrace trace(final String reminderId) {
+        return new CommandTrace(ReminderMetrics.CommandType.ASSIGN, reminderId, true);
+    }
+
+}
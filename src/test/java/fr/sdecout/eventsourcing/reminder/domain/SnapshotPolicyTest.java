@@ -0,0 +1,110 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Positive;
+
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.HAVE_A_NAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class SnapshotPolicyTest {
+
+    @Property
+    void should_fail_to_initialize_with_non_positive_interval(@ForAll @IntRange(min = Integer.MIN_VALUE, max = 0) int interval) {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> SnapshotPolicy.every(interval))
+                .withMessage("Snapshot interval is expected to be positive - value: %s", interval);
+    }
+
+    @Property
+    void should_snapshot_once_interval_is_reached(@ForAll @IntRange(min = 1, max = 1000) int interval, @ForAll @IntRange(max = 1000) int lastSnapshot) {
+        final var policy = SnapshotPolicy.every(interval);
+
+        assertThat(policy.shouldSnapshot(aState(lastSnapshot + interval - 1, CALL_CUSTOMER), new StreamRevision(lastSnapshot))).isFalse();
+        assertThat(policy.shouldSnapshot(aState(lastSnapshot + interval, CALL_CUSTOMER), new StreamRevision(lastSnapshot))).isTrue();
+    }
+
+    @Property
+    void should_apply_interval_specific_to_reminder_type(@ForAll @Positive int defaultInterval, @ForAll @Positive int specificInterval) {
+        final var policy = SnapshotPolicy.every(defaultInterval).withInterval(HAVE_A_NAP, specificInterval);
+
+        assertThat(policy.intervalFor(HAVE_A_NAP)).isEqualTo(specificInterval);
+        assertThat(policy.intervalFor(CALL_CUSTOMER)).isEqualTo(defaultInterval);
+        assertThat(policy.intervalFor(null)).isEqualTo(defaultInterval);
+    }
+
+    @Property
+    void should_never_snapshot_when_disabled(@ForAll @IntRange(max = 1_000_000) int version) {
+        assertThat(SnapshotPolicy.disabled().shouldSnapshot(aState(version, CALL_CUSTOMER), defaultStreamRevision())).isFalse();
+    }
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_replay_budget() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> SnapshotPolicy.every(100).withReplayBudget(new HotStreamDetector(), 0))
+                .withMessage("Replay budget is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_snapshot_hot_streams_once_replay_budget_is_reached() {
+        final var hotStreams = new HotStreamDetector();
+        final var policy = SnapshotPolicy.every(100).withReplayBudget(hotStreams, 100);
+        var lastSnapshot = 0;
+        var snapshots = 0;
+
+        for (int version = 1; version <= 100; version++) {
+            final var coldState = aState("COLD" + version, 3, CALL_CUSTOMER);
+            policy.recordSave(coldState);
+            assertThat(policy.shouldSnapshot(coldState, defaultStreamRevision())).isFalse();
+            final var hotState = aState("HOT", version, CALL_CUSTOMER);
+            policy.recordSave(hotState);
+            if (policy.shouldSnapshot(hotState, new StreamRevision(lastSnapshot))) {
+                lastSnapshot = version;
+                snapshots++;
+            }
+        }
+
+        assertThat(snapshots).isBetween(20, 60);
+        assertThat(hotStreams.hottest(1)).containsExactly(new HotStream("HOT", hotStreams.recentUpdates("HOT"), 100));
+    }
+
+    @Example
+    void should_not_record_update_when_asked_whether_to_snapshot() {
+        final var hotStreams = new HotStreamDetector();
+        final var policy = SnapshotPolicy.every(100).withReplayBudget(hotStreams, 100);
+
+        for (int attempt = 0; attempt < 10; attempt++) {
+            policy.shouldSnapshot(aState("REMINDER1", 50, CALL_CUSTOMER), defaultStreamRevision());
+        }
+
+        assertThat(hotStreams.recentUpdates("REMINDER1")).isZero();
+        assertThat(hotStreams.hottest(1)).isEmpty();
+    }
+
+    @Example
+    void should_keep_interval_of_reminder_type_with_replay_budget() {
+        final var policy = SnapshotPolicy.every(100).withInterval(HAVE_A_NAP, 5).withReplayBudget(new HotStreamDetector(), Long.MAX_VALUE);
+
+        assertThat(policy.shouldSnapshot(aState("REMINDER1", 4, HAVE_A_NAP), defaultStreamRevision())).isFalse();
+        assertThat(policy.shouldSnapshot(aState("REMINDER1", 5, HAVE_A_NAP), defaultStreamRevision())).isTrue();
+    }
+
+    private static ReminderState aState(final int version, final ReminderType type) {
+        return aState(null, version, type);
+    }
+
+    private static ReminderState aState(final String reminderId, final int version, final ReminderType type) {
+        return ReminderState.builder()
+                .id(reminderId)
+                .version(new StreamRevision(version))
+                .type(type)
+                .build();
+    }
+
+}
@@ -0,0 +1,56 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import org.mockito.InOrder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import static fr.sdecout.eventsourcing.StreamRevision.defaultStreamRevision;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+class TimerArmingReminderEventStoreTest {
+
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-12-31T23:59:59Z"), systemDefault());
+    private final ReminderEventStore delegate = mock(ReminderEventStore.class);
+    private final ReminderTimer timer = mock(ReminderTimer.class);
+    private final TimerArmingReminderEventStore eventStore = new TimerArmingReminderEventStore(delegate, timer);
+
+    @Example
+    void should_arm_and_disarm_timer_according_to_saved_events() {
+        final var aggregate = ReminderAggregate.scheduleNewReminder("REMINDER1", "INTERVENTION1", CALL_CUSTOMER,
+                CommandHandler.DEFAULT_COUNTRY, A_DATE_IN_THE_FUTURE, clock);
+        aggregate.cancel();
+        aggregate.reopen();
+        aggregate.reschedule(A_DATE_IN_THE_FUTURE.plusDays(1));
+
+        eventStore.save(aggregate, defaultStreamRevision());
+
+        then(delegate).should().save(aggregate, defaultStreamRevision());
+        final InOrder inOrder = inOrder(timer);
+        inOrder.verify(timer).schedule("REMINDER1", A_DATE_IN_THE_FUTURE);
+        inOrder.verify(timer).cancel("REMINDER1");
+        inOrder.verify(timer, times(2)).schedule("REMINDER1", A_DATE_IN_THE_FUTURE.plusDays(1));
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Example
+    void should_disarm_timer_of_reminder_marked_as_done() {
+        final var aggregate = ReminderAggregate.scheduleNewReminder("REMINDER1", "INTERVENTION1", CALL_CUSTOMER,
+                CommandHandler.DEFAULT_COUNTRY, A_DATE_IN_THE_FUTURE, clock);
+        aggregate.markAsDone();
+
+        eventStore.save(aggregate, defaultStreamRevision());
+
+        then(timer).should().cancel("REMINDER1");
+    }
+
+}
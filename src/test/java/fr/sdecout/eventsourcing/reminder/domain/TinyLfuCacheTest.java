@@ -0,0 +1,72 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TinyLfuCacheTest {
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_maximum_size() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new TinyLfuCache<String, String>(0))
+                .withMessage("Maximum size is expected to be positive - value: 0");
+    }
+
+    @Property
+    void should_never_hold_more_than_maximum_size(@ForAll @IntRange(min = 1, max = 500) int maximumSize,
+                                                  @ForAll List<@IntRange(max = 1000) Integer> keys) {
+        final var cache = new TinyLfuCache<Integer, String>(maximumSize);
+
+        keys.forEach(key -> cache.put(key, "VALUE" + key));
+
+        assertThat(cache.size()).isLessThanOrEqualTo(maximumSize);
+    }
+
+    @Example
+    void should_return_latest_value_put() {
+        final var cache = new TinyLfuCache<String, String>(10);
+        cache.put("KEY", "VALUE1");
+        cache.put("KEY", "VALUE2");
+
+        assertThat(cache.get("KEY")).isEqualTo("VALUE2");
+        assertThat(cache.get("UNKNOWN")).isNull();
+    }
+
+    @Example
+    void should_forget_invalidated_entry() {
+        final var cache = new TinyLfuCache<String, String>(10);
+        cache.put("KEY", "VALUE");
+
+        cache.invalidate("KEY");
+
+        assertThat(cache.get("KEY")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Example
+    void should_keep_frequently_used_entries_through_a_scan() {
+        final var cache = new TinyLfuCache<String, String>(100);
+
+        for (int i = 0; i < 10_000; i++) {
+            final var hotKey = "HOT" + (i % 50);
+            if (cache.get(hotKey) == null) {
+                cache.put(hotKey, hotKey);
+            }
+            if (i % 5 == 0) {
+                cache.put("COLD" + i, "COLD" + i);
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(cache.get("HOT" + i)).isEqualTo("HOT" + i);
+        }
+    }
+
+}
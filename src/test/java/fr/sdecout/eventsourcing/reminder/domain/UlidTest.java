@@ -0,0 +1,56 @@
+package fr.sdecout.eventsourcing.reminder.domain;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UlidTest {
+
+    @Property
+    void should_parse_its_own_string_form(@ForAll long mostSignificantBits, @ForAll long leastSignificantBits) {
+        final var ulid = new Ulid(mostSignificantBits, leastSignificantBits);
+
+        assertThat(ulid.toString()).hasSize(Ulid.LENGTH);
+        assertThat(Ulid.parse(ulid.toString())).contains(ulid);
+    }
+
+    @Property
+    void should_sort_string_forms_as_identifiers(@ForAll long high1, @ForAll long low1, @ForAll long high2, @ForAll long low2) {
+        final var ulid1 = new Ulid(high1, low1);
+        final var ulid2 = new Ulid(high2, low2);
+
+        assertThat(Integer.signum(ulid1.toString().compareTo(ulid2.toString()))).isEqualTo(Integer.signum(ulid1.compareTo(ulid2)));
+    }
+
+    @Example
+    void should_format_well_known_identifiers() {
+        assertThat(new Ulid(0, 0)).hasToString("00000000000000000000000000");
+        assertThat(new Ulid(-1, -1)).hasToString("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+        assertThat(new Ulid(0, 32)).hasToString("00000000000000000000000010");
+    }
+
+    @Example
+    void should_not_parse_non_canonical_string_forms() {
+        assertThat(Ulid.parse("REMINDER1")).isEmpty();
+        assertThat(Ulid.parse(null)).isEmpty();
+        assertThat(Ulid.parse("01arz3ndektsv4rrffq69g5fav")).isEmpty();
+        assertThat(Ulid.parse("8ZZZZZZZZZZZZZZZZZZZZZZZZZ")).isEmpty();
+        assertThat(Ulid.parse("01ARZ3NDEKTSV4RRFFQ69G5FAU")).isEmpty();
+        assertThat(Ulid.parse("01ARZ3NDEKTSV4RRFFQ69G5FAV")).isPresent();
+    }
+
+    @Example
+    void should_tell_timestamp() {
+        final var now = Instant.parse("2017-12-31T23:59:59Z");
+
+        final var ulid = new Ulid(now.toEpochMilli() << 16 | 0xFFFF, -1);
+
+        assertThat(ulid.timestamp()).isEqualTo(now.toEpochMilli());
+        assertThat(ulid.instant()).isEqualTo(now);
+    }
+
+}
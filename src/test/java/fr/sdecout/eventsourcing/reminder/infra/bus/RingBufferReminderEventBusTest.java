@@ -0,0 +1,202 @@
+package fr.sdecout.eventsourcing.reminder.infra.bus;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.infra.bus.RingBufferReminderEventBus.Backpressure;
+import net.jqwik.api.Example;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static java.util.stream.Collectors.groupingBy;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RingBufferReminderEventBusTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+
+    @Example
+    void should_fail_to_initialize_with_capacity_that_is_not_a_power_of_two() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RingBufferReminderEventBus(1000, Backpressure.DROP))
+                .withMessage("Capacity is expected to be a power of two - value: 1000");
+    }
+
+    @Example
+    void should_deliver_events_to_every_subscriber_in_publication_order() {
+        final List<ReminderEvent> received1 = new CopyOnWriteArrayList<>();
+        final List<ReminderEvent> received2 = new CopyOnWriteArrayList<>();
+        final List<ReminderEvent> published = new ArrayList<>();
+        try (var bus = new RingBufferReminderEventBus(64, Backpressure.BLOCK)) {
+            final var subscription1 = bus.subscribe("subscriber1", (event, position, endOfBatch) -> received1.add(event));
+            final var subscription2 = bus.subscribe("subscriber2", (event, position, endOfBatch) -> received2.add(event));
+            for (int version = 1; version <= 10_000; version++) {
+                final var event = anEvent("REMINDER1", version);
+                published.add(event);
+                bus.publish(event, version);
+            }
+
+            awaitUntil(() -> subscription1.sequence() == 9_999 && subscription2.sequence() == 9_999);
+            assertThat(received1).containsExactlyElementsOf(published);
+            assertThat(received2).containsExactlyElementsOf(published);
+            assertThat(bus.droppedEvents()).isZero();
+        }
+    }
+
+    @Example
+    void should_deliver_events_of_concurrent_publishers_without_loss() throws Exception {
+        final List<ReminderEvent> received = new CopyOnWriteArrayList<>();
+        final var executor = Executors.newFixedThreadPool(4);
+        try (var bus = new RingBufferReminderEventBus(16, Backpressure.BLOCK)) {
+            final var subscription = bus.subscribe("subscriber", (event, position, endOfBatch) -> received.add(event));
+            final List<Future<?>> publications = new ArrayList<>();
+            for (int publisher = 1; publisher <= 4; publisher++) {
+                final var reminderId = "REMINDER" + publisher;
+                publications.add(executor.submit(() -> {
+                    for (int version = 1; version <= 5_000; version++) {
+                        bus.publish(anEvent(reminderId, version), version);
+                    }
+                }));
+            }
+            for (final Future<?> publication : publications) {
+                publication.get(30, TimeUnit.SECONDS);
+            }
+
+            awaitUntil(() -> subscription.sequence() == 19_999);
+            assertThat(received.stream().collect(groupingBy(ReminderEvent::streamId))).hasSize(4)
+                    .allSatisfy((reminderId, events) -> assertThat(events)
+                            .extracting(event -> event.version().value())
+                            .isSorted()
+                            .hasSize(5_000));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Example
+    void should_drop_events_published_while_ring_is_full() throws Exception {
+        final var release = new CountDownLatch(1);
+        final List<ReminderEvent> received = new CopyOnWriteArrayList<>();
+        try (var bus = new RingBufferReminderEventBus(4, Backpressure.DROP)) {
+            final var subscription = bus.subscribe("slow", (event, position, endOfBatch) -> {
+                awaitQuietly(release);
+                received.add(event);
+            });
+            for (int version = 1; version <= 10; version++) {
+                bus.publish(anEvent("REMINDER1", version), version);
+            }
+            release.countDown();
+
+            awaitUntil(() -> subscription.sequence() == 3);
+            assertThat(bus.droppedEvents()).isEqualTo(6);
+            assertThat(received).extracting(event -> event.version().value()).containsExactly(1, 2, 3, 4);
+        }
+    }
+
+    @Example
+    void should_make_publisher_wait_for_slowest_subscriber_when_blocking() throws Exception {
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newSingleThreadExecutor();
+        try (var bus = new RingBufferReminderEventBus(4, Backpressure.BLOCK)) {
+            final var subscription = bus.subscribe("slow", (event, position, endOfBatch) -> awaitQuietly(release));
+            final var publication = executor.submit(() -> {
+                for (int version = 1; version <= 10; version++) {
+                    bus.publish(anEvent("REMINDER1", version), version);
+                }
+            });
+
+            Thread.sleep(100);
+            assertThat(publication).isNotDone();
+            release.countDown();
+            publication.get(10, TimeUnit.SECONDS);
+            awaitUntil(() -> subscription.sequence() == 9);
+            assertThat(bus.droppedEvents()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Example
+    void should_flag_last_event_available_as_end_of_batch() throws Exception {
+        final var consuming = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final List<Boolean> endOfBatchFlags = new CopyOnWriteArrayList<>();
+        try (var bus = new RingBufferReminderEventBus(16, Backpressure.DROP)) {
+            final var subscription = bus.subscribe("subscriber", (event, position, endOfBatch) -> {
+                consuming.countDown();
+                awaitQuietly(release);
+                endOfBatchFlags.add(endOfBatch);
+            });
+            bus.publish(anEvent("REMINDER1", 1), 1);
+            consuming.await(10, TimeUnit.SECONDS);
+            for (int version = 2; version <= 4; version++) {
+                bus.publish(anEvent("REMINDER1", version), version);
+            }
+            release.countDown();
+
+            awaitUntil(() -> subscription.sequence() == 3);
+            assertThat(endOfBatchFlags).containsExactly(true, false, false, true);
+        }
+    }
+
+    @Example
+    void should_keep_delivering_events_after_failure_of_subscriber() {
+        final List<ReminderEvent> received = new CopyOnWriteArrayList<>();
+        try (var bus = new RingBufferReminderEventBus(16, Backpressure.BLOCK)) {
+            final var subscription = bus.subscribe("failing", (event, position, endOfBatch) -> {
+                if (position == 1) {
+                    throw new IllegalStateException("Failure of subscriber");
+                }
+                received.add(event);
+            });
+            bus.publish(anEvent("REMINDER1", 1), 1);
+            bus.publish(anEvent("REMINDER1", 2), 2);
+
+            awaitUntil(() -> subscription.sequence() == 1);
+            assertThat(subscription.failedEvents()).isEqualTo(1);
+            assertThat(received).extracting(event -> event.version().value()).containsExactly(2);
+        }
+    }
+
+    @Example
+    void should_only_deliver_events_published_after_subscription() {
+        final List<ReminderEvent> received = new CopyOnWriteArrayList<>();
+        try (var bus = new RingBufferReminderEventBus(16, Backpressure.BLOCK)) {
+            bus.publish(anEvent("REMINDER1", 1), 1);
+            final var subscription = bus.subscribe("late", (event, position, endOfBatch) -> received.add(event));
+            bus.publish(anEvent("REMINDER1", 2), 2);
+
+            awaitUntil(() -> subscription.sequence() == 1);
+            assertThat(received).extracting(event -> event.version().value()).containsExactly(2);
+        }
+    }
+
+    private static ReminderEvent anEvent(final String reminderId, final int version) {
+        return new ReminderEvent.ReminderAssigned(reminderId, new StreamRevision(version), NOW, "OPERATOR" + version);
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("Condition not met within 10 seconds").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.lifecycle.AfterExample;
+import net.jqwik.api.lifecycle.BeforeExample;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileCheckpointStoreTest {
+
+    private Path directory;
+
+    @BeforeExample
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("checkpoints");
+    }
+
+    @AfterExample
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Example
+    void should_start_from_beginning_of_log_without_checkpoint() {
+        assertThat(new FileCheckpointStore(directory).load("projection")).isZero();
+    }
+
+    @Example
+    void should_load_last_checkpoint_saved_by_previous_instance() {
+        final var checkpoints = new FileCheckpointStore(directory);
+        checkpoints.save("projection1", 42);
+        checkpoints.save("projection1", 4_000_000_000L);
+        checkpoints.save("projection2", 7);
+
+        final var reopenedCheckpoints = new FileCheckpointStore(directory);
+        assertThat(reopenedCheckpoints.load("projection1")).isEqualTo(4_000_000_000L);
+        assertThat(reopenedCheckpoints.load("projection2")).isEqualTo(7);
+    }
+
+}
@@ -0,0 +1,87 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class GroupCommitTest {
+
+    @Property
+    void should_fail_to_initialize_with_non_positive_max_batch_size(@ForAll @IntRange(min = Integer.MIN_VALUE, max = 0) int maxBatchSize) {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new GroupCommit(() -> 0, maxBatchSize, Duration.ZERO))
+                .withMessage("Max batch size is expected to be positive - value: %s", maxBatchSize);
+    }
+
+    @Example
+    void should_not_flush_again_appends_already_durable() {
+        final var flushes = new AtomicInteger();
+        final var groupCommit = new AtomicReference<GroupCommit>();
+        groupCommit.set(new GroupCommit(() -> {
+            flushes.incrementAndGet();
+            return groupCommit.get().lastAppended();
+        }, 10, Duration.ZERO));
+
+        final var first = groupCommit.get().appended();
+        final var second = groupCommit.get().appended();
+        groupCommit.get().awaitDurable(second);
+        groupCommit.get().awaitDurable(first);
+
+        assertThat(flushes).hasValue(1);
+    }
+
+    @Example
+    void should_make_concurrent_appends_durable_in_fewer_flushes() throws Exception {
+        final var flushes = new AtomicInteger();
+        final var groupCommit = new AtomicReference<GroupCommit>();
+        groupCommit.set(new GroupCommit(() -> {
+            flushes.incrementAndGet();
+            final var sequence = groupCommit.get().lastAppended();
+            sleep(Duration.ofMillis(2));
+            return sequence;
+        }, 64, Duration.ofMillis(1)));
+        final var threads = 8;
+        final var appendsPerThread = 20;
+        final var executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < appendsPerThread; j++) {
+                        groupCommit.get().awaitDurable(groupCommit.get().appended());
+                    }
+                    return null;
+                });
+            }
+            for (final Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(flushes.get()).isLessThan(threads * appendsPerThread);
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
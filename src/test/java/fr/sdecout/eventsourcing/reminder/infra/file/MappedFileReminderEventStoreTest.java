@@ -0,0 +1,585 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.*;
+import net.jqwik.api.Example;
+import net.jqwik.api.lifecycle.AfterExample;
+import net.jqwik.api.lifecycle.BeforeExample;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.CANCELLED;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.PENDING;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+
+class MappedFileReminderEventStoreTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final Clock clock = Clock.fixed(NOW, systemDefault());
+    private final AtomicInteger idSequence = new AtomicInteger();
+    private final ReminderIdGenerator idGenerator = () -> "REMINDER" + idSequence.incrementAndGet();
+    private Path directory;
+
+    @BeforeExample
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("reminder-log");
+    }
+
+    @AfterExample
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Example
+    void should_not_find_unknown_reminder() {
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            assertThat(eventStore.find("UNKNOWN")).isEmpty();
+        }
+    }
+
+    @Example
+    void should_tell_head_revision_of_stream() {
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+            commandHandler.transfer(reminder.id(), new Country("BE"));
+
+            assertThat(eventStore.headRevision(reminder.id())).contains(new StreamRevision(3));
+            assertThat(eventStore.headRevision("UNKNOWN")).isEmpty();
+        }
+    }
+
+    @Example
+    void should_find_saved_reminder() {
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+
+            final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+            commandHandler.assign(reminder.id(), "OPERATOR1");
+            commandHandler.transfer(reminder.id(), new Country("IT"));
+
+            assertThat(eventStore.find(reminder.id()).map(ReminderAggregate::state)).hasValueSatisfying(state -> {
+                assertThat(state.version()).isEqualTo(new StreamRevision(4));
+                assertThat(state.status()).isEqualTo(PENDING);
+                assertThat(state.assignee()).isNull();
+                assertThat(state.country()).isEqualTo(new Country("IT"));
+                assertThat(state.scheduledTime()).isEqualTo(A_DATE_IN_THE_FUTURE);
+            });
+        }
+    }
+
+    @Example
+    void should_find_reminders_by_intervention() {
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+
+            final var reminder1 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+            commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION2", A_DATE_IN_THE_FUTURE);
+            final var reminder3 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+
+            assertThat(eventStore.findByIntervention("INTERVENTION1"))
+                    .extracting(aggregate -> aggregate.state().id())
+                    .containsExactlyInAnyOrder(reminder1.id(), reminder3.id());
+        }
+    }
+
+    @Example
+    void should_find_many_reminders_at_once_as_one_at_a_time() {
+        try (var parallelReplay = ParallelReplay.withParallelism(4);
+             var eventStore = new MappedFileReminderEventStore(directory, 1024 * 1024, clock, SnapshotPolicy.every(3),
+                     GroupCommit.DEFAULT_MAX_BATCH_SIZE, GroupCommit.DEFAULT_MAX_LINGER, parallelReplay)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final List<String> reminderIds = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                reminderIds.add(commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id());
+                for (int j = 0; j < i % 7; j++) {
+                    commandHandler.assign(reminderIds.get(i / 2), "OPERATOR" + j);
+                }
+            }
+            reminderIds.add(25, "UNKNOWN");
+
+            assertThat(eventStore.findAll(reminderIds))
+                    .extracting(ReminderAggregate::state)
+                    .containsExactlyElementsOf(reminderIds.stream()
+                            .flatMap(reminderId -> eventStore.find(reminderId).stream())
+                            .map(ReminderAggregate::state)
+                            .toList());
+        }
+    }
+
+    @Example
+    void should_find_reminders_by_intervention_after_reopening() {
+        final String reminderId;
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION2", A_DATE_IN_THE_FUTURE);
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            assertThat(eventStore.findByIntervention("INTERVENTION1"))
+                    .extracting(aggregate -> aggregate.state().id())
+                    .containsExactly(reminderId);
+        }
+    }
+
+    @Example
+    void should_keep_ulid_reminder_ids_apart_from_other_ones_after_reopening() {
+        final ReminderIdGenerator ulidGenerator = () -> new Ulid(NOW.toEpochMilli() << 16 | 1, 42).toString();
+        final String ulidReminderId;
+        final String otherReminderId;
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            ulidReminderId = new CommandHandler(eventStore, ulidGenerator, clock).schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            otherReminderId = new CommandHandler(eventStore, ulidReminderId::toLowerCase, clock).schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            assertThat(eventStore.find(ulidReminderId)).map(aggregate -> aggregate.state().id()).contains(ulidReminderId);
+            assertThat(eventStore.find(otherReminderId)).map(aggregate -> aggregate.state().id()).contains(otherReminderId);
+            assertThat(eventStore.findByIntervention("INTERVENTION1"))
+                    .extracting(aggregate -> aggregate.state().id())
+                    .containsExactlyInAnyOrder(ulidReminderId, otherReminderId);
+        }
+    }
+
+    @Example
+    void should_arm_timers_of_pending_reminders_again_after_reopening() {
+        final String pendingReminderId;
+        final String cancelledReminderId;
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            pendingReminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            cancelledReminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            commandHandler.cancel(cancelledReminderId);
+            final var engine = new ProjectionEngine(eventStore, new FileCheckpointStore(directory), clock);
+            engine.register(new ReminderTimerProjection(mock(ReminderTimer.class)).projection());
+            engine.close();
+        }
+
+        final var timer = mock(ReminderTimer.class);
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            new ProjectionEngine(eventStore, new FileCheckpointStore(directory), clock)
+                    .register(new ReminderTimerProjection(timer).projection());
+        }
+
+        then(timer).should().scheduleAll(List.of(new DueReminder(pendingReminderId, A_DATE_IN_THE_FUTURE.toInstant())));
+        then(timer).should().cancel(cancelledReminderId);
+    }
+
+    @Example
+    void should_rebuild_intervention_index_from_log_on_startup() throws IOException {
+        final String reminder1;
+        final String reminder2;
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            reminder1 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION2", A_DATE_IN_THE_FUTURE);
+            reminder2 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            commandHandler.cancel(reminder1);
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            assertThat(eventStore.findByIntervention("INTERVENTION1"))
+                    .extracting(aggregate -> aggregate.state().id())
+                    .containsExactlyInAnyOrder(reminder1, reminder2);
+            assertThat(eventStore.findByIntervention("INTERVENTION2")).hasSize(1);
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files).allSatisfy(file -> assertThat(file.getFileName().toString()).endsWith(".segment"));
+        }
+    }
+
+    @Example
+    void should_reject_save_of_aggregate_loaded_before_a_concurrent_update() {
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+            final var staleAggregate = eventStore.find(reminder.id()).orElseThrow();
+            commandHandler.cancel(reminder.id());
+            staleAggregate.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder.id(), new StreamRevision(2), NOW, "OPERATOR1"));
+
+            assertThatExceptionOfType(StreamRevisionConflictException.class)
+                    .isThrownBy(() -> eventStore.save(staleAggregate, new StreamRevision(1)))
+                    .withMessage("Conflicting update of stream '%s': expected revision V1, found V2", reminder.id());
+        }
+    }
+
+    @Example
+    void should_save_many_reminders_at_once_except_the_ones_updated_concurrently() {
+        final String reminder1;
+        final String reminder2;
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            reminder1 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            reminder2 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            final var aggregate1 = eventStore.find(reminder1).orElseThrow();
+            final var staleAggregate2 = eventStore.find(reminder2).orElseThrow();
+            commandHandler.cancel(reminder2);
+            aggregate1.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder1, new StreamRevision(2), NOW, "OPERATOR1"));
+            staleAggregate2.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder2, new StreamRevision(2), NOW, "OPERATOR1"));
+
+            final var failures = eventStore.saveAll(List.of(
+                    new ReminderSave(aggregate1, new StreamRevision(1)),
+                    new ReminderSave(staleAggregate2, new StreamRevision(1))));
+
+            assertThat(failures).containsOnlyKeys(reminder2);
+            assertThat(failures.get(reminder2))
+                    .isInstanceOf(StreamRevisionConflictException.class)
+                    .hasMessage("Conflicting update of stream '%s': expected revision V1, found V2", reminder2);
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            assertThat(eventStore.find(reminder1)).get().extracting(aggregate -> aggregate.state().assignee()).isEqualTo("OPERATOR1");
+            assertThat(eventStore.find(reminder2)).get().extracting(aggregate -> aggregate.state().status()).isEqualTo(CANCELLED);
+        }
+    }
+
+    @Example
+    void should_save_many_reminders_at_once_except_the_ones_too_large_for_a_segment() {
+        final String reminder1;
+        final String reminder2;
+        final String reminder3;
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.disabled())) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            reminder1 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            reminder2 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            reminder3 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            final var aggregate1 = eventStore.find(reminder1).orElseThrow();
+            final var oversizedAggregate2 = eventStore.find(reminder2).orElseThrow();
+            final var aggregate3 = eventStore.find(reminder3).orElseThrow();
+            aggregate1.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder1, new StreamRevision(2), NOW, "OPERATOR1"));
+            oversizedAggregate2.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder2, new StreamRevision(2), NOW, "O".repeat(2048)));
+            aggregate3.pendingEvents().add(new ReminderEvent.ReminderCancelled(reminder3, new StreamRevision(2), NOW));
+
+            final var failures = eventStore.saveAll(List.of(
+                    new ReminderSave(aggregate1, new StreamRevision(1)),
+                    new ReminderSave(oversizedAggregate2, new StreamRevision(1)),
+                    new ReminderSave(aggregate3, new StreamRevision(1))));
+
+            assertThat(failures).containsOnlyKeys(reminder2);
+            assertThat(failures.get(reminder2))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Frame of stream '%s' does not fit in a segment of 1024 bytes", reminder2);
+            assertThat(eventStore.headPosition()).isEqualTo(5);
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.disabled())) {
+            assertThat(eventStore.find(reminder1)).get().extracting(aggregate -> aggregate.state().assignee()).isEqualTo("OPERATOR1");
+            assertThat(eventStore.headRevision(reminder2)).contains(new StreamRevision(1));
+            assertThat(eventStore.find(reminder3)).get().extracting(aggregate -> aggregate.state().status()).isEqualTo(CANCELLED);
+        }
+    }
+
+    @Example
+    void should_publish_appended_events_in_log_order() {
+        final List<ReminderEvent> published = new ArrayList<>();
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024 * 1024, clock, SnapshotPolicy.every(2),
+                GroupCommit.DEFAULT_MAX_BATCH_SIZE, GroupCommit.DEFAULT_MAX_LINGER, ParallelReplay.sequential(), (event, position) -> published.add(event))) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final var reminder1 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+            final var reminder2 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+            commandHandler.handleAll(List.of(
+                    new ReminderCommand.Assign(reminder2.id(), "OPERATOR1"),
+                    new ReminderCommand.Cancel(reminder1.id())));
+
+            assertThat(published)
+                    .extracting(event -> event.streamId() + " " + event.getClass().getSimpleName())
+                    .containsExactly(
+                            reminder1.id() + " ReminderScheduled",
+                            reminder2.id() + " ReminderScheduled",
+                            reminder2.id() + " ReminderAssigned",
+                            reminder1.id() + " ReminderCancelled");
+        }
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024 * 1024, clock, SnapshotPolicy.every(2),
+                GroupCommit.DEFAULT_MAX_BATCH_SIZE, GroupCommit.DEFAULT_MAX_LINGER, ParallelReplay.sequential(), (event, position) -> published.add(event))) {
+            assertThat(published).hasSize(4);
+        }
+    }
+
+    @Example
+    void should_publish_events_of_a_failed_flush_with_the_next_one() {
+        final List<String> published = new ArrayList<>();
+        final var failingForces = new AtomicInteger(1);
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024 * 1024, clock, SnapshotPolicy.disabled(),
+                GroupCommit.DEFAULT_MAX_BATCH_SIZE, GroupCommit.DEFAULT_MAX_LINGER, ParallelReplay.sequential(),
+                (event, position) -> published.add(position + " " + event.getClass().getSimpleName()),
+                (segment, fromOffset, toOffset) -> {
+                    if (failingForces.getAndDecrement() > 0) {
+                        throw new UncheckedIOException(new IOException("Disk failure"));
+                    }
+                    segment.force(fromOffset, toOffset);
+                })) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+
+            assertThatExceptionOfType(UncheckedIOException.class)
+                    .isThrownBy(() -> commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE))
+                    .withMessageContaining("Disk failure");
+            assertThat(published).isEmpty();
+            assertThat(eventStore.headPosition()).isZero();
+
+            commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+
+            assertThat(published).containsExactly("1 ReminderScheduled", "2 ReminderScheduled");
+            assertThat(eventStore.headPosition()).isEqualTo(2);
+        }
+    }
+
+    @Example
+    void should_publish_concurrent_saves_in_log_order_once_durable() throws Exception {
+        final List<Long> published = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> notInLog = Collections.synchronizedList(new ArrayList<>());
+        final var eventLog = new AtomicReference<ReminderEventLog>();
+        try (var eventStore = new MappedFileReminderEventStore(directory, 64 * 1024, clock, SnapshotPolicy.disabled(),
+                GroupCommit.DEFAULT_MAX_BATCH_SIZE, GroupCommit.DEFAULT_MAX_LINGER, ParallelReplay.sequential(), (event, position) -> {
+            published.add(position);
+            if (position > eventLog.get().headPosition()) {
+                notInLog.add(position);
+            }
+        })) {
+            eventLog.set(eventStore);
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final var executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Callable<Object>> tasks = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    tasks.add(() -> {
+                        for (int j = 0; j < 25; j++) {
+                            commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+                        }
+                        return null;
+                    });
+                }
+                for (final Future<Object> result : executor.invokeAll(tasks)) {
+                    result.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(published).containsExactlyElementsOf(LongStream.rangeClosed(1, 100).boxed().collect(toList()));
+            assertThat(notInLog).isEmpty();
+            assertThat(eventStore.headPosition()).isEqualTo(100);
+        }
+    }
+
+    @Example
+    void should_read_committed_events_from_any_position_in_log_after_reopening() {
+        final List<Long> published = new ArrayList<>();
+        final String reminderId;
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.every(2))) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            for (int i = 0; i < 40; i++) {
+                commandHandler.transfer(reminderId, Country.of(i % 2 == 0 ? "BE" : "FR"));
+            }
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.every(2),
+                GroupCommit.DEFAULT_MAX_BATCH_SIZE, GroupCommit.DEFAULT_MAX_LINGER, ParallelReplay.sequential(),
+                (event, position) -> published.add(position))) {
+            final List<String> read = new ArrayList<>();
+            final var count = eventStore.read(50, 4, (event, position, endOfBatch) ->
+                    read.add(position + " " + event.version() + (endOfBatch ? " END" : "")));
+            new CommandHandler(eventStore, idGenerator, clock).cancel(reminderId);
+
+            assertThat(count).isEqualTo(4);
+            assertThat(read).containsExactly("50 V50", "51 V51", "52 V52", "53 V53 END");
+            assertThat(eventStore.read(80, 10, (event, position, endOfBatch) -> read.add(position + " " + event.version())))
+                    .isEqualTo(3);
+            assertThat(read).endsWith("80 V80", "81 V81", "82 V82");
+            assertThat(eventStore.headPosition()).isEqualTo(82);
+            assertThat(published).containsExactly(82L);
+        }
+    }
+
+    @Example
+    void should_fail_to_save_events_with_inconsistent_revision() {
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+            final var aggregate = eventStore.find(reminder.id()).orElseThrow();
+            aggregate.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder.id(), new StreamRevision(3), NOW, "OPERATOR1"));
+
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> eventStore.save(aggregate, new StreamRevision(1)))
+                    .withMessage("Inconsistent stream revision for stream '%s': V3 (expected: V2)", reminder.id());
+        }
+    }
+
+    @Example
+    void should_recover_reminders_after_reopening() {
+        final String reminderId;
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            commandHandler.cancel(reminderId);
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, clock)) {
+            assertThat(eventStore.find(reminderId).map(ReminderAggregate::state))
+                    .hasValueSatisfying(state -> assertThat(state.status()).isEqualTo(CANCELLED));
+            new CommandHandler(eventStore, idGenerator, clock).reopen(reminderId);
+            assertThat(eventStore.find(reminderId).map(ReminderAggregate::state))
+                    .hasValueSatisfying(state -> assertThat(state.version()).isEqualTo(new StreamRevision(3)));
+        }
+    }
+
+    @Example
+    void should_keep_events_of_save_whose_snapshot_does_not_fit_in_a_segment() throws IOException {
+        for (int assigneeLength = 900; assigneeLength < 1024; assigneeLength += 4) {
+            final var storeDirectory = Files.createDirectory(directory.resolve("store" + assigneeLength));
+            final var assignee = "O".repeat(assigneeLength);
+            final String reminderId;
+            boolean assigned;
+            try (var eventStore = new MappedFileReminderEventStore(storeDirectory, 1024, clock, SnapshotPolicy.every(2))) {
+                final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+                reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+                try {
+                    commandHandler.assign(reminderId, assignee);
+                    assigned = true;
+                } catch (IllegalArgumentException e) {
+                    assigned = false;
+                }
+                commandHandler.cancel(reminderId);
+            }
+
+            try (var eventStore = new MappedFileReminderEventStore(storeDirectory, 1024, clock, SnapshotPolicy.every(2))) {
+                final var expectedAssignee = assigned ? assignee : null;
+                assertThat(eventStore.find(reminderId).map(ReminderAggregate::state)).hasValueSatisfying(state -> {
+                    assertThat(state.version()).isEqualTo(new StreamRevision(expectedAssignee == null ? 2 : 3));
+                    assertThat(state.assignee()).isEqualTo(expectedAssignee);
+                    assertThat(state.status()).isEqualTo(CANCELLED);
+                });
+            }
+        }
+    }
+
+    @Example
+    void should_fail_save_whose_snapshot_cannot_be_written_once_its_events_are_durable() throws IOException {
+        var eventsDurableBeforeFailure = 0;
+        for (int assigneeLength = 900; assigneeLength < 1024; assigneeLength += 4) {
+            final var storeDirectory = Files.createDirectory(directory.resolve("store" + assigneeLength));
+            final var assignee = "O".repeat(assigneeLength);
+            try (var eventStore = new MappedFileReminderEventStore(storeDirectory, 1024, clock, SnapshotPolicy.every(2))) {
+                Files.createDirectory(storeDirectory.resolve("0000000001.segment"));
+                final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+                final var reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+                try {
+                    commandHandler.assign(reminderId, assignee);
+                } catch (UncheckedIOException e) {
+                    if (eventStore.headRevision(reminderId).orElseThrow().equals(new StreamRevision(2))) {
+                        assertThat(eventStore.headPosition()).isEqualTo(2);
+                        eventsDurableBeforeFailure++;
+                    } else {
+                        assertThat(eventStore.headPosition()).isEqualTo(1);
+                    }
+                }
+            }
+        }
+
+        assertThat(eventsDurableBeforeFailure).isPositive();
+    }
+
+    @Example
+    void should_rehydrate_reminder_from_latest_snapshot_and_following_events() {
+        final String reminderId;
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.every(3))) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            for (int i = 1; i <= 10; i++) {
+                final var assignee = "OPERATOR" + i;
+                commandHandler.assign(reminderId, assignee);
+                assertThat(eventStore.find(reminderId).map(ReminderAggregate::state))
+                        .hasValueSatisfying(state -> assertThat(state.assignee()).isEqualTo(assignee));
+            }
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.every(3))) {
+            assertThat(eventStore.find(reminderId).map(ReminderAggregate::state)).hasValueSatisfying(state -> {
+                assertThat(state.version()).isEqualTo(new StreamRevision(11));
+                assertThat(state.interventionId()).isEqualTo("INTERVENTION1");
+                assertThat(state.assignee()).isEqualTo("OPERATOR10");
+                assertThat(state.status()).isEqualTo(PENDING);
+            });
+            assertThat(eventStore.findByIntervention("INTERVENTION1")).hasSize(1);
+        }
+    }
+
+    @Example
+    void should_roll_over_to_new_segment_when_current_one_is_full() {
+        final var reminderIds = new String[100];
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.disabled())) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            for (int i = 0; i < reminderIds.length; i++) {
+                reminderIds[i] = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+            }
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, 1024, clock, SnapshotPolicy.disabled())) {
+            assertThat(directory.resolve(LogSegment.fileName(1))).exists();
+            assertThat(reminderIds).allSatisfy(reminderId -> assertThat(eventStore.find(reminderId)).isPresent());
+        }
+    }
+
+    @Example
+    void should_keep_every_concurrent_save_after_reopening() throws Exception {
+        final var threads = 8;
+        final var remindersPerThread = 25;
+        final List<String> reminderIds = new ArrayList<>();
+        try (var eventStore = new MappedFileReminderEventStore(directory, 64 * 1024, clock, SnapshotPolicy.disabled())) {
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final var executor = Executors.newFixedThreadPool(threads);
+            try {
+                final List<Callable<List<String>>> tasks = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    tasks.add(() -> {
+                        final List<String> ids = new ArrayList<>();
+                        for (int j = 0; j < remindersPerThread; j++) {
+                            final var reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+                            commandHandler.assign(reminderId, "OPERATOR1");
+                            ids.add(reminderId);
+                        }
+                        return ids;
+                    });
+                }
+                for (final Future<List<String>> result : executor.invokeAll(tasks)) {
+                    reminderIds.addAll(result.get());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        try (var eventStore = new MappedFileReminderEventStore(directory, 64 * 1024, clock, SnapshotPolicy.disabled())) {
+            assertThat(reminderIds).hasSize(threads * remindersPerThread).allSatisfy(reminderId ->
+                    assertThat(eventStore.find(reminderId).map(aggregate -> aggregate.state().assignee())).hasValue("OPERATOR1"));
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package fr.sdecout.eventsourcing.reminder.infra.file;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderEvent;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderState;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class ReminderEventCodecTest {
+
+    @Property
+    void should_read_written_event(@ForAll ReminderEvent event) {
+        final var buffer = ByteBuffer.allocate(4096);
+
+        ReminderEventCodec.write(event, buffer);
+
+        assertThat(ReminderEventCodec.read(buffer.flip())).isEqualTo(event);
+    }
+
+    @Property
+    void should_read_written_state(@ForAll ReminderState state) {
+        final var buffer = ByteBuffer.allocate(4096);
+
+        ReminderEventCodec.writeState(state, buffer);
+
+        assertThat(ReminderEventCodec.readState(buffer.flip())).isEqualTo(state);
+    }
+
+    @Property
+    void should_read_written_varint(@ForAll int value) {
+        final var buffer = ByteBuffer.allocate(5);
+
+        ReminderEventCodec.writeVarInt(value, buffer);
+
+        assertThat(ReminderEventCodec.readVarInt(buffer.flip())).isEqualTo(value);
+    }
+
+    @Example
+    void should_encode_typical_event_compactly() {
+        final var buffer = ByteBuffer.allocate(4096);
+
+        ReminderEventCodec.write(new ReminderEvent.ReminderCancelled("REMINDER1", new StreamRevision(2), Instant.parse("2017-12-31T23:59:59Z")), buffer);
+
+        assertThat(buffer.position()).isEqualTo(1 + (1 + 9) + 1 + 5);
+    }
+
+    @Example
+    void should_fail_to_read_unsupported_format_version() {
+        final var buffer = ByteBuffer.allocate(1).put((byte) (ReminderEventCodec.FORMAT_VERSION + 1));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> ReminderEventCodec.readFormatVersion(buffer.flip()))
+                .withMessage("Unsupported codec format version: %s (expected: %s)", ReminderEventCodec.FORMAT_VERSION + 1, ReminderEventCodec.FORMAT_VERSION);
+    }
+
+}
@@ -0,0 +1,98 @@
+package fr.sdecout.eventsourcing.reminder.infra.id;
+
+import fr.sdecout.eventsourcing.reminder.domain.Ulid;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class UlidReminderIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+
+    private final Clock clock = Clock.fixed(NOW, systemDefault());
+
+    @Example
+    void should_fail_to_initialize_with_node_id_out_of_range() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new UlidReminderIdGenerator(clock, 65_536))
+                .withMessage("Node ID is expected to be between 0 and 65535 - value: 65536");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new UlidReminderIdGenerator(clock, -1))
+                .withMessage("Node ID is expected to be between 0 and 65535 - value: -1");
+    }
+
+    @Example
+    void should_generate_ids_holding_timestamp_and_node_id() {
+        final var ulid = Ulid.parse(new UlidReminderIdGenerator(clock, 42).generate());
+
+        assertThat(ulid).hasValueSatisfying(value -> {
+            assertThat(value.instant()).isEqualTo(NOW);
+            assertThat(value.mostSignificantBits() & 0xFFFF).isEqualTo(42);
+        });
+    }
+
+    @Example
+    void should_generate_increasing_ids_within_a_millisecond() {
+        final var generator = new UlidReminderIdGenerator(clock, 1);
+
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(generator.generate());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(Ulid.parse(ids.get(ids.size() - 1))).map(Ulid::instant).contains(NOW.plusMillis(1));
+    }
+
+    @Example
+    void should_keep_generating_increasing_ids_when_clock_goes_backward() {
+        final var backwardClock = mock(Clock.class);
+        given(backwardClock.millis()).willReturn(NOW.toEpochMilli(), NOW.toEpochMilli() - 1_000);
+        final var generator = new UlidReminderIdGenerator(backwardClock, 1);
+
+        final var first = generator.generateUlid();
+        final var second = generator.generateUlid();
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(second.instant()).isEqualTo(NOW);
+    }
+
+    @Example
+    void should_generate_unique_increasing_ids_concurrently() throws Exception {
+        final var generator = new UlidReminderIdGenerator(clock, 1);
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<List<Ulid>>> tasks = new ArrayList<>();
+            for (int task = 0; task < 4; task++) {
+                tasks.add(() -> {
+                    final List<Ulid> ids = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.generateUlid());
+                    }
+                    return ids;
+                });
+            }
+            final List<Ulid> allIds = new ArrayList<>();
+            for (final Future<List<Ulid>> ids : executor.invokeAll(tasks)) {
+                assertThat(ids.get()).isSorted();
+                allIds.addAll(ids.get());
+            }
+            assertThat(allIds).doesNotHaveDuplicates().hasSize(40_000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
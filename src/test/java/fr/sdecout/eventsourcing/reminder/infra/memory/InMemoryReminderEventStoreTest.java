@@ -0,0 +1,266 @@
+package fr.sdecout.eventsourcing.reminder.infra.memory;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.*;
+import net.jqwik.api.Example;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.*;
+
+class InMemoryReminderEventStoreTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+    private static final ZonedDateTime A_DATE_IN_THE_FUTURE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final Clock clock = Clock.fixed(NOW, systemDefault());
+    private final AtomicInteger idSequence = new AtomicInteger();
+    private final ReminderIdGenerator idGenerator = () -> "REMINDER" + idSequence.incrementAndGet();
+    private final InMemoryReminderEventStore eventStore = new InMemoryReminderEventStore(clock);
+    private final CommandHandler commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_concurrency_level() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new InMemoryReminderEventStore(clock, 0, SnapshotPolicy.disabled()))
+                .withMessage("Concurrency level is expected to be positive - value: 0");
+    }
+
+    @Example
+    void should_not_find_unknown_reminder() {
+        assertThat(eventStore.find("UNKNOWN")).isEmpty();
+    }
+
+    @Example
+    void should_find_saved_reminder() {
+        final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        commandHandler.assign(reminder.id(), "OPERATOR1");
+
+        assertThat(eventStore.find(reminder.id()).map(ReminderAggregate::state)).hasValueSatisfying(state -> {
+            assertThat(state.version()).isEqualTo(new StreamRevision(2));
+            assertThat(state.assignee()).isEqualTo("OPERATOR1");
+        });
+    }
+
+    @Example
+    void should_tell_head_revision_of_stream() {
+        final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        commandHandler.transfer(reminder.id(), new Country("BE"));
+
+        assertThat(eventStore.headRevision(reminder.id())).contains(new StreamRevision(3));
+        assertThat(eventStore.headRevision("UNKNOWN")).isEmpty();
+    }
+
+    @Example
+    void should_rehydrate_reminder_from_latest_snapshot_and_following_events() {
+        final var eventStore = new InMemoryReminderEventStore(clock, 1, SnapshotPolicy.every(3));
+        final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+        final var reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+
+        for (int i = 1; i <= 10; i++) {
+            final var assignee = "OPERATOR" + i;
+            commandHandler.assign(reminderId, assignee);
+            assertThat(eventStore.find(reminderId).map(ReminderAggregate::state)).hasValueSatisfying(state -> {
+                assertThat(state.interventionId()).isEqualTo("INTERVENTION1");
+                assertThat(state.assignee()).isEqualTo(assignee);
+            });
+        }
+    }
+
+    @Example
+    void should_find_reminders_by_intervention() {
+        final var reminder1 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION2", A_DATE_IN_THE_FUTURE);
+        final var reminder3 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+
+        assertThat(eventStore.findByIntervention("INTERVENTION1"))
+                .extracting(aggregate -> aggregate.state().id())
+                .containsExactlyInAnyOrder(reminder1.id(), reminder3.id());
+    }
+
+    @Example
+    void should_find_many_reminders_at_once_as_one_at_a_time() {
+        try (var parallelReplay = ParallelReplay.withParallelism(4)) {
+            final var eventStore = new InMemoryReminderEventStore(clock, 1, SnapshotPolicy.every(3), parallelReplay);
+            final var commandHandler = new CommandHandler(eventStore, idGenerator, clock);
+            final List<String> reminderIds = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                reminderIds.add(commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id());
+                for (int j = 0; j < i % 7; j++) {
+                    commandHandler.assign(reminderIds.get(i / 2), "OPERATOR" + j);
+                }
+            }
+            reminderIds.add(25, "UNKNOWN");
+
+            assertThat(eventStore.findAll(reminderIds))
+                    .extracting(ReminderAggregate::state)
+                    .containsExactlyElementsOf(reminderIds.stream()
+                            .flatMap(reminderId -> eventStore.find(reminderId).stream())
+                            .map(ReminderAggregate::state)
+                            .toList());
+        }
+    }
+
+    @Example
+    void should_publish_appended_events_in_order() {
+        final List<ReminderEvent> published = new ArrayList<>();
+        final var publishingEventStore = new InMemoryReminderEventStore(clock, 4, SnapshotPolicy.disabled(), ParallelReplay.sequential(), (event, position) -> published.add(event));
+        final var publishingCommandHandler = new CommandHandler(publishingEventStore, idGenerator, clock);
+        final var reminder = publishingCommandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        publishingCommandHandler.transfer(reminder.id(), Country.of("BE"));
+        final var staleAggregate = publishingEventStore.find(reminder.id()).orElseThrow();
+        publishingCommandHandler.cancel(reminder.id());
+        staleAggregate.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder.id(), new StreamRevision(4), NOW, "OPERATOR1"));
+
+        assertThatExceptionOfType(StreamRevisionConflictException.class)
+                .isThrownBy(() -> publishingEventStore.save(staleAggregate, new StreamRevision(3)));
+        assertThat(published)
+                .extracting(event -> event.getClass().getSimpleName() + " " + event.version())
+                .containsExactly("ReminderScheduled V1", "ReminderUnassigned V2", "ReminderTransferred V3", "ReminderCancelled V4");
+    }
+
+    @Example
+    void should_save_many_reminders_at_once_except_the_ones_updated_concurrently() {
+        final List<String> published = new ArrayList<>();
+        final var publishingEventStore = new InMemoryReminderEventStore(clock, 4, SnapshotPolicy.disabled(), ParallelReplay.sequential(),
+                (event, position) -> published.add(position + " " + event.streamId() + " " + event.getClass().getSimpleName()));
+        final var publishingCommandHandler = new CommandHandler(publishingEventStore, idGenerator, clock);
+        final var reminder1 = publishingCommandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+        final var reminder2 = publishingCommandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+        final var reminder3 = publishingCommandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+        final var aggregate1 = publishingEventStore.find(reminder1).orElseThrow();
+        final var staleAggregate2 = publishingEventStore.find(reminder2).orElseThrow();
+        final var aggregate3 = publishingEventStore.find(reminder3).orElseThrow();
+        publishingCommandHandler.cancel(reminder2);
+        aggregate1.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder1, new StreamRevision(2), NOW, "OPERATOR1"));
+        staleAggregate2.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder2, new StreamRevision(2), NOW, "OPERATOR1"));
+        aggregate3.pendingEvents().add(new ReminderEvent.ReminderCancelled(reminder3, new StreamRevision(2), NOW));
+
+        final var failures = publishingEventStore.saveAll(List.of(
+                new ReminderSave(aggregate1, new StreamRevision(1)),
+                new ReminderSave(staleAggregate2, new StreamRevision(1)),
+                new ReminderSave(aggregate3, new StreamRevision(1))));
+
+        assertThat(failures).containsOnlyKeys(reminder2);
+        assertThat(failures.get(reminder2))
+                .isInstanceOf(StreamRevisionConflictException.class)
+                .hasMessage("Conflicting update of stream '%s': expected revision V1, found V2", reminder2);
+        assertThat(publishingEventStore.find(reminder1).orElseThrow().state().assignee()).isEqualTo("OPERATOR1");
+        assertThat(publishingEventStore.find(reminder3).orElseThrow().state().status()).isEqualTo(ReminderState.ReminderStatus.CANCELLED);
+        assertThat(published).endsWith(
+                "5 " + reminder1 + " ReminderAssigned",
+                "6 " + reminder3 + " ReminderCancelled");
+    }
+
+    @Example
+    void should_read_committed_events_from_any_position_in_log() {
+        final var reminder1 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        final var reminder2 = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        commandHandler.transfer(reminder1.id(), Country.of("BE"));
+        commandHandler.cancel(reminder2.id());
+        final List<String> read = new ArrayList<>();
+
+        final var count = eventStore.read(2, 3, (event, position, endOfBatch) ->
+                read.add(position + " " + event.streamId() + " " + event.getClass().getSimpleName() + (endOfBatch ? " END" : "")));
+
+        assertThat(eventStore.headPosition()).isEqualTo(5);
+        assertThat(count).isEqualTo(3);
+        assertThat(read).containsExactly(
+                "2 " + reminder2.id() + " ReminderScheduled",
+                "3 " + reminder1.id() + " ReminderUnassigned",
+                "4 " + reminder1.id() + " ReminderTransferred END");
+        assertThat(eventStore.read(6, 10, (event, position, endOfBatch) -> read.add("UNEXPECTED"))).isZero();
+    }
+
+    @Example
+    void should_reject_save_of_aggregate_loaded_before_a_concurrent_update() {
+        final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        final var staleAggregate = eventStore.find(reminder.id()).orElseThrow();
+        commandHandler.cancel(reminder.id());
+        staleAggregate.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder.id(), new StreamRevision(2), NOW, "OPERATOR1"));
+
+        assertThatExceptionOfType(StreamRevisionConflictException.class)
+                .isThrownBy(() -> eventStore.save(staleAggregate, new StreamRevision(1)))
+                .withMessage("Conflicting update of stream '%s': expected revision V1, found V2", reminder.id());
+    }
+
+    @Example
+    void should_accept_only_one_of_concurrent_appends_at_same_revision() throws Exception {
+        final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        final var threads = 8;
+        final var start = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final var aggregate = eventStore.find(reminder.id()).orElseThrow();
+                aggregate.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder.id(), new StreamRevision(2), NOW, "OPERATOR" + i));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        eventStore.save(aggregate, new StreamRevision(1));
+                        return true;
+                    } catch (StreamRevisionConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            var successes = 0;
+            for (final Future<Boolean> result : results) {
+                successes += result.get() ? 1 : 0;
+            }
+            assertThat(successes).isEqualTo(1);
+            assertThat(eventStore.find(reminder.id()).orElseThrow().state().version()).isEqualTo(new StreamRevision(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Example
+    void should_fail_to_save_events_that_do_not_follow_stored_head() {
+        final var reminder = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE);
+        final var aggregate = eventStore.find(reminder.id()).orElseThrow();
+        aggregate.pendingEvents().add(new ReminderEvent.ReminderAssigned(reminder.id(), new StreamRevision(3), NOW, "OPERATOR1"));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> eventStore.save(aggregate, new StreamRevision(1)))
+                .withMessage("Inconsistent stream revision for stream '%s': V3 (expected: V2)", reminder.id());
+    }
+
+    @Example
+    void should_handle_concurrent_commands_on_different_reminders() throws Exception {
+        final var threads = 8;
+        final var commandsPerThread = 200;
+        final var executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<String>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(() -> {
+                    final var reminderId = commandHandler.schedule(CALL_CUSTOMER, "INTERVENTION1", A_DATE_IN_THE_FUTURE).id();
+                    for (int j = 0; j < commandsPerThread; j++) {
+                        commandHandler.assign(reminderId, "OPERATOR" + j);
+                    }
+                    return reminderId;
+                });
+            }
+
+            for (final Future<String> reminderId : executor.invokeAll(tasks)) {
+                assertThat(eventStore.find(reminderId.get()).orElseThrow().state().version())
+                        .isEqualTo(new StreamRevision(commandsPerThread + 1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
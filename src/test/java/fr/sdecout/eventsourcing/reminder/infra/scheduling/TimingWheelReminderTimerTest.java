@@ -0,0 +1,123 @@
+package fr.sdecout.eventsourcing.reminder.infra.scheduling;
+
+import fr.sdecout.eventsourcing.reminder.domain.DueReminder;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TimingWheelReminderTimerTest {
+
+    private static final Instant NOW = Instant.parse("2017-12-31T23:59:59Z");
+    private static final Duration TICK = Duration.ofMillis(100);
+
+    private final List<List<DueReminder>> batches = new ArrayList<>();
+    private final TimingWheelReminderTimer timer = new TimingWheelReminderTimer(Clock.fixed(NOW, ZoneOffset.UTC), batches::add, TICK, 3);
+
+    @Example
+    void should_fail_to_initialize_with_non_positive_max_batch_size() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new TimingWheelReminderTimer(Clock.fixed(NOW, ZoneOffset.UTC), batches::add, TICK, 0))
+                .withMessage("Max batch size is expected to be positive - value: 0");
+    }
+
+    @Property(tries = 50)
+    void should_fire_every_timer_once_within_one_tick_after_its_scheduled_time(
+            @ForAll @Size(max = 200) List<@IntRange(min = -1000, max = 10_000_000) Integer> delaysInMillis,
+            @ForAll @IntRange(min = 1, max = 100_000) int stepInMillis) {
+        final Map<String, Instant> firings = new HashMap<>();
+        final var clock = new Instant[]{NOW};
+        final var wheel = new TimingWheelReminderTimer(Clock.fixed(NOW, ZoneOffset.UTC),
+                batch -> batch.forEach(due -> assertThat(firings.put(due.reminderId(), clock[0])).isNull()), TICK, 10);
+        for (int i = 0; i < delaysInMillis.size(); i++) {
+            wheel.schedule("REMINDER" + i, ZonedDateTime.ofInstant(NOW.plusMillis(delaysInMillis.get(i)), ZoneOffset.UTC));
+        }
+
+        final var end = NOW.plusMillis(10_000_000).plus(TICK);
+        while (clock[0].isBefore(end)) {
+            clock[0] = clock[0].plusMillis(stepInMillis);
+            wheel.advanceTo(clock[0]);
+        }
+
+        assertThat(firings).hasSize(delaysInMillis.size());
+        for (int i = 0; i < delaysInMillis.size(); i++) {
+            final var scheduledTime = NOW.plusMillis(delaysInMillis.get(i));
+            assertThat(firings.get("REMINDER" + i))
+                    .isAfterOrEqualTo(scheduledTime)
+                    .isBefore(max(scheduledTime, NOW).plus(TICK).plusMillis(stepInMillis));
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Example
+    void should_not_fire_cancelled_timer() {
+        timer.schedule("REMINDER1", ZonedDateTime.ofInstant(NOW.plusSeconds(60), ZoneOffset.UTC));
+        timer.schedule("REMINDER2", ZonedDateTime.ofInstant(NOW.plusSeconds(60), ZoneOffset.UTC));
+
+        timer.cancel("REMINDER1");
+        timer.advanceTo(NOW.plusSeconds(61));
+
+        assertThat(batches).flatExtracting(batch -> batch).extracting(DueReminder::reminderId).containsExactly("REMINDER2");
+    }
+
+    @Example
+    void should_fire_rescheduled_timer_at_its_new_time_only() {
+        timer.schedule("REMINDER1", ZonedDateTime.ofInstant(NOW.plusSeconds(60), ZoneOffset.UTC));
+        timer.schedule("REMINDER1", ZonedDateTime.ofInstant(NOW.plusSeconds(3600), ZoneOffset.UTC));
+
+        timer.advanceTo(NOW.plusSeconds(61));
+        assertThat(batches).isEmpty();
+
+        timer.advanceTo(NOW.plusSeconds(3600));
+        assertThat(batches).containsExactly(List.of(new DueReminder("REMINDER1", NOW.plusSeconds(3600))));
+    }
+
+    @Example
+    void should_hand_due_reminders_over_in_batches() {
+        final List<DueReminder> reminders = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            reminders.add(new DueReminder("REMINDER" + i, NOW.plusSeconds(i)));
+        }
+        timer.scheduleAll(reminders);
+
+        timer.advanceTo(NOW.plusSeconds(10));
+
+        assertThat(batches).extracting(List::size).containsExactly(3, 3, 1);
+        assertThat(batches).flatExtracting(batch -> batch).containsExactlyInAnyOrderElementsOf(reminders);
+    }
+
+    @Example
+    void should_hold_many_timers() {
+        final List<DueReminder> reminders = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            reminders.add(new DueReminder("REMINDER" + i, NOW.plusSeconds(i % 86_400)));
+        }
+        timer.scheduleAll(reminders);
+        for (int i = 0; i < 1_000_000; i += 2) {
+            timer.cancel("REMINDER" + i);
+        }
+
+        assertThat(timer.size()).isEqualTo(500_000);
+        timer.advanceTo(NOW.plusSeconds(86_400));
+        assertThat(batches).flatExtracting(batch -> batch).hasSize(500_000);
+    }
+
+    private static Instant max(final Instant first, final Instant second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+}
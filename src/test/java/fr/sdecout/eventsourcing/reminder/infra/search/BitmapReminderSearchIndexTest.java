@@ -0,0 +1,139 @@
+package fr.sdecout.eventsourcing.reminder.infra.search;
+
+import fr.sdecout.eventsourcing.StreamRevision;
+import fr.sdecout.eventsourcing.reminder.domain.Country;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderSearchCriteria;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderState;
+import fr.sdecout.eventsourcing.reminder.domain.ReminderType;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.CANCELLED;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderState.ReminderStatus.PENDING;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.CALL_CUSTOMER;
+import static fr.sdecout.eventsourcing.reminder.domain.ReminderType.HAVE_A_NAP;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitmapReminderSearchIndexTest {
+
+    private static final ZonedDateTime A_DATE = ZonedDateTime.parse("2022-03-04T11:30:00Z");
+
+    private final BitmapReminderSearchIndex searchIndex = new BitmapReminderSearchIndex();
+
+    @Property
+    void should_find_reminders_matching_all_criteria_ordered_by_scheduled_time(@ForAll("reminders") List<ReminderState> reminders,
+                                                                               @ForAll ReminderType type,
+                                                                               @ForAll Country country,
+                                                                               @ForAll @IntRange(max = 100) int fromHours,
+                                                                               @ForAll @IntRange(max = 100) int rangeHours) {
+        final var index = new BitmapReminderSearchIndex();
+        reminders.forEach(index::index);
+        final var criteria = ReminderSearchCriteria.anyReminder()
+                .withTypes(type, HAVE_A_NAP)
+                .withStatuses(PENDING)
+                .withCountries(country, Country.of("FR"))
+                .scheduledBetween(A_DATE.plusHours(fromHours), A_DATE.plusHours(fromHours + rangeHours));
+
+        final var result = index.search(criteria, 0, Integer.MAX_VALUE);
+
+        final var expected = reminders.stream()
+                .filter(criteria::matches)
+                .collect(toList());
+        assertThat(result.totalCount()).isEqualTo(expected.size());
+        assertThat(result.reminders())
+                .containsExactlyInAnyOrderElementsOf(expected)
+                .isSortedAccordingTo(Comparator.comparing(ReminderState::scheduledTime, Comparator.comparing(ZonedDateTime::toInstant)));
+    }
+
+    @Example
+    void should_return_requested_page() {
+        for (int i = 0; i < 10; i++) {
+            searchIndex.index(aReminder("REMINDER" + i, 1, CALL_CUSTOMER, PENDING, A_DATE.plusHours(10 - i)));
+        }
+
+        final var result = searchIndex.search(ReminderSearchCriteria.anyReminder(), 3, 2);
+
+        assertThat(result.totalCount()).isEqualTo(10);
+        assertThat(result.reminders()).extracting(ReminderState::id).containsExactly("REMINDER6", "REMINDER5");
+    }
+
+    @Example
+    void should_replace_indexed_state_with_newer_one() {
+        searchIndex.index(aReminder("REMINDER1", 1, CALL_CUSTOMER, PENDING, A_DATE));
+        searchIndex.index(aReminder("REMINDER1", 2, CALL_CUSTOMER, CANCELLED, A_DATE.plusDays(1)));
+
+        assertThat(searchIndex.search(ReminderSearchCriteria.anyReminder().withStatuses(PENDING), 0, 10).totalCount()).isZero();
+        assertThat(searchIndex.search(ReminderSearchCriteria.anyReminder().scheduledBefore(A_DATE.plusHours(1)), 0, 10).totalCount()).isZero();
+        assertThat(searchIndex.search(ReminderSearchCriteria.anyReminder().withStatuses(CANCELLED), 0, 10).reminders())
+                .extracting(ReminderState::version)
+                .containsExactly(new StreamRevision(2));
+    }
+
+    @Example
+    void should_ignore_state_older_than_indexed_one() {
+        searchIndex.index(aReminder("REMINDER1", 2, CALL_CUSTOMER, CANCELLED, A_DATE));
+        searchIndex.index(aReminder("REMINDER1", 1, CALL_CUSTOMER, PENDING, A_DATE));
+
+        assertThat(searchIndex.search(ReminderSearchCriteria.anyReminder().withStatuses(CANCELLED), 0, 10).totalCount()).isEqualTo(1);
+    }
+
+    @Example
+    void should_tell_latest_state_indexed_for_reminder() {
+        searchIndex.index(aReminder("REMINDER1", 1, CALL_CUSTOMER, PENDING, A_DATE));
+        searchIndex.index(aReminder("REMINDER1", 2, CALL_CUSTOMER, CANCELLED, A_DATE));
+
+        assertThat(searchIndex.get("REMINDER1")).map(ReminderState::status).contains(CANCELLED);
+        assertThat(searchIndex.get("REMINDER2")).isEmpty();
+    }
+
+    @Example
+    void should_index_reminders_again_once_cleared() {
+        searchIndex.index(aReminder("REMINDER1", 2, CALL_CUSTOMER, CANCELLED, A_DATE));
+
+        searchIndex.clear();
+        searchIndex.index(aReminder("REMINDER1", 1, CALL_CUSTOMER, PENDING, A_DATE.plusDays(1)));
+
+        assertThat(searchIndex.get("REMINDER1")).map(ReminderState::version).contains(new StreamRevision(1));
+        assertThat(searchIndex.search(ReminderSearchCriteria.anyReminder(), 0, 10).reminders())
+                .extracting(ReminderState::status)
+                .containsExactly(PENDING);
+    }
+
+    @Provide
+    Arbitrary<List<ReminderState>> reminders() {
+        return Combinators.combine(
+                Arbitraries.defaultFor(ReminderType.class),
+                Arbitraries.defaultFor(ReminderState.ReminderStatus.class),
+                Arbitraries.of(Country.of("FR"), Country.of("IT"), Country.of("ES")),
+                Arbitraries.integers().between(0, 200)
+        ).as((type, status, country, hours) -> new ReminderState(new StreamRevision(1), null, "INTERVENTION1", status, type, null, country, A_DATE.plusHours(hours)))
+                .list().ofMaxSize(300)
+                .map(states -> {
+                    final List<ReminderState> reminders = new ArrayList<>();
+                    for (int i = 0; i < states.size(); i++) {
+                        final var state = states.get(i);
+                        reminders.add(new ReminderState(state.version(), "REMINDER" + i, state.interventionId(), state.status(), state.type(),
+                                state.assignee(), state.country(), state.scheduledTime()));
+                    }
+                    return reminders;
+                });
+    }
+
+    private static ReminderState aReminder(final String id, final int version, final ReminderType type, final ReminderState.ReminderStatus status,
+                                           final ZonedDateTime scheduledTime) {
+        return new ReminderState(new StreamRevision(version), id, "INTERVENTION1", status, type, null, Country.of("FR"), scheduledTime);
+    }
+
+}